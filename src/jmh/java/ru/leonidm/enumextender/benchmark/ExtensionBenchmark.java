@@ -0,0 +1,91 @@
+package ru.leonidm.enumextender.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.leonidm.enumextender.api.EnumExtender;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures latency of {@link EnumExtender#addEnum} and {@link EnumExtender#insertEnum} against the size
+ * of the enumeration. Every extension registers switch-case patcher, so each iteration runs a fixed batch
+ * of extensions, that are removed after it, and the enumeration has the same size in every iteration. After each
+ * iteration switch-cases are patched, so the history of patchers does not grow from iteration to iteration,
+ * and each trial uses its own copy of the enumeration, so trials do not depend on each other.
+ *
+ * @author LeonidM
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20, batchSize = ExtensionBenchmark.BATCH_SIZE)
+@Measurement(iterations = 20, batchSize = ExtensionBenchmark.BATCH_SIZE)
+@Fork(1)
+public class ExtensionBenchmark {
+
+    static final int BATCH_SIZE = 100;
+
+    @Param({"10", "100", "1000", "10000"})
+    private int size;
+
+    private EnumExtender<?> enumExtender;
+    private Enum<?> middle;
+    private final List<Enum<?>> added = new ArrayList<>();
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        enumExtender = Fixtures.reload(ExtensionEnum.class, size);
+        middle = enumExtender.getEnumClass().getEnumConstants()[size / 2];
+    }
+
+    @TearDown(Level.Iteration)
+    public void removeAdded() {
+        remove(enumExtender, added);
+        added.clear();
+        enumExtender.switchCase().patch(enumExtender.getEnumClass().getClassLoader(), true);
+    }
+
+    @Benchmark
+    public Enum<?> addEnum() {
+        Enum<?> e = enumExtender.addEnum("N" + counter++, Map.of()).getEnum();
+        added.add(e);
+        return e;
+    }
+
+    @Benchmark
+    public Enum<?> insertEnum() {
+        Enum<?> e = insert(enumExtender, "N" + counter++, middle);
+        added.add(e);
+        return e;
+    }
+
+    private static <E extends Enum<E>> E insert(EnumExtender<E> enumExtender, String name, Enum<?> before) {
+        return enumExtender.insertEnum(name, Map.of(), enumExtender.getEnumClass().cast(before)).getEnum();
+    }
+
+    private static <E extends Enum<E>> void remove(EnumExtender<E> enumExtender, List<Enum<?>> enums) {
+        Class<E> enumClass = enumExtender.getEnumClass();
+        enumExtender.removeEnums(enums.stream().map(enumClass::cast).toList()).forEach(result -> result.getEnum());
+    }
+
+    public enum ExtensionEnum {
+        A,
+        B,
+        C
+    }
+}
@@ -0,0 +1,212 @@
+package ru.leonidm.enumextender.benchmark;
+
+import org.jetbrains.annotations.NotNull;
+import ru.leonidm.enumextender.agent.SwitchMapHolders;
+import ru.leonidm.enumextender.api.EnumBuilder;
+import ru.leonidm.enumextender.api.EnumExtender;
+import ru.leonidm.enumextender.api.EnumResult;
+import ru.leonidm.enumextender.util.ClassFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixtures shared by all benchmarks, so results of different benchmarks and releases are comparable.
+ * Everything is deterministic: names of the constants depend only on their index and generated classes
+ * depend only on their amount.
+ *
+ * @author LeonidM
+ */
+final class Fixtures {
+
+    private static final int CLASS_FILE_VERSION = 61;
+
+    private Fixtures() {
+
+    }
+
+    /**
+     * Returns name of the constant that is added by fixtures at provided index
+     */
+    @NotNull
+    static String name(int index) {
+        return "F" + index;
+    }
+
+    /**
+     * Appends constants to the enumeration until it has provided amount of them and patches all switch-cases
+     *
+     * @throws IllegalStateException if enumeration already has more constants
+     */
+    @NotNull
+    static <E extends Enum<E>> EnumExtender<E> resize(@NotNull Class<E> enumClass, int size) {
+        EnumExtender<E> enumExtender = EnumExtender.of(enumClass);
+        int length = enumClass.getEnumConstants().length;
+        if (length > size) {
+            throw new IllegalStateException("%s already has %s constants, but %s is required"
+                    .formatted(enumClass, length, size));
+        }
+
+        List<EnumBuilder<E>> enumBuilders = new ArrayList<>();
+        for (int i = length; i < size; i++) {
+            enumBuilders.add(enumExtender.enumBuilder(name(i)));
+        }
+
+        enumExtender.extendAll(enumBuilders).forEach(EnumResult::getEnum);
+        enumExtender.switchCase().patch(enumClass.getClassLoader(), true);
+        return enumExtender;
+    }
+
+    /**
+     * Loads a copy of the enumeration class by a new class loader and appends constants to it like
+     * {@link #resize(Class, int)}, so each trial starts with a fresh enumeration, whose extender does not keep
+     * anything from the previous trials
+     */
+    @NotNull
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static EnumExtender<?> reload(@NotNull Class<? extends Enum<?>> enumClass, int size) {
+        ReloadingClassLoader classLoader = new ReloadingClassLoader(enumClass.getClassLoader(), enumClass.getName());
+        try {
+            return resize((Class) Class.forName(enumClass.getName(), true, classLoader), size);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Creates class loader with provided amount of initialized switch-case synthetic classes for the enumeration
+     * and provided amount of other classes, that only make scan of the loaded classes longer
+     *
+     * @param enumClass enumeration class, that must have constant {@code A}
+     */
+    @NotNull
+    static ClassLoader generateClasses(@NotNull Class<? extends Enum<?>> enumClass, int holders, int fillers) {
+        GeneratedClassLoader classLoader = new GeneratedClassLoader(enumClass.getClassLoader());
+        String packageName = Fixtures.class.getPackageName() + ".generated.";
+
+        for (int i = 0; i < fillers; i++) {
+            String name = packageName + "Filler" + i;
+            classLoader.define(name, new ClassFile(CLASS_FILE_VERSION, ClassFile.ACC_PUBLIC | ClassFile.ACC_SUPER,
+                    name.replace('.', '/'), "java/lang/Object").toByteArray());
+        }
+
+        for (int i = 0; i < holders; i++) {
+            String name = packageName + "Holder" + i;
+            Class<?> holder = classLoader.define(name, generateHolder(enumClass, name.replace('.', '/')));
+            try {
+                Class.forName(name, true, classLoader);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+
+            if (holder.getClassLoader() != classLoader) {
+                throw new IllegalStateException("Could not define " + name);
+            }
+        }
+
+        return classLoader;
+    }
+
+    /**
+     * Generates the same switch-case synthetic class as javac does for {@code switch} with one {@code case A}
+     */
+    private static byte @NotNull [] generateHolder(@NotNull Class<? extends Enum<?>> enumClass, @NotNull String name) {
+        String enumName = enumClass.getName().replace('.', '/');
+        String switchMapName = SwitchMapHolders.getSwitchMapName(enumClass);
+
+        ClassFile classFile = new ClassFile(CLASS_FILE_VERSION, ClassFile.ACC_SUPER | ClassFile.ACC_SYNTHETIC,
+                name, "java/lang/Object");
+        classFile.getFields().add(new ClassFile.Member(
+                ClassFile.ACC_STATIC | ClassFile.ACC_FINAL | ClassFile.ACC_SYNTHETIC,
+                classFile.utf8(switchMapName), classFile.utf8("[I")));
+
+        int values = classFile.methodref(enumName, "values", "()[L" + enumName + ";");
+        int switchMap = classFile.fieldref(name, switchMapName, "[I");
+        int constant = classFile.fieldref(enumName, "A", "L" + enumName + ";");
+        int ordinal = classFile.methodref(enumName, "ordinal", "()I");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream code = new DataOutputStream(bytes)) {
+            code.writeByte(0xB8); // invokestatic values
+            code.writeShort(values);
+            code.writeByte(0xBE); // arraylength
+            code.writeByte(0xBC); // newarray int
+            code.writeByte(10);
+            code.writeByte(0xB3); // putstatic switch map
+            code.writeShort(switchMap);
+            code.writeByte(0xB2); // getstatic switch map
+            code.writeShort(switchMap);
+            code.writeByte(0xB2); // getstatic A
+            code.writeShort(constant);
+            code.writeByte(0xB6); // invokevirtual ordinal
+            code.writeShort(ordinal);
+            code.writeByte(0x04); // iconst_1
+            code.writeByte(0x4F); // iastore
+            code.writeByte(0xB1); // return
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        ClassFile.Member clinit = new ClassFile.Member(ClassFile.ACC_STATIC, classFile.utf8("<clinit>"),
+                classFile.utf8("()V"));
+        clinit.getAttributes().add(classFile.codeAttribute(3, 0, bytes.toByteArray()));
+        classFile.getMethods().add(clinit);
+
+        return classFile.toByteArray();
+    }
+
+    /**
+     * Class loader that defines its own copy of one class and delegates all other classes to the parent
+     */
+    private static final class ReloadingClassLoader extends ClassLoader {
+
+        private final String reloadedName;
+
+        private ReloadingClassLoader(@NotNull ClassLoader parent, @NotNull String reloadedName) {
+            super(parent);
+            this.reloadedName = reloadedName;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(reloadedName)) {
+                return super.loadClass(name, resolve);
+            }
+
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loadedClass = findLoadedClass(name);
+                if (loadedClass != null) {
+                    return loadedClass;
+                }
+
+                try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                    if (in == null) {
+                        throw new ClassNotFoundException(name);
+                    }
+
+                    byte[] bytes = in.readAllBytes();
+                    return defineClass(name, bytes, 0, bytes.length);
+                } catch (IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+        }
+    }
+
+    private static final class GeneratedClassLoader extends ClassLoader {
+
+        private GeneratedClassLoader(@NotNull ClassLoader parent) {
+            super(parent);
+        }
+
+        @NotNull
+        private Class<?> define(@NotNull String name, byte @NotNull [] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package ru.leonidm.enumextender.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures throughput of {@link Enum#valueOf} and {@code values()} after the enumeration was extended
+ *
+ * @author LeonidM
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int size;
+
+    private String[] names;
+    private int index;
+
+    @Setup
+    public void setup() {
+        Fixtures.resize(LookupEnum.class, size);
+
+        names = new String[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = LookupEnum.values()[i].name();
+        }
+    }
+
+    @Benchmark
+    public LookupEnum valueOf() {
+        int index = this.index;
+        this.index = index + 1 < names.length ? index + 1 : 0;
+        return LookupEnum.valueOf(names[index]);
+    }
+
+    @Benchmark
+    public LookupEnum[] values() {
+        return LookupEnum.values();
+    }
+
+    @Benchmark
+    public LookupEnum[] enumConstants() {
+        return LookupEnum.class.getEnumConstants();
+    }
+
+    public enum LookupEnum {
+        A,
+        B,
+        C
+    }
+}
@@ -0,0 +1,130 @@
+package ru.leonidm.enumextender.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.leonidm.enumextender.api.EnumExtender;
+import ru.leonidm.enumextender.util.EnumMetadata;
+import ru.leonidm.enumextender.util.ReflectionUtils;
+import ru.leonidm.enumextender.util.UnsafeUtils;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of creating one enumeration instance with reflective lookups on every call,
+ * as it was done before {@link EnumMetadata}, and with metadata resolved once. Constructor call through
+ * {@link EnumMetadata#construct(String, int, Object[])} is compared with {@code new} of the same shape.
+ *
+ * @author LeonidM
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetadataBenchmark {
+
+    private static final Map<String, Object> FIELD_VALUES = Map.of(
+            "integer", 1,
+            "bool", true,
+            "string", "string"
+    );
+
+    private final Object[] constructorArguments = {1, true, "string"};
+    private EnumMetadata<FieldsEnum> enumMetadata;
+
+    @Setup
+    public void setup() {
+        enumMetadata = EnumExtender.of(FieldsEnum.class).getEnumMetadata();
+    }
+
+    @Benchmark
+    public FieldsEnum reflectiveLookups(Blackhole blackhole) throws Exception {
+        FieldsEnum e = UnsafeUtils.allocateInstance(FieldsEnum.class);
+
+        Field valuesField = ReflectionUtils.findValuesField(FieldsEnum.class);
+        FieldsEnum[] values = UnsafeUtils.getStaticFieldSafely(valuesField);
+        blackhole.consume(values);
+
+        UnsafeUtils.setFieldSafely(e, Enum.class.getDeclaredField("name"), "NEW");
+        UnsafeUtils.setFieldSafely(e, Enum.class.getDeclaredField("ordinal"), values.length);
+
+        for (Field field : FieldsEnum.class.getDeclaredFields()) {
+            Object value = FIELD_VALUES.get(field.getName());
+            if (value != null) {
+                UnsafeUtils.setFieldSafely(e, field, value);
+            }
+        }
+
+        blackhole.consume(Class.class.getDeclaredField("enumConstants"));
+        blackhole.consume(Class.class.getDeclaredField("enumConstantDirectory"));
+        return e;
+    }
+
+    @Benchmark
+    public FieldsEnum metadata(Blackhole blackhole) {
+        FieldsEnum[] values = enumMetadata.getValues();
+        blackhole.consume(values);
+
+        FieldsEnum e = enumMetadata.allocate("NEW", values.length);
+        enumMetadata.setFields(e, FIELD_VALUES);
+        return e;
+    }
+
+    @Benchmark
+    public FieldsEnum construct() {
+        return enumMetadata.construct("NEW", 2, constructorArguments);
+    }
+
+    @Benchmark
+    public FieldsClass plainNew() {
+        return new FieldsClass("NEW", 2, (Integer) constructorArguments[0], (Boolean) constructorArguments[1],
+                (String) constructorArguments[2]);
+    }
+
+    public enum FieldsEnum {
+        A(1, true, "A"),
+        B(2, false, "B");
+
+        private final int integer;
+        private final boolean bool;
+        private final String string;
+
+        FieldsEnum(int integer, boolean bool, String string) {
+            this.integer = integer;
+            this.bool = bool;
+            this.string = string;
+        }
+    }
+
+    /**
+     * Class with the same fields as {@link FieldsEnum}, including name and ordinal
+     */
+    public static final class FieldsClass {
+
+        private final String name;
+        private final int ordinal;
+        private final int integer;
+        private final boolean bool;
+        private final String string;
+
+        public FieldsClass(String name, int ordinal, int integer, boolean bool, String string) {
+            this.name = name;
+            this.ordinal = ordinal;
+            this.integer = integer;
+            this.bool = bool;
+            this.string = string;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ru.leonidm.enumextender.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.leonidm.enumextender.api.EnumExtender;
+import ru.leonidm.enumextender.api.EnumSwitchCaseExtender;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures full {@link EnumSwitchCaseExtender#patch(ClassLoader, boolean)} pass against the number of loaded
+ * classes and switch-case synthetic classes. Every iteration gets new class loader with generated classes,
+ * that were not scanned yet, and then new constant is inserted, so every switch-case synthetic class must
+ * be rewritten. Constant from the previous iteration is removed, so the enumeration has the same size.
+ * Generation of classes takes much longer than one patch, so each iteration measures a single patch, and each
+ * trial uses its own copy of the enumeration, so trials do not depend on each other.
+ *
+ * @author LeonidM
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+public class PatchBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int holders;
+
+    @Param({"0", "1000", "10000"})
+    private int fillers;
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    private EnumExtender<?> enumExtender;
+    private EnumSwitchCaseExtender<?> switchCaseExtender;
+    private ClassLoader classLoader;
+    private Enum<?> inserted;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        enumExtender = Fixtures.reload(PatchEnum.class, 10);
+        switchCaseExtender = enumExtender.switchCase();
+        switchCaseExtender.setParallelThreshold(parallel ? 1 : Integer.MAX_VALUE);
+    }
+
+    @Setup(Level.Iteration)
+    public void generateClasses() {
+        if (inserted != null) {
+            remove(enumExtender, inserted);
+        }
+
+        classLoader = Fixtures.generateClasses(enumExtender.getEnumClass(), holders, fillers);
+        inserted = insert(enumExtender, "I" + counter++);
+    }
+
+    @Benchmark
+    public EnumSwitchCaseExtender<?> patch() {
+        return switchCaseExtender.patch(classLoader, false);
+    }
+
+    private static <E extends Enum<E>> E insert(EnumExtender<E> enumExtender, String name) {
+        E a = Enum.valueOf(enumExtender.getEnumClass(), "A");
+        return enumExtender.insertEnum(name, Map.of(), a).getEnum();
+    }
+
+    private static <E extends Enum<E>> void remove(EnumExtender<E> enumExtender, Enum<?> e) {
+        enumExtender.removeEnum(enumExtender.getEnumClass().cast(e)).getEnum();
+    }
+
+    public enum PatchEnum {
+        A,
+        B,
+        C
+    }
+}
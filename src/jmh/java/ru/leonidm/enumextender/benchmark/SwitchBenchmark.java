@@ -0,0 +1,77 @@
+package ru.leonidm.enumextender.benchmark;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code switch} dispatch over all constants of the extended enumeration, where
+ * most of them fall back to the default branch
+ *
+ * @author LeonidM
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SwitchBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int size;
+
+    private SwitchEnum[] values;
+
+    @Setup
+    public void setup() {
+        // Switch-case synthetic class is initialized before extension, so it is patched
+        dispatch(SwitchEnum.A);
+
+        Fixtures.resize(SwitchEnum.class, size);
+        values = SwitchEnum.values();
+    }
+
+    @Benchmark
+    public int dispatchAll() {
+        int sum = 0;
+        for (SwitchEnum value : values) {
+            sum += dispatch(value);
+        }
+
+        return sum;
+    }
+
+    private static int dispatch(@NotNull SwitchEnum e) {
+        switch (e) {
+            case A:
+                return 1;
+            case B:
+                return 2;
+            case C:
+                return 3;
+            case D:
+                return 4;
+            default:
+                return 0;
+        }
+    }
+
+    public enum SwitchEnum {
+        A,
+        B,
+        C,
+        D
+    }
+}
@@ -0,0 +1,190 @@
+package ru.leonidm.enumextender.agent;
+
+import com.sun.tools.attach.VirtualMachine;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.lang.instrument.Instrumentation;
+import java.lang.reflect.Field;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Optional Java agent that patches switch-case synthetic classes when they are loaded, so
+ * {@link ru.leonidm.enumextender.api.EnumSwitchCaseExtender} does not need to scan all loaded classes and
+ * classes loaded after patching are handled too. Agent can be loaded with {@code -javaagent:enum-extender.jar}
+ * or attached at the runtime with {@link #install()}.
+ * <p>
+ * Transformed classes call {@link SwitchMapHolders}, so this library must be loaded by their class loaders or
+ * by one of their parents, otherwise they are left untouched.
+ * <p>
+ * Enumerations are unsealed only on request, because it removes {@code PermittedSubclasses} from the class for the
+ * whole JVM: with {@code -javaagent:enum-extender.jar=unseal=com.example.enums.,com.example.OtherEnum} or with
+ * {@link #unsealEnums(String...)}. New constants with their own bodies can be added only to such enumerations,
+ * see {@link SealedEnumTransformer}.
+ *
+ * @author LeonidM
+ */
+public final class EnumExtenderAgent {
+
+    private static final Object INSTALL_LOCK = new Object();
+    private static volatile Instrumentation instrumentation;
+
+    private EnumExtenderAgent() {
+
+    }
+
+    public static void premain(@Nullable String args, @NotNull Instrumentation instrumentation) {
+        init(args, instrumentation);
+    }
+
+    public static void agentmain(@Nullable String args, @NotNull Instrumentation instrumentation) {
+        init(args, instrumentation);
+    }
+
+    private static synchronized void init(@Nullable String args, @NotNull Instrumentation instrumentation) {
+        if (EnumExtenderAgent.instrumentation != null) {
+            return;
+        }
+
+        instrumentation.addTransformer(new SwitchMapTransformer());
+
+        List<String> unsealed = parseUnsealed(args);
+        if (!unsealed.isEmpty()) {
+            instrumentation.addTransformer(new SealedEnumTransformer(unsealed));
+        }
+
+        for (Class<?> clazz : instrumentation.getAllLoadedClasses()) {
+            if (clazz.isSynthetic() && clazz.getClassLoader() != null && hasSwitchMap(clazz)) {
+                SwitchMapHolders.register(clazz);
+            }
+        }
+
+        EnumExtenderAgent.instrumentation = instrumentation;
+    }
+
+    /**
+     * Parses arguments of the agent, that are written as {@code key=value} pairs separated by semicolons
+     *
+     * @return prefixes of the enumerations that must be unsealed
+     * @throws IllegalArgumentException if arguments contain unknown option
+     */
+    @NotNull
+    private static List<String> parseUnsealed(@Nullable String args) {
+        List<String> prefixes = new ArrayList<>();
+        if (args == null || args.isBlank()) {
+            return prefixes;
+        }
+
+        for (String option : args.split(";")) {
+            int index = option.indexOf('=');
+            String key = index < 0 ? option.strip() : option.substring(0, index).strip();
+            if (!key.equals("unseal")) {
+                throw new IllegalArgumentException("Unknown option '%s' of the agent".formatted(key));
+            }
+
+            if (index >= 0) {
+                for (String prefix : option.substring(index + 1).split(",")) {
+                    if (!prefix.isBlank()) {
+                        prefixes.add(prefix.strip());
+                    }
+                }
+            }
+        }
+
+        return prefixes;
+    }
+
+    /**
+     * Removes {@code PermittedSubclasses} attribute from enumerations that are loaded after this call and whose names
+     * start with one of provided prefixes, so new constants with their own bodies can be added to them. Sealing
+     * of such enumerations is not checked anymore for all code in the JVM, so prefixes must be as narrow as
+     * possible. Enumerations that were already loaded are not changed
+     *
+     * @param prefixes binary names of the enumerations or their prefixes, for example {@code com.example.enums.}
+     * @throws IllegalStateException if agent is not installed
+     */
+    public static void unsealEnums(@NotNull String @NotNull ... prefixes) {
+        Instrumentation instrumentation = EnumExtenderAgent.instrumentation;
+        if (instrumentation == null) {
+            throw new IllegalStateException("Agent is not installed");
+        }
+
+        if (prefixes.length > 0) {
+            instrumentation.addTransformer(new SealedEnumTransformer(List.of(prefixes)));
+        }
+    }
+
+    private static boolean hasSwitchMap(@NotNull Class<?> clazz) {
+        try {
+            for (Field field : clazz.getDeclaredFields()) {
+                if (SwitchMapHolders.getSwitchMapName(field) != null) {
+                    return true;
+                }
+            }
+        } catch (LinkageError ignored) {
+
+        }
+
+        return false;
+    }
+
+    /**
+     * Attaches agent to the current JVM if it was not loaded yet. JVM must be started with
+     * {@code -Djdk.attach.allowAttachSelf=true} and this library must be loaded from jar file by the system
+     * class loader.
+     *
+     * @return instrumentation of the agent
+     * @throws IllegalStateException if agent cannot be attached
+     */
+    @NotNull
+    public static Instrumentation install() {
+        // Agent is initialized in another thread, so lock must not be shared with init()
+        synchronized (INSTALL_LOCK) {
+            if (instrumentation == null) {
+                attach();
+            }
+
+            if (instrumentation == null) {
+                throw new IllegalStateException("Agent was attached, but it was loaded by another class loader");
+            }
+
+            return instrumentation;
+        }
+    }
+
+    private static void attach() {
+        CodeSource codeSource = EnumExtenderAgent.class.getProtectionDomain().getCodeSource();
+        if (codeSource == null) {
+            throw new IllegalStateException("Could not find jar of the agent");
+        }
+
+        try {
+            File jar = new File(codeSource.getLocation().toURI());
+            if (!jar.isFile()) {
+                throw new IllegalStateException("Agent must be loaded from jar, got %s".formatted(jar));
+            }
+
+            VirtualMachine virtualMachine = VirtualMachine.attach(String.valueOf(ProcessHandle.current().pid()));
+            try {
+                virtualMachine.loadAgent(jar.getAbsolutePath());
+            } finally {
+                virtualMachine.detach();
+            }
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception | LinkageError e) {
+            throw new IllegalStateException("Could not attach agent", e);
+        }
+    }
+
+    /**
+     * Returns true if agent is loaded and all new switch-case synthetic classes are registered
+     * in {@link SwitchMapHolders}
+     */
+    public static boolean isInstalled() {
+        return instrumentation != null;
+    }
+}
@@ -0,0 +1,87 @@
+package ru.leonidm.enumextender.agent;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.leonidm.enumextender.util.ClassFile;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.nio.charset.StandardCharsets;
+import java.security.ProtectionDomain;
+import java.util.Collection;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Transformer that removes {@code PermittedSubclasses} attribute from enumerations when they are loaded.
+ * Since Java 17, enumerations with constant-specific bodies are implicitly sealed, so new constants with their
+ * own bodies cannot be defined as subclasses of such enumerations without this transformation. Only enumerations
+ * whose names start with one of provided prefixes are transformed.
+ *
+ * @author LeonidM
+ */
+public final class SealedEnumTransformer implements ClassFileTransformer {
+
+    private static final String PERMITTED_SUBCLASSES = "PermittedSubclasses";
+    private static final byte[] PERMITTED_SUBCLASSES_BYTES = PERMITTED_SUBCLASSES.getBytes(StandardCharsets.US_ASCII);
+
+    private final Logger logger = Logger.getLogger(getClass().getName());
+    private final String[] prefixes;
+
+    /**
+     * @param prefixes binary names of the enumerations or their prefixes
+     */
+    public SealedEnumTransformer(@NotNull Collection<String> prefixes) {
+        this.prefixes = prefixes.stream()
+                .map(prefix -> prefix.replace('.', '/'))
+                .toArray(String[]::new);
+    }
+
+    @Override
+    public byte @Nullable [] transform(@Nullable ClassLoader loader, @Nullable String className,
+                                       @Nullable Class<?> classBeingRedefined, @Nullable ProtectionDomain protectionDomain,
+                                       byte @NotNull [] classfileBuffer) {
+        if (loader == null || classBeingRedefined != null || className == null || !matches(className)) {
+            return null;
+        }
+
+        try {
+            return unseal(classfileBuffer);
+        } catch (Throwable t) {
+            logger.log(Level.WARNING, t, () -> "Could not transform class '%s'".formatted(className));
+            return null;
+        }
+    }
+
+    private boolean matches(@NotNull String className) {
+        for (String prefix : prefixes) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Removes {@code PermittedSubclasses} attribute from provided enumeration class
+     *
+     * @param classfileBuffer bytes of the class
+     * @return new bytes of the class or null if it is not a sealed enumeration
+     * @throws IllegalArgumentException if provided bytes are not a valid class file
+     */
+    public static byte @Nullable [] unseal(byte @NotNull [] classfileBuffer) {
+        if (!SwitchMapTransformer.contains(classfileBuffer, PERMITTED_SUBCLASSES_BYTES)) {
+            return null;
+        }
+
+        ClassFile classFile = ClassFile.parse(classfileBuffer);
+        if ((classFile.getAccessFlags() & ClassFile.ACC_ENUM) == 0
+            || !"java/lang/Enum".equals(classFile.getSuperName())) {
+            return null;
+        }
+
+        boolean removed = classFile.getAttributes()
+                .removeIf(attribute -> classFile.getUtf8(attribute.nameIndex()).equals(PERMITTED_SUBCLASSES));
+        return removed ? classFile.toByteArray() : null;
+    }
+}
@@ -0,0 +1,283 @@
+package ru.leonidm.enumextender.agent;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.leonidm.enumextender.jfr.SwitchMapScanEvent;
+import ru.leonidm.enumextender.util.ClassLoaderUtils;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Registry of the switch-case synthetic classes. If {@link EnumExtenderAgent} is installed, classes are
+ * registered when they are initialized, so switch-cases can be patched without scanning all loaded classes
+ * and immediately after they appear. Otherwise, classes are found by {@link #scan(ClassLoader, boolean)},
+ * that remembers how many classes of each class loader were already scanned, so each class is inspected
+ * only one time.
+ * <p>
+ * Classes, class loaders and listeners are referenced weakly, so registry never prevents them from unloading.
+ *
+ * @author LeonidM
+ */
+public final class SwitchMapHolders {
+
+    public static final String SWITCH_MAP_PREFIX = "$SwitchMap$";
+
+    private static final Logger LOGGER = Logger.getLogger(SwitchMapHolders.class.getName());
+    private static final Map<String, Set<Class<?>>> HOLDERS = new ConcurrentHashMap<>();
+    private static final Map<String, List<WeakReference<Consumer<Class<?>>>>> LISTENERS = new ConcurrentHashMap<>();
+    private static final Map<String, List<WeakReference<Consumer<Class<?>>>>> INITIALIZING_LISTENERS =
+            new ConcurrentHashMap<>();
+    private static final Map<ClassLoader, Integer> SCANNED_CLASSES = new WeakHashMap<>();
+
+    private SwitchMapHolders() {
+
+    }
+
+    /**
+     * Called at the start of static initializer of every switch-case synthetic class transformed by
+     * {@link SwitchMapTransformer}, before it reads values of the enumerations. Must not be called manually.
+     *
+     * @param holder switch-case synthetic class that is being initialized
+     */
+    @ApiStatus.Internal
+    public static void onInitializing(@NotNull Class<?> holder) {
+        for (Field field : holder.getDeclaredFields()) {
+            String switchMapName = getSwitchMapName(field);
+            if (switchMapName != null) {
+                notify(INITIALIZING_LISTENERS.get(switchMapName), holder);
+            }
+        }
+    }
+
+    /**
+     * Called at the end of static initializer of every switch-case synthetic class transformed by
+     * {@link SwitchMapTransformer}. Must not be called manually.
+     *
+     * @param holder initialized switch-case synthetic class
+     */
+    @ApiStatus.Internal
+    public static void onInitialized(@NotNull Class<?> holder) {
+        register(holder);
+    }
+
+    /**
+     * Registers switch-case synthetic class and passes it to the listeners of all its switch maps
+     *
+     * @param holder switch-case synthetic class
+     */
+    public static void register(@NotNull Class<?> holder) {
+        register(holder, true);
+    }
+
+    /**
+     * Registers switch-case synthetic class without notifying listeners
+     *
+     * @param holder switch-case synthetic class
+     */
+    public static void registerSilently(@NotNull Class<?> holder) {
+        register(holder, false);
+    }
+
+    private static void register(@NotNull Class<?> holder, boolean notify) {
+        for (Field field : holder.getDeclaredFields()) {
+            String switchMapName = getSwitchMapName(field);
+            if (switchMapName == null) {
+                continue;
+            }
+
+            HOLDERS.computeIfAbsent(switchMapName, k -> Collections.synchronizedSet(
+                    Collections.newSetFromMap(new WeakHashMap<>()))).add(holder);
+
+            if (notify) {
+                notify(LISTENERS.get(switchMapName), holder);
+            }
+        }
+    }
+
+    private static void notify(@Nullable List<WeakReference<Consumer<Class<?>>>> listeners, @NotNull Class<?> holder) {
+        if (listeners == null) {
+            return;
+        }
+
+        for (WeakReference<Consumer<Class<?>>> reference : listeners) {
+            Consumer<Class<?>> listener = reference.get();
+            if (listener == null) {
+                listeners.remove(reference);
+                continue;
+            }
+
+            try {
+                listener.accept(holder);
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, e, () -> "Could not patch switch-case class '%s'".formatted(holder));
+            }
+        }
+    }
+
+    /**
+     * Registers all switch-case synthetic classes loaded by provided class loader (also, it can scan its parents)
+     * since the previous scan of this class loader. Listeners are not notified about found classes.
+     *
+     * @param classLoader class loader whose classes must be scanned
+     * @param withParents if true also parents of the class loader will be scanned
+     * @return number of inspected classes
+     * @throws IllegalStateException if JVM is somehow broken
+     */
+    public static int scan(@NotNull ClassLoader classLoader, boolean withParents) {
+        return scan(classLoader, withParents, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Registers all switch-case synthetic classes loaded by provided class loader (also, it can scan its parents)
+     * since the previous scan of this class loader. If there are at least {@code parallelThreshold} new classes
+     * in all class loaders, they are inspected in parallel in the common fork-join pool.
+     * Listeners are not notified about found classes.
+     *
+     * @param classLoader       class loader whose classes must be scanned
+     * @param withParents       if true also parents of the class loader will be scanned
+     * @param parallelThreshold minimal amount of new classes for parallel inspection
+     * @return number of inspected classes
+     * @throws IllegalStateException if JVM is somehow broken
+     */
+    public static int scan(@NotNull ClassLoader classLoader, boolean withParents, int parallelThreshold) {
+        SwitchMapScanEvent event = new SwitchMapScanEvent();
+        event.begin();
+
+        ClassLoader scannedClassLoader = classLoader;
+        List<Class<?>> classes = new ArrayList<>();
+        do {
+            snapshot(classLoader, classes);
+            classLoader = classLoader.getParent();
+        } while (withParents && classLoader != null);
+
+        boolean parallel = classes.size() >= parallelThreshold;
+        if (parallel) {
+            classes.parallelStream().forEach(SwitchMapHolders::inspect);
+        } else {
+            classes.forEach(SwitchMapHolders::inspect);
+        }
+
+        if (event.shouldCommit()) {
+            event.classLoader = String.valueOf(scannedClassLoader);
+            event.withParents = withParents;
+            event.scannedClasses = classes.size();
+            event.parallel = parallel;
+            event.commit();
+        }
+
+        return classes.size();
+    }
+
+    private static void snapshot(@NotNull ClassLoader classLoader, @NotNull List<Class<?>> snapshot) {
+        synchronized (SCANNED_CLASSES) {
+            int fromIndex = SCANNED_CLASSES.getOrDefault(classLoader, 0);
+            int size = ClassLoaderUtils.getClassesSynchronized(classLoader, fromIndex, snapshot::addAll);
+            SCANNED_CLASSES.put(classLoader, size);
+        }
+    }
+
+    private static void inspect(@NotNull Class<?> clazz) {
+        if (!clazz.isSynthetic()) {
+            return;
+        }
+
+        try {
+            register(clazz, false);
+        } catch (LinkageError e) {
+            LOGGER.log(Level.WARNING, e, () -> "Could not inspect class '%s'".formatted(clazz));
+        }
+    }
+
+    /**
+     * Adds listener, that is called each time new switch-case synthetic class with provided switch map
+     * is initialized. Listener is referenced weakly, so caller must keep it, and it is removed after it
+     * is collected. Enumerations with the same name can be loaded by different class loaders, so listener
+     * must check that switch-case synthetic class belongs to its enumeration class.
+     *
+     * @param switchMapName name of the switch map field
+     * @param listener      listener of the switch-case synthetic classes
+     */
+    public static void addListener(@NotNull String switchMapName, @NotNull Consumer<Class<?>> listener) {
+        LISTENERS.computeIfAbsent(switchMapName, k -> new CopyOnWriteArrayList<>())
+                .add(new WeakReference<>(listener));
+    }
+
+    /**
+     * Adds listener, that is called each time new switch-case synthetic class with provided switch map
+     * starts its initialization, before it reads values of the enumeration. It is called only if
+     * {@link EnumExtenderAgent} is installed. Listener is referenced weakly like in
+     * {@link #addListener(String, Consumer)}
+     *
+     * @param switchMapName name of the switch map field
+     * @param listener      listener of the switch-case synthetic classes
+     */
+    public static void addInitializingListener(@NotNull String switchMapName, @NotNull Consumer<Class<?>> listener) {
+        INITIALIZING_LISTENERS.computeIfAbsent(switchMapName, k -> new CopyOnWriteArrayList<>())
+                .add(new WeakReference<>(listener));
+    }
+
+    /**
+     * Returns all registered switch-case synthetic classes that contain provided switch map
+     *
+     * @param switchMapName name of the switch map field
+     * @return list of switch-case synthetic classes
+     */
+    @NotNull
+    public static List<Class<?>> getHolders(@NotNull String switchMapName) {
+        Set<Class<?>> holders = HOLDERS.get(switchMapName);
+        if (holders == null) {
+            return List.of();
+        }
+
+        synchronized (holders) {
+            return new ArrayList<>(holders);
+        }
+    }
+
+    /**
+     * Returns name of the switch map field for provided enumeration class
+     *
+     * @param enumClass enumeration class
+     * @return name of the switch map field
+     */
+    @NotNull
+    public static String getSwitchMapName(@NotNull Class<? extends Enum<?>> enumClass) {
+        return SWITCH_MAP_PREFIX + enumClass.getName().replace('.', '$');
+    }
+
+    /**
+     * Checks if provided field is a switch map of the switch-case synthetic class
+     *
+     * @param field field to check
+     * @return name of the switch map or null if field is not a switch map
+     */
+    @Nullable
+    public static String getSwitchMapName(@NotNull Field field) {
+        int modifiers = field.getModifiers();
+        if (!Modifier.isStatic(modifiers) || !field.isSynthetic()) {
+            return null;
+        }
+
+        Class<?> fieldType = field.getType();
+        if (!fieldType.isArray() || fieldType.componentType() != int.class) {
+            return null;
+        }
+
+        String name = field.getName();
+        return name.startsWith(SWITCH_MAP_PREFIX) ? name : null;
+    }
+}
@@ -0,0 +1,159 @@
+package ru.leonidm.enumextender.agent;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.leonidm.enumextender.util.ClassFile;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.nio.charset.StandardCharsets;
+import java.security.ProtectionDomain;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Transformer that finds switch-case synthetic classes with {@code $SwitchMap$} fields when they are loaded and
+ * surrounds their static initializer with calls of {@link SwitchMapHolders#onInitializing(Class)} and
+ * {@link SwitchMapHolders#onInitialized(Class)}.
+ * To do so, original static initializer is renamed and new one calls it and then the hook, and static fields
+ * of such classes lose their {@code final} modifier, because they are assigned outside of {@code <clinit>}.
+ *
+ * @author LeonidM
+ */
+public final class SwitchMapTransformer implements ClassFileTransformer {
+
+    private static final String HOOK_CLASS = SwitchMapHolders.class.getName().replace('.', '/');
+    private static final String HOOK_METHOD = "onInitialized";
+    private static final String START_HOOK_METHOD = "onInitializing";
+    private static final String HOOK_DESCRIPTOR = "(Ljava/lang/Class;)V";
+    private static final String CLINIT = "<clinit>";
+    private static final String RENAMED_CLINIT = "$enumextender$clinit";
+
+    private static final byte[] SWITCH_MAP_BYTES = SwitchMapHolders.SWITCH_MAP_PREFIX.getBytes(StandardCharsets.US_ASCII);
+
+    private static final int LDC_W = 0x13;
+    private static final int INVOKESTATIC = 0xB8;
+    private static final int RETURN = 0xB1;
+
+    private final Logger logger = Logger.getLogger(getClass().getName());
+    // Loader of the hooks is resolved once when the agent is installed, because classes must not be loaded
+    // from transform(): it can cause ClassCircularityError or deadlock on the lock of the loader
+    private final ClassLoader hookLoader = SwitchMapHolders.class.getClassLoader();
+
+    @Override
+    public byte @Nullable [] transform(@Nullable ClassLoader loader, @Nullable String className,
+                                       @Nullable Class<?> classBeingRedefined, @Nullable ProtectionDomain protectionDomain,
+                                       byte @NotNull [] classfileBuffer) {
+        if (loader == null || classBeingRedefined != null || className == null || className.indexOf('$') < 0) {
+            return null;
+        }
+
+        try {
+            byte[] bytes = rewrite(classfileBuffer);
+            if (bytes == null || !isHookVisible(loader)) {
+                return null;
+            }
+
+            return bytes;
+        } catch (Throwable t) {
+            logger.log(Level.WARNING, t, () -> "Could not transform class '%s'".formatted(className));
+            return null;
+        }
+    }
+
+    /**
+     * Rewrites provided switch-case synthetic class, so it calls {@link SwitchMapHolders#onInitializing(Class)}
+     * at the start and {@link SwitchMapHolders#onInitialized(Class)} at the end of its static initializer
+     *
+     * @param classfileBuffer bytes of the class
+     * @return new bytes of the class or null if it is not a switch-case synthetic class
+     * @throws IllegalArgumentException if provided bytes are not a valid class file
+     */
+    public static byte @Nullable [] rewrite(byte @NotNull [] classfileBuffer) {
+        if (!contains(classfileBuffer, SWITCH_MAP_BYTES)) {
+            return null;
+        }
+
+        ClassFile classFile = ClassFile.parse(classfileBuffer);
+        if ((classFile.getAccessFlags() & ClassFile.ACC_SYNTHETIC) == 0) {
+            return null;
+        }
+
+        boolean hasSwitchMap = false;
+        for (ClassFile.Member field : classFile.getFields()) {
+            if ((field.getAccessFlags() & ClassFile.ACC_STATIC) != 0
+                && classFile.getUtf8(field.getNameIndex()).startsWith(SwitchMapHolders.SWITCH_MAP_PREFIX)
+                && classFile.getUtf8(field.getDescriptorIndex()).equals("[I")) {
+                hasSwitchMap = true;
+                break;
+            }
+        }
+
+        ClassFile.Member clinit = classFile.findMember(classFile.getMethods(), CLINIT, "()V");
+        if (!hasSwitchMap || clinit == null
+            || classFile.findMember(classFile.getMethods(), RENAMED_CLINIT, null) != null) {
+            return null;
+        }
+
+        for (ClassFile.Member field : classFile.getFields()) {
+            if ((field.getAccessFlags() & ClassFile.ACC_STATIC) != 0) {
+                field.setAccessFlags(field.getAccessFlags() & ~ClassFile.ACC_FINAL);
+            }
+        }
+
+        clinit.setNameIndex(classFile.utf8(RENAMED_CLINIT));
+        clinit.setAccessFlags(ClassFile.ACC_PRIVATE | ClassFile.ACC_STATIC | ClassFile.ACC_SYNTHETIC);
+
+        int renamedClinit = classFile.methodref(classFile.getName(), RENAMED_CLINIT, "()V");
+        int hook = classFile.methodref(HOOK_CLASS, HOOK_METHOD, HOOK_DESCRIPTOR);
+        int startHook = classFile.methodref(HOOK_CLASS, START_HOOK_METHOD, HOOK_DESCRIPTOR);
+        int thisClass = classFile.getThisClass();
+
+        byte[] code = {
+                (byte) LDC_W, (byte) (thisClass >>> 8), (byte) thisClass,
+                (byte) INVOKESTATIC, (byte) (startHook >>> 8), (byte) startHook,
+                (byte) INVOKESTATIC, (byte) (renamedClinit >>> 8), (byte) renamedClinit,
+                (byte) LDC_W, (byte) (thisClass >>> 8), (byte) thisClass,
+                (byte) INVOKESTATIC, (byte) (hook >>> 8), (byte) hook,
+                (byte) RETURN
+        };
+
+        ClassFile.Member newClinit = new ClassFile.Member(ClassFile.ACC_STATIC, classFile.utf8(CLINIT), classFile.utf8("()V"));
+        newClinit.getAttributes().add(classFile.codeAttribute(1, 0, code));
+        classFile.getMethods().add(newClinit);
+
+        return classFile.toByteArray();
+    }
+
+    static boolean contains(byte @NotNull [] bytes, byte @NotNull [] sequence) {
+        outer:
+        for (int i = 0; i <= bytes.length - sequence.length; i++) {
+            for (int j = 0; j < sequence.length; j++) {
+                if (bytes[i + j] != sequence[j]) {
+                    continue outer;
+                }
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks that the loader delegates to the loader of the hooks. Loaders that see the hooks only through
+     * custom delegation are not recognized, so their classes are left to the scan
+     */
+    private boolean isHookVisible(@NotNull ClassLoader loader) {
+        if (hookLoader == null) {
+            return true;
+        }
+
+        for (ClassLoader current = loader; current != null; current = current.getParent()) {
+            if (current == hookLoader) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
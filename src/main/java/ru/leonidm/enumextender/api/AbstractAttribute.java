@@ -0,0 +1,85 @@
+package ru.leonidm.enumextender.api;
+
+import org.jetbrains.annotations.NotNull;
+import ru.leonidm.enumextender.util.EnumMetadata;
+
+/**
+ * Base of the tables, that store values for each instance of enumeration in the array indexed by ordinal.
+ * Arrays are remapped by {@link EnumExtender} while new values of the enumeration are being published, that is
+ * after ordinals were rewritten, so ordinal and array are read under one stamp of the enumeration
+ *
+ * @param <E> enum type
+ * @param <A> array type
+ * @author LeonidM
+ */
+abstract class AbstractAttribute<E extends Enum<E>, A> {
+
+    private final EnumMetadata<E> enumMetadata;
+    private volatile A values;
+
+    AbstractAttribute(@NotNull EnumExtender<E> enumExtender) {
+        enumMetadata = enumExtender.getEnumMetadata();
+    }
+
+    /**
+     * Creates array of provided length filled with default value
+     */
+    @NotNull
+    abstract A newArray(int length);
+
+    /**
+     * Creates array with default values for all current instances of enumeration
+     */
+    final synchronized void init(int length) {
+        values = newArray(length);
+    }
+
+    /**
+     * Moves values to the new positions, filling new positions with default value. Writers lock this attribute,
+     * so values written before the remap are moved and values written after it go to the new array
+     *
+     * @param sourceIndices index in the old array for each index in the new array, or -1 for new instances
+     */
+    final synchronized void remap(int @NotNull [] sourceIndices) {
+        A oldValues = values;
+        A values = newArray(sourceIndices.length);
+        int i = 0;
+        while (i < sourceIndices.length) {
+            int sourceIndex = sourceIndices[i];
+            if (sourceIndex < 0) {
+                i++;
+                continue;
+            }
+
+            // Instances keep their order, so values are copied by runs of consecutive indices
+            int length = 1;
+            while (i + length < sourceIndices.length && sourceIndices[i + length] == sourceIndex + length) {
+                length++;
+            }
+
+            System.arraycopy(oldValues, sourceIndex, values, i, length);
+            i += length;
+        }
+
+        this.values = values;
+    }
+
+    @NotNull
+    final A values() {
+        return values;
+    }
+
+    /**
+     * @see EnumMetadata#readStamp()
+     */
+    final long readStamp() {
+        return enumMetadata.readStamp();
+    }
+
+    /**
+     * @see EnumMetadata#validate(long)
+     */
+    final boolean validate(long stamp) {
+        return enumMetadata.validate(stamp);
+    }
+}
@@ -0,0 +1,68 @@
+package ru.leonidm.enumextender.api;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Primitive {@code double} version of {@link EnumAttribute}, that does not box values
+ *
+ * @param <E> enum type
+ * @author LeonidM
+ */
+public final class DoubleAttribute<E extends Enum<E>> extends AbstractAttribute<E, double[]> {
+
+    private final double defaultValue;
+
+    private DoubleAttribute(@NotNull EnumExtender<E> enumExtender, double defaultValue) {
+        super(enumExtender);
+        this.defaultValue = defaultValue;
+    }
+
+    /**
+     * Creates attribute and attaches it to the provided extender
+     *
+     * @param defaultValue value of all current instances and instances created later
+     */
+    @NotNull
+    @Contract("_, _ -> new")
+    public static <E extends Enum<E>> DoubleAttribute<E> create(@NotNull EnumExtender<E> enumExtender, double defaultValue) {
+        return enumExtender.addAttribute(new DoubleAttribute<>(enumExtender, defaultValue));
+    }
+
+    public double get(@NotNull E e) {
+        long stamp;
+        double value;
+        do {
+            stamp = readStamp();
+            double[] values = values();
+            int ordinal = e.ordinal();
+            // Ordinal can be rewritten before the array is remapped, then the stamp is not valid
+            value = ordinal < values.length ? values[ordinal] : defaultValue;
+        } while (!validate(stamp));
+
+        return value;
+    }
+
+    public void set(@NotNull E e, double value) {
+        while (true) {
+            long stamp = readStamp();
+            synchronized (this) {
+                // Array is not remapped while this attribute is locked, so only ordinal can be changed
+                int ordinal = e.ordinal();
+                if (validate(stamp)) {
+                    values()[ordinal] = value;
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    double @NotNull [] newArray(int length) {
+        double[] values = new double[length];
+        Arrays.fill(values, defaultValue);
+        return values;
+    }
+}
@@ -0,0 +1,88 @@
+package ru.leonidm.enumextender.api;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Value attached to each instance of enumeration, that is stored in the array indexed by ordinal, so
+ * lookup is one array load. Array grows and shifts automatically when the enumeration is extended.
+ * Removed instances of enumeration must not be used with attributes
+ *
+ * @param <E> enum type
+ * @param <T> value type
+ * @author LeonidM
+ * @see IntAttribute
+ * @see LongAttribute
+ * @see DoubleAttribute
+ */
+public final class EnumAttribute<E extends Enum<E>, T> extends AbstractAttribute<E, Object[]> {
+
+    private final T defaultValue;
+
+    private EnumAttribute(@NotNull EnumExtender<E> enumExtender, @Nullable T defaultValue) {
+        super(enumExtender);
+        this.defaultValue = defaultValue;
+    }
+
+    @NotNull
+    @Contract("_ -> new")
+    public static <E extends Enum<E>, T> EnumAttribute<E, T> create(@NotNull EnumExtender<E> enumExtender) {
+        return create(enumExtender, null);
+    }
+
+    /**
+     * Creates attribute and attaches it to the provided extender
+     *
+     * @param defaultValue value of all current instances and instances created later
+     */
+    @NotNull
+    @Contract("_, _ -> new")
+    public static <E extends Enum<E>, T> EnumAttribute<E, T> create(@NotNull EnumExtender<E> enumExtender,
+                                                                   @Nullable T defaultValue) {
+        return enumExtender.addAttribute(new EnumAttribute<>(enumExtender, defaultValue));
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public T get(@NotNull E e) {
+        long stamp;
+        Object value;
+        do {
+            stamp = readStamp();
+            Object[] values = values();
+            int ordinal = e.ordinal();
+            // Ordinal can be rewritten before the array is remapped, then the stamp is not valid
+            value = ordinal < values.length ? values[ordinal] : defaultValue;
+        } while (!validate(stamp));
+
+        // Only values of type T are stored
+        return (T) value;
+    }
+
+    public void set(@NotNull E e, @Nullable T value) {
+        while (true) {
+            long stamp = readStamp();
+            synchronized (this) {
+                // Array is not remapped while this attribute is locked, so only ordinal can be changed
+                int ordinal = e.ordinal();
+                if (validate(stamp)) {
+                    values()[ordinal] = value;
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    Object @NotNull [] newArray(int length) {
+        Object[] values = new Object[length];
+        if (defaultValue != null) {
+            Arrays.fill(values, defaultValue);
+        }
+
+        return values;
+    }
+}
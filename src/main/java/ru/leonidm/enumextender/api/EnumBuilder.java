@@ -4,7 +4,9 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.invoke.MethodHandle;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -16,9 +18,11 @@ import java.util.Map;
 public final class EnumBuilder<E extends Enum<E>> {
 
     private final Map<String, Object> fieldValues = new HashMap<>();
+    private final Map<String, MethodHandle> overrides = new LinkedHashMap<>();
     private final String enumName;
     private final EnumFactory<E> enumFactory;
-    private int ordinal = -1;
+    private E insertBefore;
+    private Object[] constructorArguments;
     private EnumResult<E> enumResult;
 
     public EnumBuilder(@NotNull String enumName, @NotNull EnumFactory<E> enumFactory) {
@@ -48,26 +52,126 @@ public final class EnumBuilder<E extends Enum<E>> {
         return this;
     }
 
+    /**
+     * When new enumeration will be created, {@link EnumExtender} will call its constructor with provided
+     * arguments instead of allocating it without any constructor. Name and ordinal must not be provided.
+     * Fields set by {@link #setField(String, Object)} are set after the constructor
+     *
+     * @param arguments arguments of the constructor declared in the enumeration class
+     * @return this
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public EnumBuilder<E> constructor(@Nullable Object @NotNull ... arguments) {
+        this.constructorArguments = arguments.clone();
+        return this;
+    }
+
+    /**
+     * When new enumeration will be created, it will have its own constant-specific body, where provided method
+     * is overridden, like constants declared as {@code A { ... }}. Abstract methods of the enumeration must be
+     * overridden this way, otherwise {@link AbstractMethodError} is thrown when they are called.
+     * <p>
+     * Since Java 17, enumerations with constant-specific bodies are sealed, so they must be loaded after
+     * {@code EnumExtenderAgent} is installed
+     *
+     * @param methodName     name of the overridden method. If method is overloaded, it is selected by the number
+     *                       of parameters
+     * @param implementation implementation that accepts the created constant as the first argument and then all
+     *                       arguments of the method. It is converted to the exact type of the method
+     * @return this
+     */
+    @NotNull
+    @Contract("_, _ -> this")
+    public EnumBuilder<E> override(@NotNull String methodName, @NotNull MethodHandle implementation) {
+        overrides.put(methodName, implementation);
+        return this;
+    }
+
     @NotNull
     public EnumBuilder<E> insertBefore(@NotNull E insertBefore) {
-        this.ordinal = insertBefore.ordinal();
+        // Ordinal is resolved by the extender, because it can be shifted until the creation
+        this.insertBefore = insertBefore;
         return this;
     }
 
     @NotNull
     public EnumResult<E> create() {
         if (enumResult == null) {
-            enumResult = enumFactory.apply(enumName, fieldValues, ordinal);
+            enumResult = enumFactory.apply(enumName, constructorArguments, overrides, fieldValues, insertBefore);
         }
 
         return enumResult;
     }
 
+    @NotNull
+    String getEnumName() {
+        return enumName;
+    }
+
+    @NotNull
+    Map<String, Object> getFieldValues() {
+        return fieldValues;
+    }
+
+    @NotNull
+    Map<String, MethodHandle> getOverrides() {
+        return overrides;
+    }
+
+    @Nullable Object @Nullable [] getConstructorArguments() {
+        return constructorArguments;
+    }
+
+    @Nullable
+    E getInsertBefore() {
+        return insertBefore;
+    }
+
+    boolean isCreated() {
+        return enumResult != null;
+    }
+
+    void complete(@NotNull EnumResult<E> enumResult) {
+        this.enumResult = enumResult;
+    }
+
     @FunctionalInterface
     public interface EnumFactory<E extends Enum<E>> {
 
         @NotNull
         EnumResult<E> apply(@NotNull String enumName, @NotNull Map<String, Object> fieldValues, int ordinal);
 
+        /**
+         * Creates enumeration calling its constructor if constructor arguments are provided. Factories that
+         * do not support constructors return error in this case
+         */
+        @NotNull
+        default EnumResult<E> apply(@NotNull String enumName, @Nullable Object @Nullable [] constructorArguments,
+                                    @NotNull Map<String, Object> fieldValues, int ordinal) {
+            if (constructorArguments != null) {
+                return new EnumResult.Error<>(new EnumExtendException("Factory does not support constructors"));
+            }
+
+            return apply(enumName, fieldValues, ordinal);
+        }
+
+        /**
+         * Creates enumeration with constant-specific body if overrides are provided. Factories that do not
+         * support bodies return error in this case. Factories that resolve ordinal of {@code insertBefore}
+         * only while values are locked must override this method
+         */
+        @NotNull
+        default EnumResult<E> apply(@NotNull String enumName, @Nullable Object @Nullable [] constructorArguments,
+                                    @NotNull Map<String, MethodHandle> overrides,
+                                    @NotNull Map<String, Object> fieldValues, @Nullable E insertBefore) {
+            if (!overrides.isEmpty()) {
+                return new EnumResult.Error<>(new EnumExtendException("Factory does not support overrides"));
+            }
+
+            int ordinal = insertBefore != null ? insertBefore.ordinal() : -1;
+            return apply(enumName, constructorArguments, fieldValues, ordinal);
+        }
+
     }
 }
@@ -2,26 +2,59 @@ package ru.leonidm.enumextender.api;
 
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
-import ru.leonidm.enumextender.util.ReflectionUtils;
-import ru.leonidm.enumextender.util.UnsafeUtils;
+import org.jetbrains.annotations.Nullable;
+import ru.leonidm.enumextender.jfr.EnumExtendedEvent;
+import ru.leonidm.enumextender.metrics.Metrics;
+import ru.leonidm.enumextender.metrics.MetricsRecorder;
+import ru.leonidm.enumextender.util.EnumBodyFactory;
+import ru.leonidm.enumextender.util.EnumMetadata;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Array;
-import java.lang.reflect.Field;
-import java.util.HashMap;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 /**
  * @author LeonidM
  */
 public final class EnumExtender<E extends Enum<E>> {
 
-    private static final Map<Class<? extends Enum<?>>, EnumExtender<?>> EXTENDERS = new HashMap<>();
+    // Extender is stored in the enumeration class itself, so it never prevents the class from unloading
+    private static final ClassValue<EnumExtender<?>> EXTENDERS = new ClassValue<>() {
+        @Override
+        protected EnumExtender<?> computeValue(@NotNull Class<?> type) {
+            return new EnumExtender<>((Class) type);
+        }
+    };
 
     private final Class<E> enumClass;
+    private final EnumMetadata<E> enumMetadata;
     private final EnumSwitchCaseExtender<E> enumSwitchCaseExtender;
+    private final Set<E> addedEnums = new HashSet<>();
+    private final List<WeakReference<AbstractAttribute<E, ?>>> attributes = new ArrayList<>();
+    private volatile boolean eagerCaches;
 
     private EnumExtender(@NotNull Class<E> enumClass) {
         this.enumClass = enumClass;
+        try {
+            enumMetadata = EnumMetadata.of(enumClass);
+        } catch (Exception e) {
+            throw new EnumExtendException(e);
+        }
+
         enumSwitchCaseExtender = new EnumSwitchCaseExtender<>(this);
     }
 
@@ -31,10 +64,13 @@ public final class EnumExtender<E extends Enum<E>> {
      * @param enumClass enumeration class that must be extended
      * @param <E>       enum type
      * @return instance of {@link EnumExtender<E>}
+     * @throws EnumExtendException if provided class cannot be extended or if JVM is somehow broken
      */
     @NotNull
     public static <E extends Enum<E>> EnumExtender<E> of(@NotNull Class<E> enumClass) {
-        return (EnumExtender<E>) EXTENDERS.computeIfAbsent(enumClass, k -> new EnumExtender<>(enumClass));
+        // Initialization of the enumeration class can recursively call this method, in this case
+        // ClassValue returns the extender that was computed first
+        return (EnumExtender<E>) EXTENDERS.get(enumClass);
     }
 
     /**
@@ -45,7 +81,29 @@ public final class EnumExtender<E extends Enum<E>> {
      */
     @NotNull
     public EnumBuilder<E> enumBuilder(@NotNull String enumName) {
-        return new EnumBuilder<>(enumName, this::extendEnum);
+        return new EnumBuilder<>(enumName, new EnumBuilder.EnumFactory<E>() {
+            @Override
+            @NotNull
+            public EnumResult<E> apply(@NotNull String enumName, @NotNull Map<String, Object> fieldValues,
+                                       int ordinal) {
+                return extendEnum(enumName, null, Map.of(), fieldValues, null, ordinal);
+            }
+
+            @Override
+            @NotNull
+            public EnumResult<E> apply(@NotNull String enumName, @Nullable Object @Nullable [] constructorArguments,
+                                       @NotNull Map<String, Object> fieldValues, int ordinal) {
+                return extendEnum(enumName, constructorArguments, Map.of(), fieldValues, null, ordinal);
+            }
+
+            @Override
+            @NotNull
+            public EnumResult<E> apply(@NotNull String enumName, @Nullable Object @Nullable [] constructorArguments,
+                                       @NotNull Map<String, MethodHandle> overrides,
+                                       @NotNull Map<String, Object> fieldValues, @Nullable E insertBefore) {
+                return extendEnum(enumName, constructorArguments, overrides, fieldValues, insertBefore, -1);
+            }
+        });
     }
 
     /**
@@ -61,7 +119,7 @@ public final class EnumExtender<E extends Enum<E>> {
      */
     @NotNull
     public EnumResult<E> addEnum(@NotNull String enumName, @NotNull Map<String, Object> fieldValues) {
-        return extendEnum(enumName, fieldValues, -1);
+        return extendEnum(enumName, null, Map.of(), fieldValues, null, -1);
     }
 
     /**
@@ -81,81 +139,367 @@ public final class EnumExtender<E extends Enum<E>> {
     @NotNull
     public EnumResult<E> insertEnum(@NotNull String enumName, @NotNull Map<String, Object> fieldValues,
                                     @NotNull E insertBefore) {
-        return extendEnum(enumName, fieldValues, insertBefore.ordinal());
+        return extendEnum(enumName, null, Map.of(), fieldValues, insertBefore, -1);
     }
 
+    /**
+     * Creates new instances of enumeration from all provided builders at once. All names are validated
+     * before any instance is created, values array is rebuilt only one time, all ordinals are shifted in
+     * a single pass and only one switch-case patcher is registered. If some builder cannot be applied,
+     * none of the instances are created.
+     * <p>
+     * Builders that were passed to this method are completed, so their {@link EnumBuilder#create()}
+     * returns the same result as this method.
+     *
+     * @param enumBuilders builders of new enumeration instances, that were not created yet.
+     *                     If some of them insert new enumerations before the same instance,
+     *                     they will be inserted in the order of this list
+     * @return results of the extension in the order of the provided builders
+     */
     @NotNull
-    private EnumResult<E> extendEnum(@NotNull String enumName, @NotNull Map<String, Object> fieldValues, int ordinal) {
-        E e = null;
+    public List<EnumResult<E>> extendAll(@NotNull List<EnumBuilder<E>> enumBuilders) {
+        List<Addition<E>> additions = new ArrayList<>(enumBuilders.size());
+        for (EnumBuilder<E> enumBuilder : enumBuilders) {
+            if (enumBuilder.isCreated()) {
+                return failAll(new EnumExtendException("Enum with name '%s' was already created by its builder"
+                        .formatted(enumBuilder.getEnumName())), enumBuilders);
+            }
+
+            additions.add(new Addition<>(enumBuilder.getEnumName(), enumBuilder.getConstructorArguments(),
+                    enumBuilder.getOverrides(), enumBuilder.getFieldValues(), null, enumBuilder.getInsertBefore(), -1));
+        }
+
+        List<EnumResult<E>> results = extendEnums(additions);
+        for (int i = 0; i < results.size(); i++) {
+            enumBuilders.get(i).complete(results.get(i));
+        }
+
+        return results;
+    }
+
+    @NotNull
+    private EnumResult<E> extendEnum(@NotNull String enumName, @Nullable Object @Nullable [] constructorArguments,
+                                     @NotNull Map<String, MethodHandle> overrides,
+                                     @NotNull Map<String, Object> fieldValues, @Nullable E insertBefore,
+                                     int ordinal) {
+        return extendEnums(List.of(new Addition<>(enumName, constructorArguments, overrides, fieldValues, null,
+                insertBefore, ordinal))).get(0);
+    }
+
+    @NotNull
+    synchronized List<EnumResult<E>> extendEnums(@NotNull List<Addition<E>> additions) {
+        int count = additions.size();
+        if (count == 0) {
+            return List.of();
+        }
+
+        MetricsRecorder recorder = Metrics.getRecorder();
+        long start = recorder.isEnabled() ? System.nanoTime() : 0;
+        EnumExtendedEvent event = new EnumExtendedEvent();
+        event.begin();
+
+        E[] created = (E[]) Array.newInstance(enumClass, count);
         try {
-            e = Enum.valueOf(enumClass, enumName);
-        } catch (IllegalArgumentException ignored) {
+            E[] values = enumMetadata.getValues();
+
+            EnumExtendException exception = validate(values, additions);
+            if (exception != null) {
+                return failAll(exception, additions);
+            }
+
+            Class<? extends E>[] bodies;
+            try {
+                bodies = defineBodies(additions);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                return failAll(new EnumExtendException(e.getMessage(), e), additions);
+            }
+
+            int[] positions = new int[count];
+            for (int i = 0; i < count; i++) {
+                int ordinal = additions.get(i).resolveOrdinal();
+                positions[i] = ordinal < 0 ? values.length : ordinal;
+            }
 
+            int[] order = IntStream.range(0, count)
+                    .boxed()
+                    .sorted(Comparator.comparingInt(i -> positions[i]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+
+            E[] newValues = (E[]) Array.newInstance(enumClass, values.length + count);
+            int[] insertedOrdinals = new int[count];
+            int next = 0;
+            int ordinal = 0;
+            for (int i = 0; i <= values.length; i++) {
+                while (next < count && positions[order[next]] == i) {
+                    Addition<E> addition = additions.get(order[next]);
+
+                    Class<? extends E> type = bodies[order[next]];
+                    Object[] constructorArguments = addition.constructorArguments();
+                    E e = constructorArguments != null
+                            ? enumMetadata.construct(type, addition.enumName(), ordinal, constructorArguments)
+                            : enumMetadata.allocate(type, addition.enumName(), ordinal);
+                    enumMetadata.setFields(e, addition.fieldValues());
+                    if (addition.initializer() != null) {
+                        addition.initializer().accept(e);
+                    }
+
+                    created[order[next]] = e;
+                    insertedOrdinals[next] = ordinal;
+                    newValues[ordinal++] = e;
+                    next++;
+                }
+
+                if (i < values.length) {
+                    newValues[ordinal++] = values[i];
+                }
+            }
+
+            enumMetadata.beginPublication();
+            try {
+                StructuralPatcher<E> patcher = (StructuralPatcher<E>) SwitchCasePatcher.<E>insert(insertedOrdinals,
+                        values.length);
+                enumMetadata.publish(newValues, eagerCaches);
+                remapAttributes(patcher.getSourceIndices());
+                enumSwitchCaseExtender.addPatcher(patcher);
+            } finally {
+                enumMetadata.endPublication();
+            }
+
+            Collections.addAll(addedEnums, created);
+
+            if (event.shouldCommit()) {
+                StringJoiner names = new StringJoiner(", ");
+                for (E e : created) {
+                    names.add(e.name());
+                }
+
+                event.enumClass = enumClass;
+                event.constantName = names.toString();
+                event.ordinal = insertedOrdinals[0];
+                event.constants = count;
+                event.valuesLength = newValues.length;
+                event.classLoader = String.valueOf(enumClass.getClassLoader());
+                event.commit();
+            }
+        } catch (Exception ex) {
+            return failAll(new EnumExtendException(ex), additions);
+        }
+
+        if (recorder.isEnabled()) {
+            recorder.onExtension(enumClass, count, System.nanoTime() - start);
+        }
+
+        List<EnumResult<E>> results = new ArrayList<>(count);
+        for (E e : created) {
+            results.add(new EnumResult.Success<>(e));
         }
 
-        if (e != null) {
-            return new EnumResult.Error<>(
-                    new EnumExtendException("Enum with name '%s' is already defined in %s".formatted(enumName, enumClass))
-            );
+        return results;
+    }
+
+    /**
+     * Removes instance of enumeration, that was created by this extender, from the values array,
+     * compacts ordinals of all instances after it, clears cache for enum constants, updates enum constant
+     * directory and removes its slot from all switch/case synthetic classes. Removed instance must not
+     * be used anymore.
+     *
+     * @param e instance of enumeration that must be removed
+     * @return removed instance of enumeration
+     */
+    @NotNull
+    public EnumResult<E> removeEnum(@NotNull E e) {
+        return removeEnums(List.of(e)).get(0);
+    }
+
+    /**
+     * Removes all provided instances at once, so values array is rebuilt only one time, all ordinals are
+     * compacted in a single pass and only one switch-case patcher is registered. If some instance cannot be
+     * removed, none of the instances are removed.
+     *
+     * @param enums instances of enumeration that were created by this extender
+     * @return results of the removal in the order of the provided instances
+     * @see #removeEnum(Enum)
+     */
+    @NotNull
+    public synchronized List<EnumResult<E>> removeEnums(@NotNull List<E> enums) {
+        int count = enums.size();
+        if (count == 0) {
+            return List.of();
         }
 
+        MetricsRecorder recorder = Metrics.getRecorder();
+        long start = recorder.isEnabled() ? System.nanoTime() : 0;
         try {
-            e = UnsafeUtils.allocateInstance(enumClass);
+            E[] values = enumMetadata.getValues();
 
-            Field valuesField = ReflectionUtils.findValuesField(enumClass);
-            E[] values = UnsafeUtils.getStaticFieldSafely(valuesField);
+            Set<E> removed = new HashSet<>();
+            for (E e : enums) {
+                if (!addedEnums.contains(e)) {
+                    return failAll(new EnumExtendException("Enum '%s' was not added to %s at runtime"
+                            .formatted(e.name(), enumClass)), enums);
+                }
 
-            UnsafeUtils.setFieldSafely(e, Enum.class.getDeclaredField("name"), enumName);
-            Field ordinalField = Enum.class.getDeclaredField("ordinal");
-            UnsafeUtils.setFieldSafely(e, ordinalField, ordinal < 0 ? values.length : ordinal);
+                if (!removed.add(e)) {
+                    return failAll(new EnumExtendException("Enum '%s' is specified more than once"
+                            .formatted(e.name())), enums);
+                }
+            }
 
-            for (Field field : enumClass.getDeclaredFields()) {
-                Object value = fieldValues.get(field.getName());
-                if (value != null) {
-                    UnsafeUtils.setFieldSafely(e, field, value);
+            E[] newValues = (E[]) Array.newInstance(enumClass, values.length - count);
+            int[] removedOrdinals = new int[count];
+            int next = 0;
+            int ordinal = 0;
+            for (int i = 0; i < values.length; i++) {
+                if (removed.contains(values[i])) {
+                    removedOrdinals[next++] = i;
+                } else {
+                    newValues[ordinal++] = values[i];
                 }
             }
 
-            E[] newValues = (E[]) Array.newInstance(enumClass, values.length + 1);
+            enumMetadata.beginPublication();
+            try {
+                StructuralPatcher<E> patcher = (StructuralPatcher<E>) SwitchCasePatcher.<E>remove(removedOrdinals,
+                        values.length);
+                enumMetadata.publish(newValues, eagerCaches);
+                remapAttributes(patcher.getSourceIndices());
+                enumSwitchCaseExtender.addPatcher(patcher);
+            } finally {
+                enumMetadata.endPublication();
+            }
+
+            addedEnums.removeAll(removed);
+        } catch (Exception ex) {
+            return failAll(new EnumExtendException(ex), enums);
+        }
+
+        if (recorder.isEnabled()) {
+            recorder.onRemoval(enumClass, count, System.nanoTime() - start);
+        }
+
+        List<EnumResult<E>> results = new ArrayList<>(count);
+        for (E e : enums) {
+            results.add(new EnumResult.Success<>(e));
+        }
+
+        return results;
+    }
 
-            if (ordinal < 0) {
-                System.arraycopy(values, 0, newValues, 0, values.length);
+    /**
+     * Attaches attribute to this extender, so its array is remapped on each extension and removal
+     */
+    @NotNull
+    synchronized <A extends AbstractAttribute<E, ?>> A addAttribute(@NotNull A attribute) {
+        attribute.init(enumMetadata.getValues().length);
+        attributes.add(new WeakReference<>(attribute));
+        return attribute;
+    }
 
-                ordinal = values.length;
+    private void remapAttributes(int @NotNull [] sourceIndices) {
+        Iterator<WeakReference<AbstractAttribute<E, ?>>> iterator = attributes.iterator();
+        while (iterator.hasNext()) {
+            AbstractAttribute<E, ?> attribute = iterator.next().get();
+            if (attribute == null) {
+                iterator.remove();
             } else {
-                System.arraycopy(values, 0, newValues, 0, ordinal);
-                System.arraycopy(values, ordinal, newValues, ordinal + 1, values.length - ordinal);
+                attribute.remap(sourceIndices);
+            }
+        }
+    }
 
-                enumSwitchCaseExtender.addPatcher(SwitchCasePatcher.insert(ordinal, values.length));
+    /**
+     * Defines constant-specific bodies of all additions that override methods before any of them is created
+     *
+     * @return classes of the created instances in the order of additions
+     * @throws IllegalArgumentException if some method cannot be overridden
+     * @throws IllegalStateException    if enumeration cannot be subclassed
+     */
+    @NotNull
+    private Class<? extends E> @NotNull [] defineBodies(@NotNull List<Addition<E>> additions) {
+        Class<? extends E>[] bodies = new Class[additions.size()];
+        for (int i = 0; i < bodies.length; i++) {
+            Map<String, MethodHandle> overrides = additions.get(i).overrides();
+            // Abstract enumeration cannot be allocated, so its constants always have bodies
+            if (overrides.isEmpty() && !Modifier.isAbstract(enumClass.getModifiers())) {
+                bodies[i] = enumClass;
+                continue;
+            }
 
-                for (int i = ordinal; i < values.length; i++) {
-                    UnsafeUtils.setFieldSafely(values[i], ordinalField, i + 1);
-                }
+            Map<Method, MethodHandle> implementations = new LinkedHashMap<>();
+            for (var entry : overrides.entrySet()) {
+                var resolved = EnumBodyFactory.resolve(enumClass, entry.getKey(), entry.getValue());
+                implementations.put(resolved.getKey(), resolved.getValue());
             }
 
-            newValues[ordinal] = e;
+            bodies[i] = EnumBodyFactory.define(enumClass, implementations);
+        }
+
+        return bodies;
+    }
 
-            UnsafeUtils.setStaticFieldSafely(valuesField, newValues);
+    @Nullable
+    private EnumExtendException validate(@NotNull E[] values, @NotNull List<Addition<E>> additions) {
+        Set<String> names = new HashSet<>();
+        for (E value : values) {
+            names.add(value.name());
+        }
 
-            Field enumConstantsField = Class.class.getDeclaredField("enumConstants");
-            UnsafeUtils.setFieldSafely(enumClass, enumConstantsField, null);
+        Set<String> newNames = new HashSet<>();
+        for (Addition<E> addition : additions) {
+            String enumName = addition.enumName();
+            if (names.contains(enumName)) {
+                return new EnumExtendException("Enum with name '%s' is already defined in %s".formatted(enumName, enumClass));
+            }
 
-            Field enumConstantDirectoryField = Class.class.getDeclaredField("enumConstantDirectory");
-            Map<String, E> map = UnsafeUtils.getFieldSafely(enumClass, enumConstantDirectoryField);
-            if (map != null) {
-                map.put(enumName, e);
+            if (!newNames.add(enumName)) {
+                return new EnumExtendException("Enum with name '%s' is specified more than once".formatted(enumName));
             }
-        } catch (Exception ex) {
-            return new EnumResult.Error<>(
-                    new EnumExtendException(ex)
-            );
+
+            E insertBefore = addition.insertBefore();
+            if (insertBefore != null) {
+                int ordinal = insertBefore.ordinal();
+                if (ordinal >= values.length || values[ordinal] != insertBefore) {
+                    return new EnumExtendException("Cannot insert enum with name '%s' before %s, it was removed"
+                            .formatted(enumName, insertBefore));
+                }
+            } else if (addition.ordinal() > values.length) {
+                return new EnumExtendException("Cannot insert enum with name '%s' at %s, there are only %s values"
+                        .formatted(enumName, addition.ordinal(), values.length));
+            }
+        }
+
+        return null;
+    }
+
+    @NotNull
+    private List<EnumResult<E>> failAll(@NotNull EnumExtendException exception, @NotNull List<?> additions) {
+        List<EnumResult<E>> results = new ArrayList<>(additions.size());
+        for (int i = 0; i < additions.size(); i++) {
+            results.add(new EnumResult.Error<>(exception));
         }
 
-        return new EnumResult.Success<>(e);
+        return results;
+    }
+
+    /**
+     * Sets if JDK caches of the enumeration ({@code Class.enumConstants} and {@code Class.enumConstantDirectory})
+     * must be rebuilt during extension or removal instead of clearing. It makes extension slightly slower, but
+     * first {@code EnumSet}, {@code EnumMap} or {@code valueOf} call after it does not rebuild them reflectively.
+     * Disabled by default
+     *
+     * @param eagerCaches true if caches must be rebuilt eagerly
+     * @return this
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public EnumExtender<E> setEagerCaches(boolean eagerCaches) {
+        this.eagerCaches = eagerCaches;
+        return this;
     }
 
     @NotNull
-    @Contract("-> new")
+    @Contract(pure = true)
     public EnumSwitchCaseExtender<E> switchCase() {
         return enumSwitchCaseExtender;
     }
@@ -165,4 +509,55 @@ public final class EnumExtender<E extends Enum<E>> {
     public Class<E> getEnumClass() {
         return enumClass;
     }
+
+    /**
+     * Returns version stamp of the enumeration, that changes every time new values are published.
+     * Readers that must see consistent {@code values()}, {@code valueOf} and ordinals without locking
+     * can read stamp before and validate it after reading:
+     * <pre>{@code
+     * long stamp;
+     * E[] values;
+     * do {
+     *     stamp = enumExtender.readStamp();
+     *     values = enumExtender.getEnumMetadata().getValues();
+     * } while (!enumExtender.validateStamp(stamp));
+     * }</pre>
+     * Values are read from the metadata, because JIT compiler may treat {@code $VALUES} as a constant
+     * in already compiled {@code values()}.
+     */
+    public long readStamp() {
+        return enumMetadata.readStamp();
+    }
+
+    /**
+     * Checks that no values were published since the provided stamp was read
+     *
+     * @see #readStamp()
+     */
+    public boolean validateStamp(long stamp) {
+        return enumMetadata.validate(stamp);
+    }
+
+    @NotNull
+    public EnumMetadata<E> getEnumMetadata() {
+        return enumMetadata;
+    }
+
+    /**
+     * @param overrides    implementations of the methods overridden by the constant-specific body
+     * @param initializer  function that sets fields of the created instance after field values
+     * @param insertBefore instance before which new one is inserted, its ordinal is read only under the lock,
+     *                     because concurrent extensions shift it
+     * @param ordinal      ordinal of the new instance if {@code insertBefore} is null, or -1 to append it
+     */
+    record Addition<E extends Enum<E>>(@NotNull String enumName, @Nullable Object @Nullable [] constructorArguments,
+                                       @NotNull Map<String, MethodHandle> overrides,
+                                       @NotNull Map<String, Object> fieldValues, @Nullable Consumer<E> initializer,
+                                       @Nullable E insertBefore, int ordinal) {
+
+        private int resolveOrdinal() {
+            return insertBefore != null ? insertBefore.ordinal() : ordinal;
+        }
+
+    }
 }
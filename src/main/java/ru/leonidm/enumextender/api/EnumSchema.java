@@ -0,0 +1,397 @@
+package ru.leonidm.enumextender.api;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.leonidm.enumextender.util.FieldAccessor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Schema of the fields of enumeration, whose names and types are validated only one time when their
+ * slots are created. Slots are used by {@link Builder}, that stores values without boxing and hashing
+ * and sets them directly with typed field accessors, so it is suitable for creation of thousands of instances.
+ * <pre>{@code
+ * EnumSchema<SimpleEnum> schema = EnumSchema.of(enumExtender);
+ * EnumSchema.IntSlot<SimpleEnum> integer = schema.intSlot("integer");
+ * EnumSchema.ObjectSlot<SimpleEnum, String> string = schema.objectSlot("string", String.class);
+ *
+ * EnumSchema.Builder<SimpleEnum> builder = schema.builder();
+ * for (Row row : rows) {
+ *     builder.set(integer, row.integer()).set(string, row.string()).add(row.name());
+ * }
+ * List<EnumResult<SimpleEnum>> results = builder.extend();
+ * }</pre>
+ *
+ * @param <E> enum type
+ * @author LeonidM
+ */
+public final class EnumSchema<E extends Enum<E>> {
+
+    private final EnumExtender<E> enumExtender;
+    private final Map<String, FieldAccessor> fieldAccessors;
+    private final List<Slot<E>> slots = new ArrayList<>();
+    private int primitiveCount;
+    private int objectCount;
+
+    private EnumSchema(@NotNull EnumExtender<E> enumExtender) {
+        this.enumExtender = enumExtender;
+        fieldAccessors = enumExtender.getEnumMetadata().getFieldAccessors();
+    }
+
+    @NotNull
+    @Contract("_ -> new")
+    public static <E extends Enum<E>> EnumSchema<E> of(@NotNull EnumExtender<E> enumExtender) {
+        return new EnumSchema<>(enumExtender);
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no {@code int} field with provided name
+     */
+    @NotNull
+    public synchronized IntSlot<E> intSlot(@NotNull String fieldName) {
+        return addSlot(new IntSlot<>(this, primitiveCount++, findAccessor(fieldName, FieldAccessor.OfInt.class)));
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no {@code long} field with provided name
+     */
+    @NotNull
+    public synchronized LongSlot<E> longSlot(@NotNull String fieldName) {
+        return addSlot(new LongSlot<>(this, primitiveCount++, findAccessor(fieldName, FieldAccessor.OfLong.class)));
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no {@code double} field with provided name
+     */
+    @NotNull
+    public synchronized DoubleSlot<E> doubleSlot(@NotNull String fieldName) {
+        return addSlot(new DoubleSlot<>(this, primitiveCount++,
+                findAccessor(fieldName, FieldAccessor.OfDouble.class)));
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no {@code boolean} field with provided name
+     */
+    @NotNull
+    public synchronized BooleanSlot<E> booleanSlot(@NotNull String fieldName) {
+        return addSlot(new BooleanSlot<>(this, primitiveCount++,
+                findAccessor(fieldName, FieldAccessor.OfBoolean.class)));
+    }
+
+    /**
+     * @param type type of the values, that must be assignable to the field
+     * @throws IllegalArgumentException if there is no field with provided name, that accepts provided type
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public synchronized <T> ObjectSlot<E, T> objectSlot(@NotNull String fieldName, @NotNull Class<T> type) {
+        // Accessor accepts any object, but the slot passes only values of the type checked below
+        FieldAccessor.OfObject<Object> fieldAccessor = findAccessor(fieldName, FieldAccessor.OfObject.class);
+        if (!fieldAccessor.getField().getType().isAssignableFrom(type)) {
+            throw new IllegalArgumentException("Field '%s' of type %s cannot hold %s"
+                    .formatted(fieldName, fieldAccessor.getField().getType(), type));
+        }
+
+        return addSlot(new ObjectSlot<>(this, objectCount++, fieldAccessor));
+    }
+
+    @NotNull
+    @SuppressWarnings("unchecked")
+    private <A extends FieldAccessor> A findAccessor(@NotNull String fieldName, @NotNull Class<? super A> type) {
+        FieldAccessor fieldAccessor = fieldAccessors.get(fieldName);
+        if (fieldAccessor == null) {
+            throw new IllegalArgumentException("There is no field '%s' in %s"
+                    .formatted(fieldName, enumExtender.getEnumClass()));
+        }
+
+        if (!type.isInstance(fieldAccessor)) {
+            throw new IllegalArgumentException("Field '%s' of %s has type %s"
+                    .formatted(fieldName, enumExtender.getEnumClass(), fieldAccessor.getField().getType()));
+        }
+
+        // Type of the accessor was checked above, only its generic parameter is not known
+        return (A) fieldAccessor;
+    }
+
+    @NotNull
+    private <S extends Slot<E>> S addSlot(@NotNull S slot) {
+        slots.add(slot);
+        return slot;
+    }
+
+    /**
+     * Returns new builder, that can be reused for any amount of instances. Slots created after
+     * the builder cannot be used with it
+     */
+    @NotNull
+    @Contract("-> new")
+    public synchronized Builder<E> builder() {
+        return new Builder<>(this, List.copyOf(slots), primitiveCount, objectCount);
+    }
+
+    private abstract static class Slot<E extends Enum<E>> {
+
+        private final EnumSchema<E> schema;
+        private final int position;
+        private final int index;
+
+        /**
+         * @param position position of the slot in the schema
+         * @param index    index of the value in the array of primitives or objects
+         */
+        private Slot(@NotNull EnumSchema<E> schema, int position, int index) {
+            this.schema = schema;
+            this.position = position;
+            this.index = index;
+        }
+
+        abstract void apply(@NotNull E e, long @NotNull [] primitives, @Nullable Object @NotNull [] objects);
+    }
+
+    public static final class IntSlot<E extends Enum<E>> extends Slot<E> {
+
+        private final FieldAccessor.OfInt fieldAccessor;
+
+        private IntSlot(@NotNull EnumSchema<E> schema, int index, @NotNull FieldAccessor.OfInt fieldAccessor) {
+            super(schema, schema.slots.size(), index);
+            this.fieldAccessor = fieldAccessor;
+        }
+
+        @Override
+        void apply(@NotNull E e, long @NotNull [] primitives, @Nullable Object @NotNull [] objects) {
+            fieldAccessor.setInt(e, (int) primitives[super.index]);
+        }
+    }
+
+    public static final class LongSlot<E extends Enum<E>> extends Slot<E> {
+
+        private final FieldAccessor.OfLong fieldAccessor;
+
+        private LongSlot(@NotNull EnumSchema<E> schema, int index, @NotNull FieldAccessor.OfLong fieldAccessor) {
+            super(schema, schema.slots.size(), index);
+            this.fieldAccessor = fieldAccessor;
+        }
+
+        @Override
+        void apply(@NotNull E e, long @NotNull [] primitives, @Nullable Object @NotNull [] objects) {
+            fieldAccessor.setLong(e, primitives[super.index]);
+        }
+    }
+
+    public static final class DoubleSlot<E extends Enum<E>> extends Slot<E> {
+
+        private final FieldAccessor.OfDouble fieldAccessor;
+
+        private DoubleSlot(@NotNull EnumSchema<E> schema, int index, @NotNull FieldAccessor.OfDouble fieldAccessor) {
+            super(schema, schema.slots.size(), index);
+            this.fieldAccessor = fieldAccessor;
+        }
+
+        @Override
+        void apply(@NotNull E e, long @NotNull [] primitives, @Nullable Object @NotNull [] objects) {
+            fieldAccessor.setDouble(e, Double.longBitsToDouble(primitives[super.index]));
+        }
+    }
+
+    public static final class BooleanSlot<E extends Enum<E>> extends Slot<E> {
+
+        private final FieldAccessor.OfBoolean fieldAccessor;
+
+        private BooleanSlot(@NotNull EnumSchema<E> schema, int index, @NotNull FieldAccessor.OfBoolean fieldAccessor) {
+            super(schema, schema.slots.size(), index);
+            this.fieldAccessor = fieldAccessor;
+        }
+
+        @Override
+        void apply(@NotNull E e, long @NotNull [] primitives, @Nullable Object @NotNull [] objects) {
+            fieldAccessor.setBoolean(e, primitives[super.index] != 0);
+        }
+    }
+
+    public static final class ObjectSlot<E extends Enum<E>, T> extends Slot<E> {
+
+        private final FieldAccessor.OfObject<Object> fieldAccessor;
+
+        private ObjectSlot(@NotNull EnumSchema<E> schema, int index,
+                           @NotNull FieldAccessor.OfObject<Object> fieldAccessor) {
+            super(schema, schema.slots.size(), index);
+            this.fieldAccessor = fieldAccessor;
+        }
+
+        @Override
+        void apply(@NotNull E e, long @NotNull [] primitives, @Nullable Object @NotNull [] objects) {
+            fieldAccessor.setObject(e, objects[super.index]);
+        }
+    }
+
+    /**
+     * Reusable builder of new enumeration instances. Values are set for the current instance and are
+     * cleared when it is added, so fields that were not set contain default values
+     * (0 for primitives, null for objects). Builder is not thread-safe
+     *
+     * @param <E> enum type
+     */
+    public static final class Builder<E extends Enum<E>> {
+
+        private final EnumSchema<E> schema;
+        private final List<Slot<E>> slots;
+        private final List<EnumExtender.Addition<E>> additions = new ArrayList<>();
+        private long[] primitives;
+        private Object[] objects;
+        // Bitmask of the slots assigned for the current instance
+        private long[] assigned;
+        // Bitmask and slots of the previous instance, that are reused while instances assign the same slots
+        private long[] appliedMask;
+        private Slot<E>[] appliedSlots;
+        private E insertBefore;
+
+        private Builder(@NotNull EnumSchema<E> schema, @NotNull List<Slot<E>> slots, int primitiveCount,
+                        int objectCount) {
+            this.schema = schema;
+            this.slots = slots;
+            primitives = new long[primitiveCount];
+            objects = new Object[objectCount];
+            assigned = new long[(slots.size() + 63) >>> 6];
+            appliedMask = new long[assigned.length];
+            appliedSlots = newSlots(0);
+        }
+
+        @NotNull
+        @Contract("_, _ -> this")
+        public Builder<E> set(@NotNull IntSlot<E> slot, int value) {
+            primitives[checkSlot(slot)] = value;
+            return this;
+        }
+
+        @NotNull
+        @Contract("_, _ -> this")
+        public Builder<E> set(@NotNull LongSlot<E> slot, long value) {
+            primitives[checkSlot(slot)] = value;
+            return this;
+        }
+
+        @NotNull
+        @Contract("_, _ -> this")
+        public Builder<E> set(@NotNull DoubleSlot<E> slot, double value) {
+            primitives[checkSlot(slot)] = Double.doubleToRawLongBits(value);
+            return this;
+        }
+
+        @NotNull
+        @Contract("_, _ -> this")
+        public Builder<E> set(@NotNull BooleanSlot<E> slot, boolean value) {
+            primitives[checkSlot(slot)] = value ? 1 : 0;
+            return this;
+        }
+
+        @NotNull
+        @Contract("_, _ -> this")
+        public <T> Builder<E> set(@NotNull ObjectSlot<E, T> slot, @Nullable T value) {
+            objects[checkSlot(slot)] = value;
+            return this;
+        }
+
+        /**
+         * Inserts the current instance before provided instance
+         */
+        @NotNull
+        @Contract("_ -> this")
+        public Builder<E> insertBefore(@NotNull E insertBefore) {
+            this.insertBefore = insertBefore;
+            return this;
+        }
+
+        private int checkSlot(@NotNull Slot<E> slot) {
+            int position = slot.position;
+            if (slot.schema != schema || position >= slots.size()) {
+                throw new IllegalArgumentException("Slot does not belong to the schema of this builder");
+            }
+
+            assigned[position >>> 6] |= 1L << position;
+            return slot.index;
+        }
+
+        @NotNull
+        private Slot<E> @NotNull [] collectSlots(long @NotNull [] mask) {
+            int count = 0;
+            for (long word : mask) {
+                count += Long.bitCount(word);
+            }
+
+            Slot<E>[] result = newSlots(count);
+            int j = 0;
+            for (int i = 0; i < mask.length; i++) {
+                for (long word = mask[i]; word != 0; word &= word - 1) {
+                    result[j++] = slots.get((i << 6) + Long.numberOfTrailingZeros(word));
+                }
+            }
+
+            return result;
+        }
+
+        @NotNull
+        @SuppressWarnings("unchecked")
+        private static <E extends Enum<E>> Slot<E> @NotNull [] newSlots(int length) {
+            // Generic array cannot be created, but it holds only slots of the schema of the builder
+            return (Slot<E>[]) new Slot[length];
+        }
+
+        /**
+         * Adds the current instance with provided name to the pending ones and clears all values,
+         * so builder can be used for the next instance
+         */
+        @NotNull
+        @Contract("_ -> this")
+        public Builder<E> add(@NotNull String enumName) {
+            if (!Arrays.equals(assigned, appliedMask)) {
+                appliedSlots = collectSlots(assigned);
+                long[] mask = appliedMask;
+                appliedMask = assigned;
+                assigned = mask;
+            }
+
+            Slot<E>[] appliedSlots = this.appliedSlots;
+            long[] primitives = this.primitives;
+            Object[] objects = this.objects;
+            additions.add(new EnumExtender.Addition<>(enumName, null, Map.of(), Map.of(), e -> {
+                for (Slot<E> slot : appliedSlots) {
+                    slot.apply(e, primitives, objects);
+                }
+            }, insertBefore, -1));
+
+            this.primitives = new long[primitives.length];
+            this.objects = new Object[objects.length];
+            Arrays.fill(assigned, 0);
+            insertBefore = null;
+            return this;
+        }
+
+        /**
+         * Creates all pending instances at once like {@link EnumExtender#extendAll(List)} and clears them
+         *
+         * @return results of the extension in the order of addition
+         */
+        @NotNull
+        public List<EnumResult<E>> extend() {
+            List<EnumExtender.Addition<E>> additions = List.copyOf(this.additions);
+            this.additions.clear();
+            return schema.enumExtender.extendEnums(additions);
+        }
+
+        /**
+         * Adds the current instance with provided name and creates it with all pending instances
+         *
+         * @return result of the extension of the current instance
+         */
+        @NotNull
+        public EnumResult<E> create(@NotNull String enumName) {
+            add(enumName);
+            List<EnumResult<E>> results = extend();
+            return results.get(results.size() - 1);
+        }
+    }
+}
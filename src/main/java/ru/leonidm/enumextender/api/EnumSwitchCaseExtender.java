@@ -2,19 +2,30 @@ package ru.leonidm.enumextender.api;
 
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.UnmodifiableView;
+import ru.leonidm.enumextender.agent.EnumExtenderAgent;
+import ru.leonidm.enumextender.agent.SwitchMapHolders;
+import ru.leonidm.enumextender.jfr.SwitchMapPatchedEvent;
+import ru.leonidm.enumextender.metrics.Metrics;
+import ru.leonidm.enumextender.metrics.MetricsRecorder;
 import ru.leonidm.enumextender.util.ClassLoaderUtils;
+import ru.leonidm.enumextender.util.FieldAccessor;
 import ru.leonidm.enumextender.util.ReflectionUtils;
 import ru.leonidm.enumextender.util.UnsafeUtils;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.BiConsumer;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -26,16 +37,32 @@ import java.util.logging.Logger;
 public final class EnumSwitchCaseExtender<E extends Enum<E>> {
 
     private final Logger logger = Logger.getLogger(getClass().getName());
-    private final List<SwitchCasePatcher<E>> patchers = new ArrayList<>();
-    private final Map<Class<?>, Integer> patchVersions = new HashMap<>();
+    private final List<SwitchCasePatcher<E>> patchers = new CopyOnWriteArrayList<>();
+    private final Map<Class<?>, PatchState> patchStates = new WeakHashMap<>();
+    private final Map<Long, StructuralPatcher<E>> compositions = new HashMap<>();
+    // Guarded by historyLock
+    private final Map<ClassLoader, Integer> patchedVersions = new WeakHashMap<>();
+    // Held while versions of switch/case synthetic classes are recorded and while history is compacted
+    private final Object historyLock = new Object();
+    private final Consumer<Class<?>> listener = this::onInitialized;
+    private final Consumer<Class<?>> initializingListener = this::onInitializing;
     private final EnumExtender<E> enumExtender;
+    private final String switchMapName;
+    // Replaced only while the extender is locked
+    private volatile History<E> history = new History<>(null, 0, List.of());
+    private volatile int parallelThreshold = Integer.MAX_VALUE;
+    private History<E> compositionsHistory;
 
     public EnumSwitchCaseExtender(@NotNull EnumExtender<E> enumExtender) {
         this.enumExtender = enumExtender;
+        switchMapName = SwitchMapHolders.getSwitchMapName(enumExtender.getEnumClass());
+        SwitchMapHolders.addListener(switchMapName, listener);
+        SwitchMapHolders.addInitializingListener(switchMapName, initializingListener);
     }
 
     /**
-     * Adds patcher for switch-cases
+     * Adds patcher for switch-cases. {@link StructuralPatcher Structural patchers} describe how published values
+     * were changed and are applied before others, because others use current ordinals
      *
      * @param patcher switch case patcher
      * @return this
@@ -43,7 +70,32 @@ public final class EnumSwitchCaseExtender<E extends Enum<E>> {
     @NotNull
     @Contract("_ -> this")
     public EnumSwitchCaseExtender<E> addPatcher(@NotNull SwitchCasePatcher<E> patcher) {
-        patchers.add(patcher);
+        if (patcher instanceof StructuralPatcher<E> structuralPatcher) {
+            synchronized (enumExtender) {
+                history = history.append(structuralPatcher);
+            }
+        } else {
+            patchers.add(patcher);
+        }
+
+        return this;
+    }
+
+    /**
+     * Sets minimal amount of classes, starting from which loaded classes are scanned and switch/case synthetic
+     * classes are patched in parallel in the common fork-join pool. By default, everything is done sequentially
+     *
+     * @param parallelThreshold minimal amount of classes for parallel processing
+     * @return this
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public EnumSwitchCaseExtender<E> setParallelThreshold(int parallelThreshold) {
+        if (parallelThreshold < 1) {
+            throw new IllegalArgumentException("Parallel threshold must be positive, got " + parallelThreshold);
+        }
+
+        this.parallelThreshold = parallelThreshold;
         return this;
     }
 
@@ -51,34 +103,72 @@ public final class EnumSwitchCaseExtender<E extends Enum<E>> {
      * Scans all loaded classes in provided class loader (also, it can scan its parents),
      * finds all switch/case synthetic classes created for provided enumeration class
      * and extends arrays inside them if needed (right now only default values are supported).
+     * Each class is scanned only one time, so next calls inspect only newly loaded classes
+     * and apply new patchers to already found switch/case synthetic classes.
+     * <p>
+     * Version of values, that static initializer of the switch/case synthetic class read, is recorded when it is
+     * initialized by {@link EnumExtenderAgent} hooks or by this extender. Class that was initialized by the
+     * application and found only by the scan is assumed to be initialized before the first extension after
+     * the previous patch of its class loader, so switch-cases must be patched after each extension if they
+     * can be used before the next one and the agent is not installed. Structural changes, that were applied
+     * to all known classes, are folded into one, so they are not kept forever.
+     * <p>
+     * If {@link EnumExtenderAgent} is installed, loaded classes are not scanned at all,
+     * because all switch/case synthetic classes are registered and patched by it when they are initialized.
+     * Patched arrays of such classes are replaced with a single write, while arrays of classes that were not
+     * transformed by the agent are updated in place, because compiled code can treat them as constants.
      *
+     * @see #setParallelThreshold(int)
      * @param classLoader   class loader whose switch/case synthetic classes must be extended
      * @param extendParents if true also parents of the class loader will be extended
      */
     @NotNull
     public EnumSwitchCaseExtender<E> patch(@NotNull ClassLoader classLoader, boolean extendParents) {
-        // TODO: use Java Instrumentation API to patch new loaded classes with call of mappers in <clinit>
+        MetricsRecorder recorder = Metrics.getRecorder();
+        long start = recorder.isEnabled() ? System.nanoTime() : 0;
         try {
-            Class<E> enumClass = enumExtender.getEnumClass();
+            // Classes that are loaded after the scan are initialized at this version or later
+            int version = readVersion();
+            int parallelThreshold = this.parallelThreshold;
+            int inspected = 0;
+            if (!EnumExtenderAgent.isInstalled()) {
+                inspected = SwitchMapHolders.scan(classLoader, extendParents, parallelThreshold);
+            }
 
-            scan(enumClass, classLoader, extendParents, (originalClass, field) -> {
-                int patchVersion = patchVersions.getOrDefault(originalClass, 0);
-                int currentPatchVersion = patchers.size();
-                if (patchVersion >= currentPatchVersion) {
-                    return;
-                }
+            Set<ClassLoader> classLoaders = Collections.newSetFromMap(new IdentityHashMap<>());
+            do {
+                classLoaders.add(classLoader);
+                classLoader = classLoader.getParent();
+            } while (extendParents && classLoader != null);
 
-                patchVersions.put(originalClass, currentPatchVersion);
+            List<Class<?>> holders = new ArrayList<>();
+            for (Class<?> holder : SwitchMapHolders.getHolders(switchMapName)) {
+                if (classLoaders.contains(holder.getClassLoader())) {
+                    holders.add(holder);
+                }
+            }
 
-                int[] array = UnsafeUtils.getStaticFieldSafely(field);
+            long rewritten;
+            if (holders.size() >= parallelThreshold) {
+                rewritten = holders.parallelStream().filter(this::patchHolderSafely).count();
+            } else {
+                rewritten = holders.stream().filter(this::patchHolderSafely).count();
+            }
 
-                for (int i = patchVersion; i < currentPatchVersion; i++) {
-                    SwitchCasePatcher<E> patcher = patchers.get(i);
-                    array = patcher.patch(originalClass, array);
+            synchronized (historyLock) {
+                // Versions below the base are folded, so classes found later are patched starting from the base
+                int patchedVersion = Math.max(version, history.base());
+                for (ClassLoader patchedClassLoader : classLoaders) {
+                    patchedVersions.merge(patchedClassLoader, patchedVersion, Math::max);
                 }
+            }
+
+            compact();
 
-                UnsafeUtils.setStaticFieldSafely(field, array);
-            });
+            if (recorder.isEnabled()) {
+                recorder.onPatch(enumExtender.getEnumClass(), inspected, holders.size(), (int) rewritten,
+                        System.nanoTime() - start);
+            }
         } catch (Exception e) {
             throw new EnumExtendException(e);
         }
@@ -86,54 +176,474 @@ public final class EnumSwitchCaseExtender<E extends Enum<E>> {
         return this;
     }
 
-    private void scan(@NotNull Class<E> enumClass, @NotNull ClassLoader classLoader,
-                      boolean extendParents, @NotNull BiConsumer<Class<?>, Field> consumer) {
-        String name = "$SwitchMap$" + enumClass.getName().replace('.', '$');
-
-        Consumer<List<Class<?>>> classesConsumer = classes -> {
-            for (Class<?> clazz : classes) {
-                if (!clazz.isSynthetic()) {
+    /**
+     * Loads all switch/case synthetic classes of provided enumeration class listed in the index using provided
+     * class loader and extends arrays inside them if needed. Loaded classes are not scanned at all.
+     * Class that is not loaded yet reads current values when it is initialized, so it is skipped if its original
+     * class is known from the index and no patcher applies to it
+     *
+     * @param index       index of switch/case synthetic classes
+     * @param classLoader class loader that must load switch/case synthetic classes
+     */
+    @NotNull
+    public EnumSwitchCaseExtender<E> patch(@NotNull SwitchMapIndex index, @NotNull ClassLoader classLoader) {
+        MetricsRecorder recorder = Metrics.getRecorder();
+        long start = recorder.isEnabled() ? System.nanoTime() : 0;
+        // Skipped classes are initialized at this version or later
+        int version = readVersion();
+        int matched = 0;
+        int rewritten = 0;
+        for (String holderName : index.getHolders(switchMapName)) {
+            Class<?> holder;
+            try {
+                if (isSkipped(holderName, index.getOriginalClass(holderName), classLoader)) {
                     continue;
                 }
 
-                Field[] declaredFields = clazz.getDeclaredFields();
-                if (declaredFields.length != 1) {
-                    continue;
+                // Classes are initialized by patchHolder, so their versions are known exactly
+                holder = Class.forName(holderName, false, classLoader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                logger.log(Level.WARNING, e, () -> "Could not load switch-case class '%s'".formatted(holderName));
+                continue;
+            }
+
+            SwitchMapHolders.registerSilently(holder);
+            matched++;
+            if (patchHolderSafely(holder)) {
+                rewritten++;
+            }
+        }
+
+        synchronized (historyLock) {
+            patchedVersions.merge(classLoader, Math.max(version, history.base()), Math::max);
+        }
+
+        compact();
+
+        if (recorder.isEnabled()) {
+            recorder.onPatch(enumExtender.getEnumClass(), 0, matched, rewritten, System.nanoTime() - start);
+        }
+
+        return this;
+    }
+
+    /**
+     * Patches switch/case synthetic classes listed in {@link SwitchMapIndex#MANIFEST} resources
+     * of the provided class loader and its parents
+     *
+     * @param classLoader class loader that must load switch/case synthetic classes
+     * @see SwitchMapIndex#fromManifests(ClassLoader)
+     */
+    @NotNull
+    public EnumSwitchCaseExtender<E> patchFromManifests(@NotNull ClassLoader classLoader) {
+        return patch(SwitchMapIndex.fromManifests(classLoader), classLoader);
+    }
+
+    /**
+     * Checks that the switch/case synthetic class is not loaded yet and no patcher applies to its original class,
+     * so it does not have to be loaded
+     */
+    private boolean isSkipped(@NotNull String holderName, @Nullable String originalClassName,
+                              @NotNull ClassLoader classLoader) throws ClassNotFoundException {
+        if (originalClassName == null) {
+            return false;
+        }
+
+        // Class could be loaded by some parent without the provided class loader
+        for (ClassLoader loader = classLoader; loader != null; loader = loader.getParent()) {
+            if (ClassLoaderUtils.findLoadedClass(loader, holderName) != null) {
+                return false;
+            }
+        }
+
+        Class<?> originalClass = Class.forName(originalClassName, false, classLoader);
+        for (SwitchCasePatcher<E> patcher : patchers) {
+            if (patcher.appliesTo(originalClass)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean patchHolderSafely(@NotNull Class<?> holder) {
+        try {
+            return patchHolder(holder);
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, e, () -> "Could not patch switch-case class '%s'".formatted(holder));
+            return false;
+        }
+    }
+
+    private void onInitializing(@NotNull Class<?> holder) {
+        if (!belongsToEnum(holder)) {
+            return;
+        }
+
+        // Static initializer reads values right after this hook, so its version is known exactly.
+        // Extender is never locked here, because the class can be initialized while another thread holds it
+        PatchState patchState = getPatchState(holder);
+        synchronized (historyLock) {
+            int version = readVersion();
+            synchronized (patchState) {
+                patchState.structuralVersion = version;
+            }
+        }
+    }
+
+    private void onInitialized(@NotNull Class<?> holder) {
+        if (!belongsToEnum(holder)) {
+            return;
+        }
+
+        MetricsRecorder recorder = Metrics.getRecorder();
+        long start = recorder.isEnabled() ? System.nanoTime() : 0;
+        boolean rewritten = patchHolder(holder);
+        if (recorder.isEnabled()) {
+            recorder.onPatch(enumExtender.getEnumClass(), 0, 1, rewritten ? 1 : 0, System.nanoTime() - start);
+        }
+    }
+
+    private boolean belongsToEnum(@NotNull Class<?> holder) {
+        // Enumeration with the same name could be loaded by another class loader
+        Class<E> enumClass = enumExtender.getEnumClass();
+        try {
+            return Class.forName(enumClass.getName(), false, holder.getClassLoader()) == enumClass;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    @NotNull
+    private PatchState getPatchState(@NotNull Class<?> holder) {
+        synchronized (patchStates) {
+            return patchStates.computeIfAbsent(holder, k -> new PatchState());
+        }
+    }
+
+    /**
+     * Returns the structural version, that is consistent with the published values
+     */
+    private int readVersion() {
+        long stamp;
+        int version;
+        do {
+            stamp = enumExtender.readStamp();
+            version = history.version();
+        } while (!enumExtender.validateStamp(stamp));
+
+        return version;
+    }
+
+    /**
+     * Initializes the switch/case synthetic class and records the version of values that its static initializer read
+     */
+    private void initialize(@NotNull Class<?> holder, @NotNull PatchState patchState) {
+        // Values are extended and removed only while the extender is locked, so they do not change until
+        // static initializer reads them. If another thread initializes the class right now, its version
+        // is recorded by the agent hook or is the current one
+        synchronized (enumExtender) {
+            int version = history.version();
+            try {
+                Class.forName(holder.getName(), true, holder.getClassLoader());
+            } catch (ClassNotFoundException | LinkageError e) {
+                throw new IllegalStateException("Could not initialize %s".formatted(holder), e);
+            }
+
+            synchronized (patchState) {
+                if (patchState.structuralVersion < 0) {
+                    patchState.structuralVersion = version;
                 }
+            }
+        }
+    }
 
-                Field field = declaredFields[0];
-                int modifiers = field.getModifiers();
-                if (!Modifier.isStatic(modifiers) || !Modifier.isFinal(modifiers) || !field.isSynthetic()) {
-                    continue;
+    /**
+     * Applies all new patchers to the switch/case synthetic class
+     *
+     * @return true if some patchers were applied
+     */
+    private boolean patchHolder(@NotNull Class<?> holder) {
+        Field field;
+        try {
+            field = holder.getDeclaredField(switchMapName);
+        } catch (NoSuchFieldException e) {
+            return false;
+        }
+
+        Class<?> originalClass = ReflectionUtils.getOriginalClass(holder);
+        if (originalClass == null) {
+            originalClass = holder;
+        }
+
+        PatchState patchState = getPatchState(holder);
+        FieldAccessor.OfObject<int[]> fieldAccessor = UnsafeUtils.getAccessor(field, int[].class);
+        if (fieldAccessor.getStaticObject() == null) {
+            initialize(holder, patchState);
+        }
+
+        boolean found;
+        synchronized (patchState) {
+            found = patchState.structuralVersion >= 0;
+        }
+
+        if (!found) {
+            synchronized (historyLock) {
+                synchronized (patchState) {
+                    if (patchState.structuralVersion < 0) {
+                        // Class was initialized by the application before the first extension after the previous
+                        // patch of its class loader, otherwise it would have been found by that patch
+                        patchState.structuralVersion = patchedVersions.getOrDefault(holder.getClassLoader(), 0);
+                    }
                 }
+            }
+        }
 
-                Class<?> fieldType = field.getType();
-                if (!fieldType.isArray() || fieldType.componentType() != int.class) {
-                    continue;
+        // Each class has its own lock, so different switch/case synthetic classes can be patched in parallel
+        synchronized (patchState) {
+            History<E> history = this.history;
+            int structuralVersion = patchState.structuralVersion;
+            int currentStructuralVersion = history.version();
+            int patchVersion = patchState.version;
+            int currentPatchVersion = patchers.size();
+            if (structuralVersion >= currentStructuralVersion && patchVersion >= currentPatchVersion) {
+                return false;
+            }
+
+            int[] array = fieldAccessor.getStaticObject();
+            if (array == null) {
+                // Class is being initialized by this thread
+                return false;
+            }
+
+            SwitchMapPatchedEvent event = new SwitchMapPatchedEvent();
+            event.begin();
+
+            // Patchers can return longer arrays, so length of the array is not always equal to the amount of values
+            int length = patchState.length >= 0 ? patchState.length : array.length;
+            int[] oldArray = array;
+            int oldLength = length;
+
+            // All structural patchers are applied at once before others, because others use current ordinals
+            StructuralPatcher<E> composed = compose(history, structuralVersion, currentStructuralVersion);
+            List<StructuralPatcher<E>> structuralPatchers = composed != null ? List.of(composed)
+                    : history.between(structuralVersion, currentStructuralVersion);
+
+            for (StructuralPatcher<E> structuralPatcher : structuralPatchers) {
+                if (length != structuralPatcher.getExpectedLength()) {
+                    throw new IllegalStateException(("Got array with length of %s in %s, but expected %s, patch "
+                                                     + "switch-cases after each extension or install EnumExtenderAgent")
+                            .formatted(length, holder, structuralPatcher.getExpectedLength()));
                 }
 
-                if (field.getName().equals(name)) {
-                    Class<?> originalClass = ReflectionUtils.getOriginalClass(clazz);
-                    try {
-                        consumer.accept(originalClass != null ? originalClass : clazz, field);
-                    } catch (Exception e) {
-                        logger.log(Level.SEVERE, e, () -> "Could not patch switch-case class '%s'".formatted(clazz));
+                array = structuralPatcher.remap(array);
+                length = structuralPatcher.getResultLength();
+            }
+
+            for (int i = patchVersion; i < currentPatchVersion; i++) {
+                SwitchCasePatcher<E> patcher = patchers.get(i);
+                if (patcher.appliesTo(originalClass)) {
+                    // Patchers can modify the array in place, so the published one is never passed to them
+                    if (array == oldArray) {
+                        array = array.clone();
                     }
+
+                    array = patcher.patch(originalClass, array);
                 }
             }
-        };
 
-        if (extendParents) {
-            ClassLoaderUtils.getClassesWithParentsSynchronized(classLoader, classesConsumer);
-        } else {
-            ClassLoaderUtils.getClassesSynchronized(classLoader, classesConsumer);
+            patchState.structuralVersion = currentStructuralVersion;
+            patchState.version = currentPatchVersion;
+            patchState.length = length;
+            if (array != oldArray) {
+                array = publish(field, fieldAccessor, oldArray, array);
+            }
+
+            if (event.shouldCommit()) {
+                event.enumClass = enumExtender.getEnumClass();
+                event.holder = holder;
+                event.patchers = structuralPatchers.size() + currentPatchVersion - patchVersion;
+                event.oldLength = oldLength;
+                event.newLength = length;
+                event.arrayLength = array.length;
+                event.classLoader = String.valueOf(holder.getClassLoader());
+                event.commit();
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * Publishes the patched array. Switch-cases can read the array concurrently, so it is replaced with a single
+     * write. Only if the field is still {@code static final}, that is the class was not transformed by
+     * {@link EnumExtenderAgent}, already compiled code can treat the old array as a constant and would never read
+     * the new one, so values are copied into the old array if it is long enough. In this case each slot is written
+     * only once, from its value before the patch to its value after it
+     *
+     * @return array that is stored in the field
+     */
+    private static int @NotNull [] publish(@NotNull Field field, @NotNull FieldAccessor.OfObject<int[]> fieldAccessor,
+                                           int @NotNull [] oldArray, int @NotNull [] array) {
+        if (Modifier.isFinal(field.getModifiers()) && oldArray.length >= array.length) {
+            System.arraycopy(array, 0, oldArray, 0, array.length);
+            Arrays.fill(oldArray, array.length, oldArray.length, 0);
+            return oldArray;
         }
+
+        fieldAccessor.setStaticObject(array);
+        return array;
     }
 
+    /**
+     * Composes all structural patchers between provided versions into one. Composed patchers are cached,
+     * because all switch/case synthetic classes patched together are usually at the same version
+     *
+     * @return composed patcher or null if there are no structural patchers or they cannot be composed
+     */
+    @Nullable
+    private StructuralPatcher<E> compose(@NotNull History<E> history, int fromVersion, int toVersion) {
+        long key = ((long) fromVersion << 32) | toVersion;
+        synchronized (compositions) {
+            if (compositionsHistory != history) {
+                compositions.clear();
+                compositionsHistory = history;
+            }
+
+            StructuralPatcher<E> composed = compositions.get(key);
+            if (composed != null) {
+                return composed;
+            }
+        }
 
+        StructuralPatcher<E> composed = null;
+        for (StructuralPatcher<E> patcher : history.between(fromVersion, toVersion)) {
+            composed = composed != null ? composed.andThen(patcher) : patcher;
+            if (composed == null) {
+                return null;
+            }
+        }
+
+        if (composed != null) {
+            synchronized (compositions) {
+                if (compositionsHistory == history) {
+                    compositions.put(key, composed);
+                }
+            }
+        }
+
+        return composed;
+    }
+
+    /**
+     * Folds structural patchers, that were applied to all known switch/case synthetic classes and are not needed
+     * by classes that can be found later, into the baseline of the history
+     */
+    private void compact() {
+        // Extender is locked first, so the history is not replaced and classes are not initialized by this extender
+        synchronized (enumExtender) {
+            synchronized (historyLock) {
+                History<E> history = this.history;
+                int floor = history.version();
+                for (int version : patchedVersions.values()) {
+                    floor = Math.min(floor, version);
+                }
+
+                synchronized (patchStates) {
+                    for (PatchState patchState : patchStates.values()) {
+                        synchronized (patchState) {
+                            if (patchState.structuralVersion >= 0) {
+                                floor = Math.min(floor, patchState.structuralVersion);
+                            }
+                        }
+                    }
+                }
+
+                if (floor > history.base()) {
+                    this.history = history.truncate(floor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns patchers added by {@link #addPatcher(SwitchCasePatcher)}, except structural ones
+     */
     @NotNull
     @UnmodifiableView
     public List<SwitchCasePatcher<E>> getPatchers() {
         return Collections.unmodifiableList(patchers);
     }
+
+    private static final class PatchState {
+
+        // Amount of applied non-structural patchers
+        private int version;
+        // Version of values that the array corresponds to, unknown if negative
+        private int structuralVersion = -1;
+        private int length = -1;
+
+    }
+
+    /**
+     * Structural patchers of published values. Version is the amount of structural patchers applied to values
+     * declared in the source code. Patchers below the base are folded into the baseline, that remaps arrays
+     * from the declared values straight to the base, so only declared values and versions starting from the base
+     * are still supported
+     *
+     * @param baseline patcher from the version 0 to the base, null if the base is 0
+     * @param base     version of the first patcher in the list
+     * @param patchers patchers starting from the base
+     */
+    private record History<E extends Enum<E>>(@Nullable StructuralPatcher<E> baseline, int base,
+                                              @NotNull List<StructuralPatcher<E>> patchers) {
+
+        private int version() {
+            return base + patchers.size();
+        }
+
+        @NotNull
+        private History<E> append(@NotNull StructuralPatcher<E> patcher) {
+            List<StructuralPatcher<E>> newPatchers = new ArrayList<>(patchers.size() + 1);
+            newPatchers.addAll(patchers);
+            newPatchers.add(patcher);
+            return new History<>(baseline, base, Collections.unmodifiableList(newPatchers));
+        }
+
+        /**
+         * @return history with the provided base or this one if patchers below it cannot be composed
+         */
+        @NotNull
+        private History<E> truncate(int newBase) {
+            StructuralPatcher<E> newBaseline = baseline;
+            for (StructuralPatcher<E> patcher : patchers.subList(0, newBase - base)) {
+                newBaseline = newBaseline != null ? newBaseline.andThen(patcher) : patcher;
+                if (newBaseline == null) {
+                    return this;
+                }
+            }
+
+            return new History<>(newBaseline, newBase, List.copyOf(patchers.subList(newBase - base, patchers.size())));
+        }
+
+        /**
+         * @return patchers that remap arrays from one version to another
+         * @throws IllegalStateException if the first version was folded into the baseline
+         */
+        @NotNull
+        private List<StructuralPatcher<E>> between(int fromVersion, int toVersion) {
+            List<StructuralPatcher<E>> between = new ArrayList<>();
+            if (fromVersion < base) {
+                if (fromVersion != 0 || baseline == null) {
+                    throw new IllegalStateException("Version %s was folded into the baseline".formatted(fromVersion));
+                }
+
+                between.add(baseline);
+                fromVersion = base;
+            }
+
+            between.addAll(patchers.subList(fromVersion - base, toVersion - base));
+            return between;
+        }
+    }
 }
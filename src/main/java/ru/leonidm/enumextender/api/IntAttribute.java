@@ -0,0 +1,68 @@
+package ru.leonidm.enumextender.api;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Primitive {@code int} version of {@link EnumAttribute}, that does not box values
+ *
+ * @param <E> enum type
+ * @author LeonidM
+ */
+public final class IntAttribute<E extends Enum<E>> extends AbstractAttribute<E, int[]> {
+
+    private final int defaultValue;
+
+    private IntAttribute(@NotNull EnumExtender<E> enumExtender, int defaultValue) {
+        super(enumExtender);
+        this.defaultValue = defaultValue;
+    }
+
+    /**
+     * Creates attribute and attaches it to the provided extender
+     *
+     * @param defaultValue value of all current instances and instances created later
+     */
+    @NotNull
+    @Contract("_, _ -> new")
+    public static <E extends Enum<E>> IntAttribute<E> create(@NotNull EnumExtender<E> enumExtender, int defaultValue) {
+        return enumExtender.addAttribute(new IntAttribute<>(enumExtender, defaultValue));
+    }
+
+    public int get(@NotNull E e) {
+        long stamp;
+        int value;
+        do {
+            stamp = readStamp();
+            int[] values = values();
+            int ordinal = e.ordinal();
+            // Ordinal can be rewritten before the array is remapped, then the stamp is not valid
+            value = ordinal < values.length ? values[ordinal] : defaultValue;
+        } while (!validate(stamp));
+
+        return value;
+    }
+
+    public void set(@NotNull E e, int value) {
+        while (true) {
+            long stamp = readStamp();
+            synchronized (this) {
+                // Array is not remapped while this attribute is locked, so only ordinal can be changed
+                int ordinal = e.ordinal();
+                if (validate(stamp)) {
+                    values()[ordinal] = value;
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    int @NotNull [] newArray(int length) {
+        int[] values = new int[length];
+        Arrays.fill(values, defaultValue);
+        return values;
+    }
+}
@@ -0,0 +1,235 @@
+package ru.leonidm.enumextender.api;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Patcher that is compiled once from declarative rules, so it does not call user code while switch/case synthetic
+ * class is patched. Case indices are copied into the buffer, that is reused by each thread, so patching allocates
+ * only if the array is longer than all arrays patched by the thread before. Each rule is a table of the constants, which branches
+ * must be replaced with branches of other constants, and it is applied to the classes with exact name,
+ * to the classes whose names start with prefix, or to the classes that match predicate. Constants are stored
+ * instead of their ordinals, because ordinals are changed after insertions and removals.
+ *
+ * @param <E> enum type
+ * @author LeonidM
+ * @see SwitchCasePatcher#mappingTable(Class)
+ */
+public final class MappingTablePatcher<E extends Enum<E>> implements SwitchCasePatcher<E> {
+
+    private final Map<String, Table<E>[]> exactRules;
+    private final String[] prefixes;
+    private final Table<E>[] prefixTables;
+    private final Predicate<Class<?>>[] predicates;
+    private final Table<E>[] predicateTables;
+    // Switch/case synthetic classes can be patched in parallel, so each thread has its own buffer
+    private final ThreadLocal<int[]> buffers = new ThreadLocal<>();
+
+    private MappingTablePatcher(@NotNull Builder<E> builder) {
+        Map<String, List<Table<E>>> exactRules = new HashMap<>();
+        builder.exactRules.forEach((name, table) -> exactRules.computeIfAbsent(name, k -> new ArrayList<>()).add(table));
+
+        this.exactRules = new HashMap<>();
+        exactRules.forEach((name, tables) -> this.exactRules.put(name, tables.toArray(Table[]::new)));
+
+        prefixes = builder.prefixes.toArray(String[]::new);
+        prefixTables = builder.prefixTables.toArray(Table[]::new);
+        predicates = builder.predicates.toArray(Predicate[]::new);
+        predicateTables = builder.predicateTables.toArray(Table[]::new);
+    }
+
+    @Override
+    public boolean appliesTo(@NotNull Class<?> originalClass) {
+        String name = originalClass.getName();
+        if (exactRules.containsKey(name)) {
+            return true;
+        }
+
+        for (String prefix : prefixes) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+
+        for (Predicate<Class<?>> predicate : predicates) {
+            if (predicate.test(originalClass)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Applies all matching rules. Each key follows the branch of its value, so case indices are read from
+     * the array as it was before this patcher, and rules do not depend on each other and the order of mappings.
+     * If several rules map the same constant, the last matching one wins
+     */
+    @Override
+    public int @NotNull [] patch(@NotNull Class<?> originalClass, int @NotNull [] ordinalArray) {
+        String name = originalClass.getName();
+        int[] original = null;
+
+        Table<E>[] tables = exactRules.get(name);
+        if (tables != null) {
+            original = copy(ordinalArray);
+            for (Table<E> table : tables) {
+                table.apply(ordinalArray, original);
+            }
+        }
+
+        for (int i = 0; i < prefixes.length; i++) {
+            if (name.startsWith(prefixes[i])) {
+                if (original == null) {
+                    original = copy(ordinalArray);
+                }
+
+                prefixTables[i].apply(ordinalArray, original);
+            }
+        }
+
+        for (int i = 0; i < predicates.length; i++) {
+            if (predicates[i].test(originalClass)) {
+                if (original == null) {
+                    original = copy(ordinalArray);
+                }
+
+                predicateTables[i].apply(ordinalArray, original);
+            }
+        }
+
+        return ordinalArray;
+    }
+
+    /**
+     * Copies the array into the buffer of the current thread, that can be longer than the array
+     */
+    private int @NotNull [] copy(int @NotNull [] ordinalArray) {
+        int[] buffer = buffers.get();
+        if (buffer == null || buffer.length < ordinalArray.length) {
+            buffer = new int[ordinalArray.length];
+            buffers.set(buffer);
+        }
+
+        System.arraycopy(ordinalArray, 0, buffer, 0, ordinalArray.length);
+        return buffer;
+    }
+
+    private record Table<E extends Enum<E>>(E @NotNull [] keys, E @NotNull [] values) {
+
+        @NotNull
+        private static <E extends Enum<E>> Table<E> of(@NotNull Class<E> enumClass, @NotNull Map<E, E> mappings) {
+            E[] keys = (E[]) Array.newInstance(enumClass, mappings.size());
+            E[] values = (E[]) Array.newInstance(enumClass, mappings.size());
+
+            int i = 0;
+            for (var entry : mappings.entrySet()) {
+                keys[i] = entry.getKey();
+                values[i] = entry.getValue();
+                i++;
+            }
+
+            return new Table<>(keys, values);
+        }
+
+        private void apply(int @NotNull [] ordinalArray, int @NotNull [] original) {
+            for (int i = 0; i < keys.length; i++) {
+                E value = values[i];
+                ordinalArray[keys[i].ordinal()] = value != null ? original[value.ordinal()] : 0;
+            }
+        }
+    }
+
+    public static final class Builder<E extends Enum<E>> {
+
+        private final Class<E> enumClass;
+        private final Map<String, Table<E>> exactRules = new HashMap<>();
+        private final List<String> prefixes = new ArrayList<>();
+        private final List<Table<E>> prefixTables = new ArrayList<>();
+        private final List<Predicate<Class<?>>> predicates = new ArrayList<>();
+        private final List<Table<E>> predicateTables = new ArrayList<>();
+
+        Builder(@NotNull Class<E> enumClass) {
+            this.enumClass = enumClass;
+        }
+
+        /**
+         * Adds mappings for the class with provided name. Classes are matched by name, so patcher
+         * does not prevent them from unloading
+         *
+         * @param className name of the class where switch-case is used
+         * @param mappings  constants whose branches must be replaced with branches of other constants,
+         *                  null value means the default branch
+         * @return this
+         */
+        @NotNull
+        @Contract("_, _ -> this")
+        public Builder<E> forClass(@NotNull String className, @NotNull Map<E, @Nullable E> mappings) {
+            exactRules.merge(className, Table.of(enumClass, mappings), (first, second) -> {
+                Map<E, E> merged = new HashMap<>();
+                for (int i = 0; i < first.keys().length; i++) {
+                    merged.put(first.keys()[i], first.values()[i]);
+                }
+
+                for (int i = 0; i < second.keys().length; i++) {
+                    merged.put(second.keys()[i], second.values()[i]);
+                }
+
+                return Table.of(enumClass, merged);
+            });
+            return this;
+        }
+
+        /**
+         * @see #forClass(String, Map)
+         */
+        @NotNull
+        @Contract("_, _ -> this")
+        public Builder<E> forClass(@NotNull Class<?> clazz, @NotNull Map<E, @Nullable E> mappings) {
+            return forClass(clazz.getName(), mappings);
+        }
+
+        /**
+         * Adds mappings for all classes whose names start with provided prefix
+         *
+         * @see #forClass(String, Map)
+         */
+        @NotNull
+        @Contract("_, _ -> this")
+        public Builder<E> forPrefix(@NotNull String prefix, @NotNull Map<E, @Nullable E> mappings) {
+            prefixes.add(prefix);
+            prefixTables.add(Table.of(enumClass, mappings));
+            return this;
+        }
+
+        /**
+         * Adds mappings for all classes that match provided predicate. Predicate is called each time patcher
+         * is checked by {@link MappingTablePatcher#appliesTo(Class)} and applied to the switch/case synthetic class, so it must be
+         * cheap and return the same result for the same class
+         *
+         * @see #forClass(String, Map)
+         */
+        @NotNull
+        @Contract("_, _ -> this")
+        public Builder<E> forClasses(@NotNull Predicate<@NotNull Class<?>> predicate,
+                                     @NotNull Map<E, @Nullable E> mappings) {
+            predicates.add(predicate);
+            predicateTables.add(Table.of(enumClass, mappings));
+            return this;
+        }
+
+        @NotNull
+        @Contract("-> new")
+        public MappingTablePatcher<E> build() {
+            return new MappingTablePatcher<>(this);
+        }
+    }
+}
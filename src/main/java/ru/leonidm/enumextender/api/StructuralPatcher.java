@@ -0,0 +1,90 @@
+package ru.leonidm.enumextender.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Patcher that changes length of the array, moving its values to the new positions
+ *
+ * @param <E> enum type
+ * @author LeonidM
+ */
+final class StructuralPatcher<E extends Enum<E>> implements SwitchCasePatcher<E> {
+
+    private final int expectedLength;
+    private final int[] sourceIndices;
+
+    /**
+     * @param expectedLength length of the array at which patcher must be applied
+     * @param sourceIndices  index in the old array for each index in the new array, or -1 if
+     *                       new array must contain empty value there
+     */
+    StructuralPatcher(int expectedLength, int @NotNull [] sourceIndices) {
+        this.expectedLength = expectedLength;
+        this.sourceIndices = sourceIndices;
+    }
+
+    @Override
+    public int @NotNull [] patch(@NotNull Class<?> originalClass, int @NotNull [] ordinalArray) {
+        if (ordinalArray.length > expectedLength) {
+            return ordinalArray;
+        } else if (ordinalArray.length < expectedLength) {
+            throw new IllegalStateException("Got array with length of " + ordinalArray.length
+                                            + ", but expected " + expectedLength);
+        }
+
+        return remap(ordinalArray);
+    }
+
+    /**
+     * Returns index in the old array for each index in the new array, or -1 for empty values
+     */
+    int @NotNull [] getSourceIndices() {
+        return sourceIndices;
+    }
+
+    /**
+     * Moves values of the array, whose first {@link #getExpectedLength()} values are used, into the new array
+     * of {@link #getResultLength()} length. Provided array is never modified, because switch-cases can read it
+     * concurrently, so the new array must be published with a single write
+     */
+    int @NotNull [] remap(int @NotNull [] ordinalArray) {
+        int[] array = new int[sourceIndices.length];
+        for (int i = 0; i < sourceIndices.length; i++) {
+            int sourceIndex = sourceIndices[i];
+            if (sourceIndex >= 0) {
+                array[i] = ordinalArray[sourceIndex];
+            }
+        }
+
+        return array;
+    }
+
+    /**
+     * Composes this patcher with the next one into one patcher, so array is rebuilt only one time
+     *
+     * @return composed patcher or null if next patcher does not expect result of this one
+     */
+    @Nullable
+    StructuralPatcher<E> andThen(@NotNull StructuralPatcher<E> next) {
+        if (next.expectedLength != sourceIndices.length) {
+            return null;
+        }
+
+        int[] composed = new int[next.sourceIndices.length];
+        for (int i = 0; i < composed.length; i++) {
+            int sourceIndex = next.sourceIndices[i];
+            composed[i] = sourceIndex >= 0 ? sourceIndices[sourceIndex] : -1;
+        }
+
+        return new StructuralPatcher<>(expectedLength, composed);
+    }
+
+    int getExpectedLength() {
+        return expectedLength;
+    }
+
+    int getResultLength() {
+        return sourceIndices.length;
+    }
+}
@@ -29,11 +29,26 @@ public interface SwitchCasePatcher<E extends Enum<E>> {
     int @NotNull [] patch(@NotNull Class<?> originalClass, int @NotNull [] ordinalArray);
 
     /**
-     * Wraps provided function as patcher
+     * Checks if patcher must be applied to switch/case synthetic class of provided class, so others
+     * are skipped without calling {@link #patch(Class, int[])}
+     *
+     * @param originalClass class where synthetic switch-case class was created
+     *                      or synthetic class itself
+     * @return true if patcher must be applied
+     */
+    default boolean appliesTo(@NotNull Class<?> originalClass) {
+        return true;
+    }
+
+    /**
+     * Wraps provided function as patcher. Slot of each key is set to {@code value.ordinal() + 1}, that is
+     * the case index of the value if cases of the switch are declared in the order of ordinals,
+     * or to 0 if value is null, so key falls back to the default branch
      *
      * @param mapper mapper function that returns mappings for original class
      * @param <E>    enum type
      * @return instance of {@link SwitchCasePatcher}
+     * @see #mappingTable(Class)
      */
     @NotNull
     static <E extends Enum<E>> SwitchCasePatcher<E> mappings(@NotNull Function<@NotNull Class<?>, @Nullable Map<E, E>> mapper) {
@@ -54,6 +69,18 @@ public interface SwitchCasePatcher<E extends Enum<E>> {
         };
     }
 
+    /**
+     * Returns builder of the patcher, that is compiled once from declarative rules
+     *
+     * @param enumClass enumeration class
+     * @param <E>       enum type
+     * @return instance of {@link MappingTablePatcher.Builder}
+     */
+    @NotNull
+    static <E extends Enum<E>> MappingTablePatcher.Builder<E> mappingTable(@NotNull Class<E> enumClass) {
+        return new MappingTablePatcher.Builder<>(enumClass);
+    }
+
     /**
      * Creates patcher that shift all values in array by 1 from provided index
      *
@@ -64,22 +91,57 @@ public interface SwitchCasePatcher<E extends Enum<E>> {
      */
     @NotNull
     static <E extends Enum<E>> SwitchCasePatcher<E> insert(int index, int expectedLength) {
-        return new SwitchCasePatcher<>() {
-            @Override
-            public int @NotNull [] patch(@NotNull Class<?> originalClass, int @NotNull [] ordinalArray) {
-                if (ordinalArray.length > expectedLength) {
-                    return ordinalArray;
-                } else if (ordinalArray.length < expectedLength) {
-                    throw new IllegalStateException("Got array with length of " + ordinalArray.length
-                                                    + ", but expected " + expectedLength);
-                }
+        return insert(new int[]{index}, expectedLength);
+    }
+
+    /**
+     * Creates patcher that inserts empty values at all provided indices at once,
+     * shifting all other values, so array is copied only one time
+     *
+     * @param indices        sorted indices of inserted values in the new array
+     * @param expectedLength expected length at which patcher must insert values
+     * @param <E>            enum type
+     * @return instance of {@link SwitchCasePatcher}
+     */
+    @NotNull
+    static <E extends Enum<E>> SwitchCasePatcher<E> insert(int @NotNull [] indices, int expectedLength) {
+        int[] sourceIndices = new int[expectedLength + indices.length];
+        int next = 0;
+        for (int i = 0; i < sourceIndices.length; i++) {
+            if (next < indices.length && indices[next] == i) {
+                sourceIndices[i] = -1;
+                next++;
+            } else {
+                sourceIndices[i] = i - next;
+            }
+        }
+
+        return new StructuralPatcher<>(expectedLength, sourceIndices);
+    }
 
-                int[] array = new int[ordinalArray.length + 1];
-                System.arraycopy(ordinalArray, 0, array, 0, index);
-                System.arraycopy(ordinalArray, index, array, index + 1, array.length - index - 1);
-                return array;
+    /**
+     * Creates patcher that removes values at all provided indices at once,
+     * shifting all other values, so array is copied only one time
+     *
+     * @param indices        sorted indices of removed values in the old array
+     * @param expectedLength expected length at which patcher must remove values
+     * @param <E>            enum type
+     * @return instance of {@link SwitchCasePatcher}
+     */
+    @NotNull
+    static <E extends Enum<E>> SwitchCasePatcher<E> remove(int @NotNull [] indices, int expectedLength) {
+        int[] sourceIndices = new int[expectedLength - indices.length];
+        int next = 0;
+        int index = 0;
+        for (int i = 0; i < expectedLength; i++) {
+            if (next < indices.length && indices[next] == i) {
+                next++;
+            } else {
+                sourceIndices[index++] = i;
             }
-        };
+        }
+
+        return new StructuralPatcher<>(expectedLength, sourceIndices);
     }
 
 }
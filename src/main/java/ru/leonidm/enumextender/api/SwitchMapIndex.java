@@ -0,0 +1,285 @@
+package ru.leonidm.enumextender.api;
+
+import io.github.classgraph.ClassGraph;
+import io.github.classgraph.ClassInfo;
+import io.github.classgraph.FieldInfo;
+import io.github.classgraph.ScanResult;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.UnmodifiableView;
+import ru.leonidm.enumextender.agent.SwitchMapHolders;
+import ru.leonidm.enumextender.util.ReflectionUtils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Index of switch-case synthetic classes, built from the bytecode without loading any class.
+ * It can be passed to {@link EnumSwitchCaseExtender#patch(SwitchMapIndex, ClassLoader)}, so
+ * switch-cases are patched without scanning of loaded classes.
+ *
+ * @author LeonidM
+ */
+public final class SwitchMapIndex {
+
+    /**
+     * Resource with switch-case synthetic classes written at build time by {@code ru.leonidm.enumextender.tool.SwitchMapManifestGenerator}.
+     * Each line contains name of the switch map field, name of the class and optionally name of its original class
+     * separated by spaces
+     */
+    public static final String MANIFEST = "META-INF/enum-extender/switchmaps.idx";
+
+    private final Map<String, List<String>> holders;
+    private final Map<String, String> originalClasses;
+
+    /**
+     * Creates index from already known switch-case synthetic classes
+     *
+     * @param holders names of switch-case synthetic classes by the names of switch map fields
+     *                (like {@code $SwitchMap$java$util$concurrent$TimeUnit})
+     */
+    public SwitchMapIndex(@NotNull Map<String, List<String>> holders) {
+        this(holders, Map.of());
+    }
+
+    /**
+     * Creates index from already known switch-case synthetic classes and their original classes
+     *
+     * @param holders         names of switch-case synthetic classes by the names of switch map fields
+     *                        (like {@code $SwitchMap$java$util$concurrent$TimeUnit})
+     * @param originalClasses names of the classes where switch-cases are used by the names of switch-case
+     *                        synthetic classes
+     */
+    public SwitchMapIndex(@NotNull Map<String, List<String>> holders, @NotNull Map<String, String> originalClasses) {
+        Map<String, List<String>> copy = new HashMap<>();
+        holders.forEach((switchMapName, holderNames) -> copy.put(switchMapName, List.copyOf(holderNames)));
+        this.holders = Collections.unmodifiableMap(copy);
+        this.originalClasses = Map.copyOf(originalClasses);
+    }
+
+    /**
+     * Scans classpath of the provided class loader and its parents using ClassGraph
+     *
+     * @param classLoader class loader whose classpath must be scanned
+     * @return index of all found switch-case synthetic classes
+     */
+    @NotNull
+    public static SwitchMapIndex scan(@NotNull ClassLoader classLoader) {
+        return scan(new ClassGraph().overrideClassLoaders(classLoader));
+    }
+
+    /**
+     * Scans provided jars or directories with classes using ClassGraph
+     *
+     * @param classpath jars or directories with classes
+     * @return index of all found switch-case synthetic classes
+     */
+    @NotNull
+    public static SwitchMapIndex scan(@NotNull Collection<File> classpath) {
+        return scan(new ClassGraph().overrideClasspath(classpath));
+    }
+
+    /**
+     * Scans classpath of the provided class loader and its parents like {@link #scan(ClassLoader)}, but
+     * stores found classes in the provided cache file, so on the next call only jars, whose size or
+     * modification time were changed, are scanned again
+     *
+     * @param classLoader class loader whose classpath must be scanned
+     * @param cacheFile   file of the cache, that is created if it does not exist
+     * @return index of all found switch-case synthetic classes
+     */
+    @NotNull
+    public static SwitchMapIndex scan(@NotNull ClassLoader classLoader, @NotNull Path cacheFile) {
+        List<File> classpath = new ClassGraph().overrideClassLoaders(classLoader).getClasspathFiles();
+        return SwitchMapIndexCache.scan(classpath, cacheFile);
+    }
+
+    /**
+     * Scans provided jars or directories with classes like {@link #scan(Collection)}, but uses the cache file
+     *
+     * @see #scan(ClassLoader, Path)
+     */
+    @NotNull
+    public static SwitchMapIndex scan(@NotNull Collection<File> classpath, @NotNull Path cacheFile) {
+        return SwitchMapIndexCache.scan(classpath, cacheFile);
+    }
+
+    /**
+     * Reads all {@link #MANIFEST} resources visible to the provided class loader and its parents, so
+     * switch-case synthetic classes of the code compiled with the manifest are found without any scanning
+     *
+     * @param classLoader class loader whose manifests must be read
+     * @return index of all switch-case synthetic classes listed in the manifests
+     * @throws UncheckedIOException if some manifest cannot be read
+     */
+    @NotNull
+    public static SwitchMapIndex fromManifests(@NotNull ClassLoader classLoader) {
+        Map<String, List<String>> holders = new HashMap<>();
+        Map<String, String> originalClasses = new HashMap<>();
+        try {
+            Enumeration<URL> manifests = classLoader.getResources(MANIFEST);
+            while (manifests.hasMoreElements()) {
+                URL manifest = manifests.nextElement();
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(manifest.openStream(),
+                        StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        line = line.trim();
+                        if (line.isEmpty() || line.startsWith("#")) {
+                            continue;
+                        }
+
+                        String[] parts = line.split("\\s+");
+                        if (parts.length < 2) {
+                            continue;
+                        }
+
+                        holders.computeIfAbsent(parts[0], k -> new ArrayList<>()).add(parts[1]);
+                        if (parts.length > 2) {
+                            originalClasses.put(parts[1], parts[2]);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return new SwitchMapIndex(holders, originalClasses);
+    }
+
+    @NotNull
+    private static SwitchMapIndex scan(@NotNull ClassGraph classGraph) {
+        Map<String, List<String>> holders = new HashMap<>();
+        Map<String, String> originalClasses = new HashMap<>();
+        forEachHolder(classGraph, (classInfo, switchMapName) -> {
+            String holderName = classInfo.getName();
+            holders.computeIfAbsent(switchMapName, k -> new ArrayList<>()).add(holderName);
+
+            String originalClass = ReflectionUtils.getOriginalClassName(holderName);
+            if (originalClass != null) {
+                originalClasses.put(holderName, originalClass);
+            }
+        });
+
+        return new SwitchMapIndex(holders, originalClasses);
+    }
+
+    /**
+     * Scans with ClassGraph and sends each found switch-case synthetic class with the name of its switch map field
+     */
+    static void forEachHolder(@NotNull ClassGraph classGraph, @NotNull BiConsumer<ClassInfo, String> consumer) {
+        try (ScanResult scanResult = classGraph
+                .enableClassInfo()
+                .enableFieldInfo()
+                .ignoreClassVisibility()
+                .ignoreFieldVisibility()
+                .scan()) {
+            for (ClassInfo classInfo : scanResult.getAllClasses()) {
+                if (!classInfo.isSynthetic()) {
+                    continue;
+                }
+
+                for (FieldInfo fieldInfo : classInfo.getDeclaredFieldInfo()) {
+                    String name = fieldInfo.getName();
+                    if (fieldInfo.isStatic() && name.startsWith(SwitchMapHolders.SWITCH_MAP_PREFIX)
+                        && fieldInfo.getTypeDescriptorStr().equals("[I")) {
+                        consumer.accept(classInfo, name);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns names of switch-case synthetic classes that contain switch map of provided enumeration class
+     *
+     * @param enumClass enumeration class
+     * @return names of switch-case synthetic classes
+     */
+    @NotNull
+    @UnmodifiableView
+    public List<String> getHolders(@NotNull Class<? extends Enum<?>> enumClass) {
+        return getHolders(SwitchMapHolders.getSwitchMapName(enumClass));
+    }
+
+    /**
+     * Returns names of switch-case synthetic classes that contain provided switch map
+     *
+     * @param switchMapName name of the switch map field
+     * @return names of switch-case synthetic classes
+     */
+    @NotNull
+    @UnmodifiableView
+    public List<String> getHolders(@NotNull String switchMapName) {
+        return holders.getOrDefault(switchMapName, List.of());
+    }
+
+    /**
+     * Returns name of the class where switch-cases of the provided switch-case synthetic class are used,
+     * so it can be checked without loading the synthetic class
+     *
+     * @param holderName name of the switch-case synthetic class
+     * @return name of the original class or null if it is unknown
+     */
+    @Nullable
+    public String getOriginalClass(@NotNull String holderName) {
+        return originalClasses.get(holderName);
+    }
+
+    /**
+     * Writes this index as {@link #MANIFEST} into the provided directory, sorted, so the same classes always
+     * give the same manifest
+     *
+     * @param outputDirectory root directory of the resources
+     * @throws IOException if manifest cannot be written
+     */
+    public void writeManifest(@NotNull Path outputDirectory) throws IOException {
+        Path manifest = outputDirectory.resolve(MANIFEST);
+        Files.createDirectories(manifest.getParent());
+
+        List<String> lines = new ArrayList<>();
+        holders.forEach((switchMapName, holderNames) -> {
+            for (String holderName : holderNames) {
+                String originalClass = originalClasses.get(holderName);
+                lines.add(switchMapName + " " + holderName + (originalClass != null ? " " + originalClass : ""));
+            }
+        });
+
+        Collections.sort(lines);
+        Files.write(manifest, lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns names of switch-case synthetic classes by the names of switch map fields
+     */
+    @NotNull
+    @UnmodifiableView
+    public Map<String, List<String>> asMap() {
+        return holders;
+    }
+
+    /**
+     * Returns names of the original classes by the names of switch-case synthetic classes
+     */
+    @NotNull
+    @UnmodifiableView
+    public Map<String, String> getOriginalClasses() {
+        return originalClasses;
+    }
+}
@@ -0,0 +1,264 @@
+package ru.leonidm.enumextender.api;
+
+import io.github.classgraph.ClassGraph;
+import org.jetbrains.annotations.NotNull;
+import ru.leonidm.enumextender.util.ReflectionUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Binary cache of {@link SwitchMapIndex}, that stores switch-case synthetic classes found in each jar or directory
+ * together with their original classes and the fingerprint of the element, so only changed elements are scanned
+ * again. Jar is fingerprinted by its size and modification time, and directory by the total size of its files and
+ * the hash of their relative paths, sizes and modification times, because walking a directory reads only
+ * attributes of its files and is much cheaper than scanning their bytecode
+ *
+ * @author LeonidM
+ */
+final class SwitchMapIndexCache {
+
+    private static final Logger LOGGER = Logger.getLogger(SwitchMapIndexCache.class.getName());
+    private static final int MAGIC = 0x454E4958;
+    private static final int VERSION = 2;
+    // Size of the element, whose fingerprint could not be computed, so it is always scanned
+    private static final long UNKNOWN = -1;
+
+    private SwitchMapIndexCache() {
+
+    }
+
+    @NotNull
+    static SwitchMapIndex scan(@NotNull Collection<File> classpath, @NotNull Path cacheFile) {
+        Map<String, Element> cached = read(cacheFile);
+        Map<String, Element> elements = new LinkedHashMap<>();
+        List<File> changed = new ArrayList<>();
+
+        for (File file : classpath) {
+            File canonicalFile = canonical(file);
+            if (!canonicalFile.exists()) {
+                continue;
+            }
+
+            String path = canonicalFile.getPath();
+            Element element = fingerprint(canonicalFile);
+            Element cachedElement = cached.get(path);
+            if (element.size() != UNKNOWN && cachedElement != null && element.size() == cachedElement.size()
+                && element.fingerprint() == cachedElement.fingerprint()) {
+                elements.put(path, cachedElement);
+            } else {
+                elements.put(path, element);
+                changed.add(canonicalFile);
+            }
+        }
+
+        Map<String, Map<String, List<String>>> scanned = new HashMap<>();
+        if (!changed.isEmpty()) {
+            SwitchMapIndex.forEachHolder(new ClassGraph().overrideClasspath(changed), (classInfo, switchMapName) -> {
+                String path = canonical(classInfo.getClasspathElementFile()).getPath();
+                scanned.computeIfAbsent(path, k -> new HashMap<>())
+                        .computeIfAbsent(switchMapName, k -> new ArrayList<>())
+                        .add(classInfo.getName());
+            });
+        }
+
+        boolean modified = !cached.keySet().equals(elements.keySet());
+        for (File file : changed) {
+            String path = file.getPath();
+            Element element = elements.get(path);
+            scanned.getOrDefault(path, Map.of()).forEach((switchMapName, names) -> {
+                names.sort(null);
+                element.holders().put(switchMapName, names);
+                for (String name : names) {
+                    String originalClass = ReflectionUtils.getOriginalClassName(name);
+                    if (originalClass != null) {
+                        element.originalClasses().put(name, originalClass);
+                    }
+                }
+            });
+
+            modified |= !element.equals(cached.get(path));
+        }
+
+        Map<String, List<String>> holders = new HashMap<>();
+        Map<String, String> originalClasses = new HashMap<>();
+        for (Element element : elements.values()) {
+            merge(holders, element.holders());
+            originalClasses.putAll(element.originalClasses());
+        }
+
+        if (modified) {
+            write(cacheFile, elements);
+        }
+
+        return new SwitchMapIndex(holders, originalClasses);
+    }
+
+    private static void merge(@NotNull Map<String, List<String>> holders, @NotNull Map<String, List<String>> from) {
+        from.forEach((switchMapName, names) -> holders.computeIfAbsent(switchMapName, k -> new ArrayList<>())
+                .addAll(names));
+    }
+
+    @NotNull
+    private static File canonical(@NotNull File file) {
+        try {
+            return file.getCanonicalFile();
+        } catch (IOException e) {
+            return file.getAbsoluteFile();
+        }
+    }
+
+    /**
+     * Creates element without holders, that has the fingerprint of the provided jar or directory
+     */
+    @NotNull
+    private static Element fingerprint(@NotNull File file) {
+        if (file.isFile()) {
+            return new Element(file.length(), file.lastModified(), new HashMap<>(), new HashMap<>());
+        }
+
+        Path root = file.toPath();
+        long[] fingerprint = new long[2];
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<>() {
+                @Override
+                @NotNull
+                public FileVisitResult visitFile(@NotNull Path path, @NotNull BasicFileAttributes attributes) {
+                    // Files are visited in any order, so their hashes are summed
+                    long hash = root.relativize(path).toString().hashCode();
+                    hash = hash * 31 + attributes.size();
+                    hash = hash * 31 + attributes.lastModifiedTime().toMillis();
+                    hash ^= hash >>> 33;
+                    hash *= 0xFF51AFD7ED558CCDL;
+                    hash ^= hash >>> 33;
+
+                    fingerprint[0] += attributes.size();
+                    fingerprint[1] += hash;
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, e, () -> "Could not fingerprint directory '%s'".formatted(file));
+            return new Element(UNKNOWN, UNKNOWN, new HashMap<>(), new HashMap<>());
+        }
+
+        return new Element(fingerprint[0], fingerprint[1], new HashMap<>(), new HashMap<>());
+    }
+
+    /**
+     * Reads cache file, or returns empty map if it does not exist or is broken
+     */
+    @NotNull
+    private static Map<String, Element> read(@NotNull Path cacheFile) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return Map.of();
+            }
+
+            int elementCount = in.readInt();
+            Map<String, Element> elements = new HashMap<>(elementCount * 2);
+            for (int i = 0; i < elementCount; i++) {
+                String path = in.readUTF();
+                long size = in.readLong();
+                long fingerprint = in.readLong();
+
+                int switchMapCount = in.readInt();
+                Map<String, List<String>> holders = new HashMap<>(switchMapCount * 2);
+                Map<String, String> originalClasses = new HashMap<>();
+                for (int j = 0; j < switchMapCount; j++) {
+                    String switchMapName = in.readUTF();
+                    int holderCount = in.readInt();
+                    List<String> names = new ArrayList<>(holderCount);
+                    for (int k = 0; k < holderCount; k++) {
+                        String name = in.readUTF();
+                        String originalClass = in.readUTF();
+                        names.add(name);
+                        if (!originalClass.isEmpty()) {
+                            originalClasses.put(name, originalClass);
+                        }
+                    }
+
+                    holders.put(switchMapName, names);
+                }
+
+                elements.put(path, new Element(size, fingerprint, holders, originalClasses));
+            }
+
+            return elements;
+        } catch (NoSuchFileException e) {
+            return Map.of();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, e, () -> "Could not read switch map index cache '%s'".formatted(cacheFile));
+            return Map.of();
+        }
+    }
+
+    /**
+     * Writes cache to the temporary file and then moves it, so readers never see partially written cache
+     */
+    private static void write(@NotNull Path cacheFile, @NotNull Map<String, Element> elements) {
+        try {
+            Path parent = cacheFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+
+            Path tempFile = Files.createTempFile(parent, cacheFile.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(elements.size());
+                for (var entry : elements.entrySet()) {
+                    Element element = entry.getValue();
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(element.size());
+                    out.writeLong(element.fingerprint());
+
+                    out.writeInt(element.holders().size());
+                    for (var holders : element.holders().entrySet()) {
+                        out.writeUTF(holders.getKey());
+                        out.writeInt(holders.getValue().size());
+                        for (String name : holders.getValue()) {
+                            out.writeUTF(name);
+                            out.writeUTF(element.originalClasses().getOrDefault(name, ""));
+                        }
+                    }
+                }
+            }
+
+            Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, e, () -> "Could not write switch map index cache '%s'".formatted(cacheFile));
+        }
+    }
+
+    /**
+     * @param size            size of the jar or total size of the files in the directory
+     * @param fingerprint     modification time of the jar or hash of the files in the directory
+     * @param holders         names of switch-case synthetic classes by the names of switch map fields
+     * @param originalClasses names of the original classes by the names of switch-case synthetic classes
+     */
+    private record Element(long size, long fingerprint, @NotNull Map<String, List<String>> holders,
+                           @NotNull Map<String, String> originalClasses) {
+
+    }
+}
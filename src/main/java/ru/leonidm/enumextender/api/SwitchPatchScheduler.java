@@ -0,0 +1,202 @@
+package ru.leonidm.enumextender.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scheduler that coalesces requests to patch switch/case synthetic classes. Requests for the same enumeration
+ * and class loader are merged into one {@link EnumSwitchCaseExtender#patch(ClassLoader, boolean)} call, that is
+ * executed when no new request was made within the window after the last one, but not later than the max delay
+ * after the first one, so bursts of {@link EnumSwitchCaseExtender#addPatcher} calls need only one scan, and
+ * continuous requests still get patched. Patches are executed on virtual threads if they are supported by the JVM,
+ * otherwise on daemon threads.
+ *
+ * @author LeonidM
+ */
+public final class SwitchPatchScheduler implements AutoCloseable {
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final long windowNanos;
+    private final long maxDelayNanos;
+    private final ScheduledExecutorService timer;
+    private final ExecutorService executor;
+    private final Map<Key, Request> pending = new HashMap<>();
+    private boolean closed;
+
+    /**
+     * Creates scheduler whose max delay is ten windows
+     *
+     * @param window duration after the last request during which next requests are coalesced
+     */
+    public SwitchPatchScheduler(@NotNull Duration window) {
+        this(window, window.multipliedBy(10));
+    }
+
+    /**
+     * @param window   duration after the last request during which next requests are coalesced
+     * @param maxDelay duration after the first request after which the patch is executed even if requests
+     *                 are still made
+     */
+    public SwitchPatchScheduler(@NotNull Duration window, @NotNull Duration maxDelay) {
+        if (window.isNegative()) {
+            throw new IllegalArgumentException("Window must not be negative, got " + window);
+        }
+
+        if (maxDelay.compareTo(window) < 0) {
+            throw new IllegalArgumentException("Max delay must not be less than the window %s, got %s"
+                    .formatted(window, maxDelay));
+        }
+
+        windowNanos = window.toNanos();
+        maxDelayNanos = maxDelay.toNanos();
+        timer = Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("timer"));
+        executor = createExecutor();
+    }
+
+    /**
+     * Virtual threads appeared only in Java 21, while the project targets Java 17, so the executor is looked up
+     * reflectively and cached pool of daemon threads is used if it is missing
+     */
+    @NotNull
+    private static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(daemonThreadFactory("worker"));
+        }
+    }
+
+    @NotNull
+    private static ThreadFactory daemonThreadFactory(@NotNull String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, "EnumExtender-patch-%s-%s".formatted(name, THREAD_COUNTER.incrementAndGet()));
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Schedules patch of switch/case synthetic classes. If there is already pending request for the same
+     * extender and class loader, they are merged, the patch is postponed until the window passes after this request
+     * or the max delay passes after the first one, and class loader parents are extended if at least one
+     * of the requests wants it.
+     *
+     * @param switchCaseExtender extender of switch/case synthetic classes
+     * @param classLoader        class loader whose switch/case synthetic classes must be extended
+     * @param extendParents      if true also parents of the class loader will be extended
+     * @return future that is completed after the merged patch is finished, switch behavior can be relied on only
+     * after its completion
+     */
+    @NotNull
+    public CompletableFuture<Void> schedule(@NotNull EnumSwitchCaseExtender<?> switchCaseExtender,
+                                            @NotNull ClassLoader classLoader, boolean extendParents) {
+        Key key = new Key(switchCaseExtender, classLoader);
+        synchronized (pending) {
+            if (closed) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Scheduler is closed"));
+            }
+
+            long now = System.nanoTime();
+            Request request = pending.get(key);
+            if (request == null) {
+                request = new Request(now);
+                pending.put(key, request);
+            } else {
+                request.task.cancel(false);
+            }
+
+            long delay = Math.min(windowNanos, request.firstNanos + maxDelayNanos - now);
+            int generation = ++request.generation;
+            request.task = timer.schedule(() -> execute(key, generation), Math.max(delay, 0), TimeUnit.NANOSECONDS);
+            request.extendParents |= extendParents;
+            return request.future.copy();
+        }
+    }
+
+    private void execute(@NotNull Key key, int generation) {
+        Request request;
+        synchronized (pending) {
+            request = pending.get(key);
+            // Task may run despite cancellation, then only the last scheduled one executes the request
+            if (request == null || request.generation != generation) {
+                return;
+            }
+
+            pending.remove(key);
+        }
+
+        execute(key, request);
+    }
+
+    private void execute(@NotNull Key key, @NotNull Request request) {
+        try {
+            executor.execute(() -> {
+                try {
+                    key.switchCaseExtender().patch(key.classLoader(), request.extendParents);
+                    request.future.complete(null);
+                } catch (Throwable t) {
+                    request.future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            request.future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Executes all pending requests immediately and stops the scheduler, so new requests are rejected
+     */
+    @Override
+    public void close() {
+        List<Map.Entry<Key, Request>> requests;
+        synchronized (pending) {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            requests = new ArrayList<>(pending.entrySet());
+            pending.clear();
+        }
+
+        timer.shutdownNow();
+        for (Map.Entry<Key, Request> entry : requests) {
+            execute(entry.getKey(), entry.getValue());
+        }
+
+        executor.shutdown();
+    }
+
+    private record Key(@NotNull EnumSwitchCaseExtender<?> switchCaseExtender, @NotNull ClassLoader classLoader) {
+
+    }
+
+    private static final class Request {
+
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private final long firstNanos;
+        private ScheduledFuture<?> task;
+        private int generation;
+        private boolean extendParents;
+
+        private Request(long firstNanos) {
+            this.firstNanos = firstNanos;
+        }
+
+    }
+}
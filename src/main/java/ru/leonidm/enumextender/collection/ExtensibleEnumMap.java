@@ -0,0 +1,299 @@
+package ru.leonidm.enumextender.collection;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.leonidm.enumextender.api.EnumExtender;
+import ru.leonidm.enumextender.util.EnumMetadata;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Array map with enumeration keys, like {@link java.util.EnumMap}, but it follows extensions and removals made
+ * by {@link EnumExtender}. Array of values is remapped lazily on the first access after values were published.
+ * This map is not thread-safe, but it can be safely used while the enumeration is extended by another thread.
+ *
+ * @param <K> enum type
+ * @param <V> value type
+ * @author LeonidM
+ */
+public final class ExtensibleEnumMap<K extends Enum<K>, V> extends AbstractMap<K, V> {
+
+    private static final Object NULL = new Object();
+
+    private final Class<K> enumClass;
+    private final EnumMetadata<K> enumMetadata;
+    private K[] universe;
+    private long stamp;
+    private Object[] values;
+    private int size;
+    private int modCount;
+    private EntrySet entrySet;
+
+    private ExtensibleEnumMap(@NotNull EnumExtender<K> enumExtender) {
+        enumClass = enumExtender.getEnumClass();
+        enumMetadata = enumExtender.getEnumMetadata();
+
+        K[] universe;
+        long stamp;
+        do {
+            stamp = enumMetadata.readStamp();
+            universe = enumMetadata.getValues();
+        } while (!enumMetadata.validate(stamp));
+
+        this.universe = universe;
+        this.stamp = stamp;
+        values = new Object[universe.length];
+    }
+
+    @NotNull
+    @Contract("_ -> new")
+    public static <K extends Enum<K>, V> ExtensibleEnumMap<K, V> create(@NotNull EnumExtender<K> enumExtender) {
+        return new ExtensibleEnumMap<>(enumExtender);
+    }
+
+    @NotNull
+    @Contract("_, _ -> new")
+    public static <K extends Enum<K>, V> ExtensibleEnumMap<K, V> copyOf(@NotNull EnumExtender<K> enumExtender,
+                                                                       @NotNull Map<K, ? extends V> map) {
+        ExtensibleEnumMap<K, V> enumMap = new ExtensibleEnumMap<>(enumExtender);
+        enumMap.putAll(map);
+        return enumMap;
+    }
+
+    /**
+     * Remaps array of values if some values of the enumeration were published since the last access
+     */
+    private void ensureUniverse() {
+        if (enumMetadata.readStamp() == stamp) {
+            return;
+        }
+
+        K[] newUniverse;
+        Object[] newValues;
+        int newSize;
+        long newStamp;
+        do {
+            newStamp = enumMetadata.readStamp();
+            newUniverse = enumMetadata.getValues();
+            newValues = new Object[newUniverse.length];
+            newSize = 0;
+
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                if (value == null) {
+                    continue;
+                }
+
+                // Removed enumerations keep their old ordinals, so they must be checked by identity
+                K key = universe[i];
+                int ordinal = key.ordinal();
+                if (ordinal < newUniverse.length && newUniverse[ordinal] == key) {
+                    newValues[ordinal] = value;
+                    newSize++;
+                }
+            }
+        } while (!enumMetadata.validate(newStamp));
+
+        universe = newUniverse;
+        stamp = newStamp;
+        values = newValues;
+        size = newSize;
+    }
+
+    /**
+     * Remaps array of values if needed and returns ordinal of the provided object if it is the current enumeration
+     * of this map, otherwise -1. Ordinals are rewritten while values are being published, so ordinal is read
+     * under the same stamp as the universe
+     */
+    private int ordinalOf(Object o) {
+        if (!enumClass.isInstance(o)) {
+            return -1;
+        }
+
+        while (true) {
+            ensureUniverse();
+            int ordinal = ((Enum<?>) o).ordinal();
+            if (enumMetadata.validate(stamp)) {
+                return ordinal < universe.length && universe[ordinal] == o ? ordinal : -1;
+            }
+        }
+    }
+
+    private static Object mask(Object value) {
+        return value == null ? NULL : value;
+    }
+
+    private static <V> V unmask(Object value) {
+        return value == NULL ? null : (V) value;
+    }
+
+    @Override
+    public int size() {
+        ensureUniverse();
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        int ordinal = ordinalOf(key);
+        return ordinal >= 0 && values[ordinal] != null;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        ensureUniverse();
+        Object masked = mask(value);
+        for (Object o : values) {
+            if (masked.equals(o)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    @Nullable
+    public V get(Object key) {
+        int ordinal = ordinalOf(key);
+        return ordinal >= 0 ? unmask(values[ordinal]) : null;
+    }
+
+    /**
+     * @throws IllegalArgumentException if enumeration was removed
+     */
+    @Override
+    @Nullable
+    public V put(@NotNull K key, V value) {
+        int ordinal = ordinalOf(key);
+        if (ordinal < 0) {
+            throw new IllegalArgumentException("Enum '" + key.name() + "' was removed from " + enumClass);
+        }
+
+        Object oldValue = values[ordinal];
+        values[ordinal] = mask(value);
+        if (oldValue == null) {
+            size++;
+            modCount++;
+        }
+
+        return unmask(oldValue);
+    }
+
+    @Override
+    @Nullable
+    public V remove(Object key) {
+        int ordinal = ordinalOf(key);
+        if (ordinal < 0) {
+            return null;
+        }
+
+        Object oldValue = values[ordinal];
+        if (oldValue != null) {
+            values[ordinal] = null;
+            size--;
+            modCount++;
+        }
+
+        return unmask(oldValue);
+    }
+
+    @Override
+    public void clear() {
+        ensureUniverse();
+        Arrays.fill(values, null);
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    @NotNull
+    public Set<Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+
+        return entrySet;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        @NotNull
+        public Iterator<Entry<K, V>> iterator() {
+            ensureUniverse();
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return ExtensibleEnumMap.this.size();
+        }
+    }
+
+    /**
+     * Iterator over the array of values that was current when iterator was created, so remapping of the map
+     * does not break iteration
+     */
+    private final class EntryIterator implements Iterator<Entry<K, V>> {
+
+        private final K[] universe = ExtensibleEnumMap.this.universe;
+        private final Object[] values = ExtensibleEnumMap.this.values;
+        private int expectedModCount = modCount;
+        private int index;
+        private int last = -1;
+
+        @Override
+        public boolean hasNext() {
+            checkModCount();
+            while (index < values.length && values[index] == null) {
+                index++;
+            }
+
+            return index < values.length;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            last = index++;
+            K key = universe[last];
+            return new SimpleEntry<>(key, unmask(values[last])) {
+                @Override
+                public V setValue(V value) {
+                    super.setValue(value);
+                    return put(key, value);
+                }
+            };
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+
+            checkModCount();
+            ExtensibleEnumMap.this.remove(universe[last]);
+            expectedModCount = modCount;
+            last = -1;
+        }
+
+        private void checkModCount() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
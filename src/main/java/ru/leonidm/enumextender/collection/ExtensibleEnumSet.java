@@ -0,0 +1,261 @@
+package ru.leonidm.enumextender.collection;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import ru.leonidm.enumextender.api.EnumExtender;
+import ru.leonidm.enumextender.util.EnumMetadata;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Bit vector set of the enumerations, like {@link java.util.EnumSet}, but it follows extensions and removals made
+ * by {@link EnumExtender}. Bit vector is remapped lazily on the first access after values were published.
+ * This set is not thread-safe, but it can be safely used while the enumeration is extended by another thread.
+ *
+ * @param <E> enum type
+ * @author LeonidM
+ */
+public final class ExtensibleEnumSet<E extends Enum<E>> extends AbstractSet<E> {
+
+    private final Class<E> enumClass;
+    private final EnumMetadata<E> enumMetadata;
+    private E[] universe;
+    private long stamp;
+    private long[] words;
+    private int size;
+    private int modCount;
+
+    private ExtensibleEnumSet(@NotNull EnumExtender<E> enumExtender) {
+        enumClass = enumExtender.getEnumClass();
+        enumMetadata = enumExtender.getEnumMetadata();
+
+        E[] universe;
+        long stamp;
+        do {
+            stamp = enumMetadata.readStamp();
+            universe = enumMetadata.getValues();
+        } while (!enumMetadata.validate(stamp));
+
+        this.universe = universe;
+        this.stamp = stamp;
+        words = new long[wordsLength(universe.length)];
+    }
+
+    @NotNull
+    @Contract("_ -> new")
+    public static <E extends Enum<E>> ExtensibleEnumSet<E> noneOf(@NotNull EnumExtender<E> enumExtender) {
+        return new ExtensibleEnumSet<>(enumExtender);
+    }
+
+    @NotNull
+    @Contract("_ -> new")
+    public static <E extends Enum<E>> ExtensibleEnumSet<E> allOf(@NotNull EnumExtender<E> enumExtender) {
+        ExtensibleEnumSet<E> set = new ExtensibleEnumSet<>(enumExtender);
+        int length = set.universe.length;
+        for (int i = 0; i < length; i++) {
+            set.words[i >>> 6] |= 1L << i;
+        }
+
+        set.size = length;
+        return set;
+    }
+
+    @NotNull
+    @Contract("_, _ -> new")
+    public static <E extends Enum<E>> ExtensibleEnumSet<E> copyOf(@NotNull EnumExtender<E> enumExtender,
+                                                                 @NotNull Collection<E> collection) {
+        ExtensibleEnumSet<E> set = new ExtensibleEnumSet<>(enumExtender);
+        set.addAll(collection);
+        return set;
+    }
+
+    private static int wordsLength(int length) {
+        return (length + 63) >>> 6;
+    }
+
+    /**
+     * Remaps bit vector if some values were published since the last access
+     */
+    private void ensureUniverse() {
+        if (enumMetadata.readStamp() == stamp) {
+            return;
+        }
+
+        E[] newUniverse;
+        long[] newWords;
+        int newSize;
+        long newStamp;
+        do {
+            newStamp = enumMetadata.readStamp();
+            newUniverse = enumMetadata.getValues();
+            newWords = new long[wordsLength(newUniverse.length)];
+            newSize = 0;
+
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    int index = (i << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+
+                    // Removed enumerations keep their old ordinals, so they must be checked by identity
+                    E e = universe[index];
+                    int ordinal = e.ordinal();
+                    if (ordinal < newUniverse.length && newUniverse[ordinal] == e) {
+                        newWords[ordinal >>> 6] |= 1L << ordinal;
+                        newSize++;
+                    }
+                }
+            }
+        } while (!enumMetadata.validate(newStamp));
+
+        universe = newUniverse;
+        stamp = newStamp;
+        words = newWords;
+        size = newSize;
+    }
+
+    /**
+     * Remaps bit vector if needed and returns ordinal of the provided object if it is the current enumeration
+     * of this set, otherwise -1. Ordinals are rewritten while values are being published, so ordinal is read
+     * under the same stamp as the universe
+     */
+    private int ordinalOf(Object o) {
+        if (!enumClass.isInstance(o)) {
+            return -1;
+        }
+
+        while (true) {
+            ensureUniverse();
+            int ordinal = ((Enum<?>) o).ordinal();
+            if (enumMetadata.validate(stamp)) {
+                return ordinal < universe.length && universe[ordinal] == o ? ordinal : -1;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        ensureUniverse();
+        return size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        int ordinal = ordinalOf(o);
+        return ordinal >= 0 && (words[ordinal >>> 6] & (1L << ordinal)) != 0;
+    }
+
+    /**
+     * @throws IllegalArgumentException if enumeration was removed
+     */
+    @Override
+    public boolean add(@NotNull E e) {
+        int ordinal = ordinalOf(e);
+        if (ordinal < 0) {
+            throw new IllegalArgumentException("Enum '" + e.name() + "' was removed from " + enumClass);
+        }
+
+        long oldWord = words[ordinal >>> 6];
+        long newWord = oldWord | (1L << ordinal);
+        if (oldWord == newWord) {
+            return false;
+        }
+
+        words[ordinal >>> 6] = newWord;
+        size++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int ordinal = ordinalOf(o);
+        if (ordinal < 0) {
+            return false;
+        }
+
+        long oldWord = words[ordinal >>> 6];
+        long newWord = oldWord & ~(1L << ordinal);
+        if (oldWord == newWord) {
+            return false;
+        }
+
+        words[ordinal >>> 6] = newWord;
+        size--;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        ensureUniverse();
+        Arrays.fill(words, 0);
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    @NotNull
+    public Iterator<E> iterator() {
+        ensureUniverse();
+        return new SetIterator();
+    }
+
+    /**
+     * Iterator over the bit vector that was current when iterator was created, so remapping of the set
+     * does not break iteration
+     */
+    private final class SetIterator implements Iterator<E> {
+
+        private final E[] universe = ExtensibleEnumSet.this.universe;
+        private final long[] words = ExtensibleEnumSet.this.words;
+        private int expectedModCount = modCount;
+        private int wordIndex;
+        private long word = words.length > 0 ? words[0] : 0;
+        private int last = -1;
+
+        @Override
+        public boolean hasNext() {
+            checkModCount();
+            while (word == 0 && wordIndex < words.length - 1) {
+                word = words[++wordIndex];
+            }
+
+            return word != 0;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            last = (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+            word &= word - 1;
+            return universe[last];
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+
+            checkModCount();
+            ExtensibleEnumSet.this.remove(universe[last]);
+            expectedModCount = modCount;
+            last = -1;
+        }
+
+        private void checkModCount() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ru.leonidm.enumextender.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of the extension of the enumeration, that spans the whole extension
+ * including creation of the constants and publication of the new values
+ *
+ * @author LeonidM
+ */
+@Name("ru.leonidm.enumextender.EnumExtended")
+@Label("Enum Extended")
+@Category("Enum Extender")
+@Description("New constants were added to the enumeration")
+public final class EnumExtendedEvent extends Event {
+
+    @Label("Enum Class")
+    public Class<?> enumClass;
+
+    @Label("Constant Name")
+    @Description("Names of all created constants separated by comma")
+    public String constantName;
+
+    @Label("Ordinal")
+    @Description("Ordinal of the first created constant")
+    public int ordinal;
+
+    @Label("Constants")
+    public int constants;
+
+    @Label("Values Length")
+    @Description("Amount of the values after the extension")
+    public int valuesLength;
+
+    @Label("Class Loader")
+    public String classLoader;
+
+}
@@ -0,0 +1,44 @@
+package ru.leonidm.enumextender.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of the patch of one switch-case synthetic class
+ *
+ * @author LeonidM
+ */
+@Name("ru.leonidm.enumextender.SwitchMapPatched")
+@Label("Switch Map Patched")
+@Category("Enum Extender")
+@Description("New patchers were applied to the switch map of the switch-case synthetic class")
+public final class SwitchMapPatchedEvent extends Event {
+
+    @Label("Enum Class")
+    public Class<?> enumClass;
+
+    @Label("Holder")
+    @Description("Switch-case synthetic class")
+    public Class<?> holder;
+
+    @Label("Patchers")
+    @Description("Amount of applied patchers")
+    public int patchers;
+
+    @Label("Old Length")
+    public int oldLength;
+
+    @Label("New Length")
+    public int newLength;
+
+    @Label("Array Length")
+    @Description("Length of the array, that can be bigger than amount of values")
+    public int arrayLength;
+
+    @Label("Class Loader")
+    public String classLoader;
+
+}
@@ -0,0 +1,32 @@
+package ru.leonidm.enumextender.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of the scan of the loaded classes in search of the switch-case synthetic classes
+ *
+ * @author LeonidM
+ */
+@Name("ru.leonidm.enumextender.SwitchMapScan")
+@Label("Switch Map Scan")
+@Category("Enum Extender")
+@Description("Loaded classes were scanned in search of the switch-case synthetic classes")
+public final class SwitchMapScanEvent extends Event {
+
+    @Label("Class Loader")
+    public String classLoader;
+
+    @Label("With Parents")
+    public boolean withParents;
+
+    @Label("Scanned Classes")
+    public int scannedClasses;
+
+    @Label("Parallel")
+    public boolean parallel;
+
+}
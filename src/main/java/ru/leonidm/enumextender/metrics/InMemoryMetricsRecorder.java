@@ -0,0 +1,105 @@
+package ru.leonidm.enumextender.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recorder that sums all metrics in memory, so they can be exported periodically with {@link #snapshot()}
+ *
+ * @author LeonidM
+ */
+public final class InMemoryMetricsRecorder implements MetricsRecorder {
+
+    private final LongAdder extensions = new LongAdder();
+    private final LongAdder extendedConstants = new LongAdder();
+    private final LongAdder extensionNanos = new LongAdder();
+    private final LongAdder removals = new LongAdder();
+    private final LongAdder removedConstants = new LongAdder();
+    private final LongAdder removalNanos = new LongAdder();
+    private final LongAdder patches = new LongAdder();
+    private final LongAdder inspectedClasses = new LongAdder();
+    private final LongAdder matchedHolders = new LongAdder();
+    private final LongAdder rewrittenArrays = new LongAdder();
+    private final LongAdder patchNanos = new LongAdder();
+    private final LongAdder classLoaderLocks = new LongAdder();
+    private final LongAdder lockedClasses = new LongAdder();
+    private final LongAdder classLoaderLockNanos = new LongAdder();
+    private final LongAccumulator maxClassLoaderLockNanos = new LongAccumulator(Math::max, 0);
+
+    @Override
+    public void onExtension(@NotNull Class<?> enumClass, int constants, long nanos) {
+        extensions.increment();
+        extendedConstants.add(constants);
+        extensionNanos.add(nanos);
+    }
+
+    @Override
+    public void onRemoval(@NotNull Class<?> enumClass, int constants, long nanos) {
+        removals.increment();
+        removedConstants.add(constants);
+        removalNanos.add(nanos);
+    }
+
+    @Override
+    public void onPatch(@NotNull Class<?> enumClass, int inspectedClasses, int matchedHolders, int rewrittenArrays,
+                        long nanos) {
+        patches.increment();
+        this.inspectedClasses.add(inspectedClasses);
+        this.matchedHolders.add(matchedHolders);
+        this.rewrittenArrays.add(rewrittenArrays);
+        patchNanos.add(nanos);
+    }
+
+    @Override
+    public void onClassLoaderLock(@NotNull ClassLoader classLoader, int classes, long nanos) {
+        classLoaderLocks.increment();
+        lockedClasses.add(classes);
+        classLoaderLockNanos.add(nanos);
+        maxClassLoaderLockNanos.accumulate(nanos);
+    }
+
+    /**
+     * Returns current values of all metrics. Metrics reported concurrently with this call may be
+     * included only partially
+     */
+    @NotNull
+    public Snapshot snapshot() {
+        return new Snapshot(
+                extensions.sum(), extendedConstants.sum(), extensionNanos.sum(),
+                removals.sum(), removedConstants.sum(), removalNanos.sum(),
+                patches.sum(), inspectedClasses.sum(), matchedHolders.sum(), rewrittenArrays.sum(), patchNanos.sum(),
+                classLoaderLocks.sum(), lockedClasses.sum(), classLoaderLockNanos.sum(), maxClassLoaderLockNanos.get()
+        );
+    }
+
+    /**
+     * Resets all metrics to zero
+     */
+    public void reset() {
+        extensions.reset();
+        extendedConstants.reset();
+        extensionNanos.reset();
+        removals.reset();
+        removedConstants.reset();
+        removalNanos.reset();
+        patches.reset();
+        inspectedClasses.reset();
+        matchedHolders.reset();
+        rewrittenArrays.reset();
+        patchNanos.reset();
+        classLoaderLocks.reset();
+        lockedClasses.reset();
+        classLoaderLockNanos.reset();
+        maxClassLoaderLockNanos.reset();
+    }
+
+    public record Snapshot(long extensions, long extendedConstants, long extensionNanos,
+                           long removals, long removedConstants, long removalNanos,
+                           long patches, long inspectedClasses, long matchedHolders, long rewrittenArrays,
+                           long patchNanos,
+                           long classLoaderLocks, long lockedClasses, long classLoaderLockNanos, long maxClassLoaderLockNanos) {
+
+    }
+}
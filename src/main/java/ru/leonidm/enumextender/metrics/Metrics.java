@@ -0,0 +1,32 @@
+package ru.leonidm.enumextender.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Holder of the global {@link MetricsRecorder}, which is {@link MetricsRecorder#NOOP} by default
+ *
+ * @author LeonidM
+ */
+public final class Metrics {
+
+    private static volatile MetricsRecorder recorder = MetricsRecorder.NOOP;
+
+    private Metrics() {
+
+    }
+
+    @NotNull
+    public static MetricsRecorder getRecorder() {
+        return recorder;
+    }
+
+    /**
+     * Sets recorder that receives all metrics of the library
+     *
+     * @param recorder recorder or null to disable metrics
+     */
+    public static void setRecorder(@Nullable MetricsRecorder recorder) {
+        Metrics.recorder = recorder != null ? recorder : MetricsRecorder.NOOP;
+    }
+}
@@ -0,0 +1,77 @@
+package ru.leonidm.enumextender.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receiver of the metrics reported by the library. All methods do nothing by default, so implementation
+ * can override only needed ones. Methods can be called from any thread, also concurrently.
+ *
+ * @author LeonidM
+ * @see Metrics#setRecorder(MetricsRecorder)
+ */
+public interface MetricsRecorder {
+
+    /**
+     * Recorder that ignores everything, library does not even measure time if it is set
+     */
+    MetricsRecorder NOOP = new MetricsRecorder() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    };
+
+    /**
+     * Returns false if nothing must be measured and reported
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Called after enumeration was extended successfully
+     *
+     * @param enumClass enumeration class
+     * @param constants amount of created constants
+     * @param nanos     duration of the extension
+     */
+    default void onExtension(@NotNull Class<?> enumClass, int constants, long nanos) {
+
+    }
+
+    /**
+     * Called after constants were removed from the enumeration successfully
+     *
+     * @param enumClass enumeration class
+     * @param constants amount of removed constants
+     * @param nanos     duration of the removal
+     */
+    default void onRemoval(@NotNull Class<?> enumClass, int constants, long nanos) {
+
+    }
+
+    /**
+     * Called after switch-case synthetic classes of the enumeration were patched
+     *
+     * @param enumClass        enumeration class
+     * @param inspectedClasses amount of loaded classes that were inspected
+     * @param matchedHolders   amount of switch-case synthetic classes of the enumeration
+     * @param rewrittenArrays  amount of switch-case arrays that were changed
+     * @param nanos            duration of the patch
+     */
+    default void onPatch(@NotNull Class<?> enumClass, int inspectedClasses, int matchedHolders, int rewrittenArrays,
+                         long nanos) {
+
+    }
+
+    /**
+     * Called after list of the loaded classes of the class loader was locked and read
+     *
+     * @param classLoader class loader whose classes were read
+     * @param classes     amount of classes that were read
+     * @param nanos       duration while the lock was held
+     */
+    default void onClassLoaderLock(@NotNull ClassLoader classLoader, int classes, long nanos) {
+
+    }
+}
@@ -0,0 +1,492 @@
+package ru.leonidm.enumextender.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal mutable model of the class file, that is enough to find, rename and add members and constants
+ * without any external bytecode library. Bytes of unknown structures (like method code and attributes)
+ * are kept as is.
+ *
+ * @author LeonidM
+ */
+public final class ClassFile {
+
+    public static final int ACC_PUBLIC = 0x0001;
+    public static final int ACC_PRIVATE = 0x0002;
+    public static final int ACC_STATIC = 0x0008;
+    public static final int ACC_FINAL = 0x0010;
+    public static final int ACC_SUPER = 0x0020;
+    public static final int ACC_SYNTHETIC = 0x1000;
+    public static final int ACC_ENUM = 0x4000;
+
+    public static final int CONSTANT_UTF8 = 1;
+    public static final int CONSTANT_INTEGER = 3;
+    public static final int CONSTANT_FLOAT = 4;
+    public static final int CONSTANT_LONG = 5;
+    public static final int CONSTANT_DOUBLE = 6;
+    public static final int CONSTANT_CLASS = 7;
+    public static final int CONSTANT_STRING = 8;
+    public static final int CONSTANT_FIELDREF = 9;
+    public static final int CONSTANT_METHODREF = 10;
+    public static final int CONSTANT_INTERFACE_METHODREF = 11;
+    public static final int CONSTANT_NAME_AND_TYPE = 12;
+    public static final int CONSTANT_METHOD_HANDLE = 15;
+    public static final int CONSTANT_METHOD_TYPE = 16;
+    public static final int CONSTANT_DYNAMIC = 17;
+    public static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    public static final int CONSTANT_MODULE = 19;
+    public static final int CONSTANT_PACKAGE = 20;
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private final List<Constant> constants = new ArrayList<>();
+    private final Map<Constant, Integer> constantIndices = new HashMap<>();
+    private final List<Member> fields = new ArrayList<>();
+    private final List<Member> methods = new ArrayList<>();
+    private final List<Attribute> attributes = new ArrayList<>();
+    private int minorVersion;
+    private int majorVersion;
+    private int accessFlags;
+    private int thisClass;
+    private int superClass;
+    private int[] interfaces;
+
+    private ClassFile() {
+        constants.add(null);
+    }
+
+    /**
+     * Creates empty class file with provided name and super class
+     *
+     * @param majorVersion major version of the class file
+     * @param accessFlags  access flags of the class
+     * @param name         internal name of the class
+     * @param superName    internal name of the super class
+     */
+    public ClassFile(int majorVersion, int accessFlags, @NotNull String name, @NotNull String superName) {
+        this();
+        this.majorVersion = majorVersion;
+        this.accessFlags = accessFlags;
+        thisClass = classConstant(name);
+        superClass = classConstant(superName);
+        interfaces = new int[0];
+    }
+
+    /**
+     * Parses provided bytes of the class file
+     *
+     * @param bytes bytes of the class file
+     * @return parsed class file
+     * @throws IllegalArgumentException if provided bytes are not a valid class file
+     */
+    @NotNull
+    public static ClassFile parse(byte @NotNull [] bytes) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            if (in.readInt() != MAGIC) {
+                throw new IllegalArgumentException("Provided bytes are not a class file");
+            }
+
+            ClassFile classFile = new ClassFile();
+            classFile.minorVersion = in.readUnsignedShort();
+            classFile.majorVersion = in.readUnsignedShort();
+
+            int constantCount = in.readUnsignedShort();
+            for (int i = 1; i < constantCount; i++) {
+                Constant constant = readConstant(in);
+                classFile.addConstant(constant);
+                if (constant.tag() == CONSTANT_LONG || constant.tag() == CONSTANT_DOUBLE) {
+                    classFile.constants.add(null);
+                    i++;
+                }
+            }
+
+            classFile.accessFlags = in.readUnsignedShort();
+            classFile.thisClass = in.readUnsignedShort();
+            classFile.superClass = in.readUnsignedShort();
+
+            classFile.interfaces = new int[in.readUnsignedShort()];
+            for (int i = 0; i < classFile.interfaces.length; i++) {
+                classFile.interfaces[i] = in.readUnsignedShort();
+            }
+
+            readMembers(in, classFile.fields);
+            readMembers(in, classFile.methods);
+            readAttributes(in, classFile.attributes);
+            return classFile;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Provided bytes are not a valid class file", e);
+        }
+    }
+
+    @NotNull
+    private static Constant readConstant(@NotNull DataInputStream in) throws IOException {
+        int tag = in.readUnsignedByte();
+        if (tag == CONSTANT_UTF8) {
+            return new Constant(tag, null, in.readUTF());
+        }
+
+        int length = switch (tag) {
+            case CONSTANT_CLASS, CONSTANT_STRING, CONSTANT_METHOD_TYPE, CONSTANT_MODULE, CONSTANT_PACKAGE -> 2;
+            case CONSTANT_METHOD_HANDLE -> 3;
+            case CONSTANT_INTEGER, CONSTANT_FLOAT, CONSTANT_FIELDREF, CONSTANT_METHODREF,
+                    CONSTANT_INTERFACE_METHODREF, CONSTANT_NAME_AND_TYPE, CONSTANT_DYNAMIC,
+                    CONSTANT_INVOKE_DYNAMIC -> 4;
+            case CONSTANT_LONG, CONSTANT_DOUBLE -> 8;
+            default -> throw new IOException("Unknown constant tag " + tag);
+        };
+
+        byte[] data = new byte[length];
+        in.readFully(data);
+        return new Constant(tag, data, null);
+    }
+
+    private static void readMembers(@NotNull DataInputStream in, @NotNull List<Member> members) throws IOException {
+        int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            Member member = new Member(in.readUnsignedShort(), in.readUnsignedShort(), in.readUnsignedShort());
+            readAttributes(in, member.getAttributes());
+            members.add(member);
+        }
+    }
+
+    private static void readAttributes(@NotNull DataInputStream in, @NotNull List<Attribute> attributes) throws IOException {
+        int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            int nameIndex = in.readUnsignedShort();
+            byte[] data = new byte[in.readInt()];
+            in.readFully(data);
+            attributes.add(new Attribute(nameIndex, data));
+        }
+    }
+
+    /**
+     * Writes this class file to bytes
+     */
+    public byte @NotNull [] toByteArray() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeShort(minorVersion);
+            out.writeShort(majorVersion);
+
+            out.writeShort(constants.size());
+            for (Constant constant : constants) {
+                if (constant == null) {
+                    continue;
+                }
+
+                out.writeByte(constant.tag());
+                if (constant.tag() == CONSTANT_UTF8) {
+                    out.writeUTF(constant.utf8());
+                } else {
+                    out.write(constant.data());
+                }
+            }
+
+            out.writeShort(accessFlags);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+
+            out.writeShort(interfaces.length);
+            for (int anInterface : interfaces) {
+                out.writeShort(anInterface);
+            }
+
+            writeMembers(out, fields);
+            writeMembers(out, methods);
+            writeAttributes(out, attributes);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeMembers(@NotNull DataOutputStream out, @NotNull List<Member> members) throws IOException {
+        out.writeShort(members.size());
+        for (Member member : members) {
+            out.writeShort(member.getAccessFlags());
+            out.writeShort(member.getNameIndex());
+            out.writeShort(member.getDescriptorIndex());
+            writeAttributes(out, member.getAttributes());
+        }
+    }
+
+    private static void writeAttributes(@NotNull DataOutputStream out, @NotNull List<Attribute> attributes) throws IOException {
+        out.writeShort(attributes.size());
+        for (Attribute attribute : attributes) {
+            out.writeShort(attribute.nameIndex());
+            out.writeInt(attribute.data().length);
+            out.write(attribute.data());
+        }
+    }
+
+    private int addConstant(@NotNull Constant constant) {
+        int index = constants.size();
+        constants.add(constant);
+        constantIndices.putIfAbsent(constant, index);
+        return index;
+    }
+
+    private int constant(@NotNull Constant constant) {
+        Integer index = constantIndices.get(constant);
+        if (index != null) {
+            return index;
+        }
+
+        if (constants.size() >= 0xFFFF) {
+            throw new IllegalStateException("Constant pool of %s is too big".formatted(getName()));
+        }
+
+        return addConstant(constant);
+    }
+
+    private int constant(int tag, int... indices) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (int index : indices) {
+            bytes.write(index >>> 8);
+            bytes.write(index);
+        }
+
+        return constant(new Constant(tag, bytes.toByteArray(), null));
+    }
+
+    public int utf8(@NotNull String value) {
+        return constant(new Constant(CONSTANT_UTF8, null, value));
+    }
+
+    public int classConstant(@NotNull String internalName) {
+        return constant(CONSTANT_CLASS, utf8(internalName));
+    }
+
+    public int stringConstant(@NotNull String value) {
+        return constant(CONSTANT_STRING, utf8(value));
+    }
+
+    public int nameAndType(@NotNull String name, @NotNull String descriptor) {
+        return constant(CONSTANT_NAME_AND_TYPE, utf8(name), utf8(descriptor));
+    }
+
+    public int fieldref(@NotNull String owner, @NotNull String name, @NotNull String descriptor) {
+        return constant(CONSTANT_FIELDREF, classConstant(owner), nameAndType(name, descriptor));
+    }
+
+    public int methodref(@NotNull String owner, @NotNull String name, @NotNull String descriptor) {
+        return constant(CONSTANT_METHODREF, classConstant(owner), nameAndType(name, descriptor));
+    }
+
+    public int methodHandle(int referenceKind, int referenceIndex) {
+        return constant(new Constant(CONSTANT_METHOD_HANDLE, new byte[]{
+                (byte) referenceKind, (byte) (referenceIndex >>> 8), (byte) referenceIndex
+        }, null));
+    }
+
+    public int dynamic(int bootstrapMethodIndex, @NotNull String name, @NotNull String descriptor) {
+        return constant(CONSTANT_DYNAMIC, bootstrapMethodIndex, nameAndType(name, descriptor));
+    }
+
+    /**
+     * Returns value of the UTF-8 constant
+     *
+     * @throws IllegalArgumentException if there is no UTF-8 constant with such index
+     */
+    @NotNull
+    public String getUtf8(int index) {
+        Constant constant = index > 0 && index < constants.size() ? constants.get(index) : null;
+        if (constant == null || constant.tag() != CONSTANT_UTF8) {
+            throw new IllegalArgumentException("There is no UTF-8 constant at " + index);
+        }
+
+        return constant.utf8();
+    }
+
+    /**
+     * Returns internal name of the class constant
+     *
+     * @throws IllegalArgumentException if there is no class constant with such index
+     */
+    @NotNull
+    public String getClassName(int index) {
+        Constant constant = index > 0 && index < constants.size() ? constants.get(index) : null;
+        if (constant == null || constant.tag() != CONSTANT_CLASS) {
+            throw new IllegalArgumentException("There is no class constant at " + index);
+        }
+
+        return getUtf8(((constant.data()[0] & 0xFF) << 8) | (constant.data()[1] & 0xFF));
+    }
+
+    public int getMajorVersion() {
+        return majorVersion;
+    }
+
+    public int getAccessFlags() {
+        return accessFlags;
+    }
+
+    public void setAccessFlags(int accessFlags) {
+        this.accessFlags = accessFlags;
+    }
+
+    public int getThisClass() {
+        return thisClass;
+    }
+
+    /**
+     * Returns internal name of this class
+     */
+    @NotNull
+    public String getName() {
+        return getClassName(thisClass);
+    }
+
+    /**
+     * Returns internal name of the super class or null if this class is {@link Object}
+     */
+    @Nullable
+    public String getSuperName() {
+        return superClass == 0 ? null : getClassName(superClass);
+    }
+
+    @NotNull
+    public List<Member> getFields() {
+        return fields;
+    }
+
+    @NotNull
+    public List<Member> getMethods() {
+        return methods;
+    }
+
+    @NotNull
+    public List<Attribute> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * Finds member with provided name and descriptor
+     *
+     * @param members    fields or methods of this class file
+     * @param name       name of the member
+     * @param descriptor descriptor of the member or null if any descriptor is suitable
+     * @return member or null if it was not found
+     */
+    @Nullable
+    public Member findMember(@NotNull List<Member> members, @NotNull String name, @Nullable String descriptor) {
+        for (Member member : members) {
+            if (getUtf8(member.getNameIndex()).equals(name)
+                && (descriptor == null || getUtf8(member.getDescriptorIndex()).equals(descriptor))) {
+                return member;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Creates code attribute of the method without exception table, stack map frames and other attributes,
+     * so provided code must not contain any branching
+     *
+     * @param maxStack  maximal depth of the operand stack
+     * @param maxLocals number of local variables including arguments
+     * @param code      bytecode of the method
+     * @return code attribute
+     */
+    @NotNull
+    public Attribute codeAttribute(int maxStack, int maxLocals, byte @NotNull [] code) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeShort(maxStack);
+            out.writeShort(maxLocals);
+            out.writeInt(code.length);
+            out.write(code);
+            out.writeShort(0);
+            out.writeShort(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return new Attribute(utf8("Code"), bytes.toByteArray());
+    }
+
+    private record Constant(int tag, byte @Nullable [] data, @Nullable String utf8) {
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Constant constant) || tag != constant.tag) {
+                return false;
+            }
+
+            return tag == CONSTANT_UTF8 ? utf8.equals(constant.utf8) : Arrays.equals(data, constant.data);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * tag + (tag == CONSTANT_UTF8 ? utf8.hashCode() : Arrays.hashCode(data));
+        }
+    }
+
+    public static final class Member {
+
+        private final List<Attribute> attributes = new ArrayList<>();
+        private int accessFlags;
+        private int nameIndex;
+        private int descriptorIndex;
+
+        public Member(int accessFlags, int nameIndex, int descriptorIndex) {
+            this.accessFlags = accessFlags;
+            this.nameIndex = nameIndex;
+            this.descriptorIndex = descriptorIndex;
+        }
+
+        public int getAccessFlags() {
+            return accessFlags;
+        }
+
+        public void setAccessFlags(int accessFlags) {
+            this.accessFlags = accessFlags;
+        }
+
+        public int getNameIndex() {
+            return nameIndex;
+        }
+
+        public void setNameIndex(int nameIndex) {
+            this.nameIndex = nameIndex;
+        }
+
+        public int getDescriptorIndex() {
+            return descriptorIndex;
+        }
+
+        public void setDescriptorIndex(int descriptorIndex) {
+            this.descriptorIndex = descriptorIndex;
+        }
+
+        @NotNull
+        public List<Attribute> getAttributes() {
+            return attributes;
+        }
+    }
+
+    public record Attribute(int nameIndex, byte @NotNull [] data) {
+
+    }
+}
@@ -1,7 +1,13 @@
 package ru.leonidm.enumextender.util;
 
+import lombok.SneakyThrows;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.leonidm.enumextender.metrics.Metrics;
+import ru.leonidm.enumextender.metrics.MetricsRecorder;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.Collections;
@@ -13,36 +19,28 @@ import java.util.function.Consumer;
  */
 public final class ClassLoaderUtils {
 
-    private static Field classesField;
-
     private ClassLoaderUtils() {
 
     }
 
     @NotNull
-    private static Field getClassesField() {
-        if (classesField == null) {
-            try {
-                Method getDeclaredFields0 = Class.class.getDeclaredMethod("getDeclaredFields0", boolean.class);
-                getDeclaredFields0.setAccessible(true);
-
-                Field[] declaredFields = (Field[]) getDeclaredFields0.invoke(ClassLoader.class, false);
+    private static Field findClassesField() {
+        try {
+            Method getDeclaredFields0 = Class.class.getDeclaredMethod("getDeclaredFields0", boolean.class);
+            getDeclaredFields0.setAccessible(true);
 
-                for (Field field : declaredFields) {
-                    if (field.getName().equals("classes")) {
-                        classesField = field;
-                    }
-                }
+            Field[] declaredFields = (Field[]) getDeclaredFields0.invoke(ClassLoader.class, false);
 
-                if (classesField == null) {
-                    throw new NoSuchFieldException("classes");
+            for (Field field : declaredFields) {
+                if (field.getName().equals("classes")) {
+                    return field;
                 }
-            } catch (Exception e) {
-                throw new IllegalStateException(e);
             }
-        }
 
-        return classesField;
+            throw new NoSuchFieldException("classes");
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     /**
@@ -54,10 +52,43 @@ public final class ClassLoaderUtils {
      * @throws IllegalStateException if JVM is somehow broken
      */
     public static void getClassesSynchronized(@NotNull ClassLoader classLoader, @NotNull Consumer<List<Class<?>>> consumer) {
-        List<Class<?>> classes = UnsafeUtils.getFieldSafely(classLoader, getClassesField());
+        getClassesSynchronized(classLoader, 0, consumer);
+    }
+
+    /**
+     * Gets classes loaded by the provided class loader starting from the provided index and sends them in
+     * the provided consumer. Classes are never removed from this list, so the returned size can be used
+     * as the index for the next call to get only newly loaded classes.
+     * This method provides multi-thread safety, because the JVM adds each loaded class in
+     * the list synchronizing with it.
+     *
+     * @param fromIndex index of the first class that must be sent to the consumer
+     * @param consumer  consumer of the loaded classes
+     * @return number of all classes loaded by the provided class loader
+     * @throws IllegalStateException if JVM is somehow broken
+     */
+    public static int getClassesSynchronized(@NotNull ClassLoader classLoader, int fromIndex,
+                                             @NotNull Consumer<List<Class<?>>> consumer) {
+        List<Class<?>> classes = ClassesAccessor.CLASSES.getObject(classLoader);
+        MetricsRecorder recorder = Metrics.getRecorder();
+        int size;
+        long start;
+        long end;
         synchronized (classes) {
-            consumer.accept(Collections.unmodifiableList(classes));
+            start = recorder.isEnabled() ? System.nanoTime() : 0;
+            size = classes.size();
+            if (fromIndex < size) {
+                consumer.accept(Collections.unmodifiableList(classes.subList(fromIndex, size)));
+            }
+
+            end = recorder.isEnabled() ? System.nanoTime() : 0;
         }
+
+        if (recorder.isEnabled()) {
+            recorder.onClassLoaderLock(classLoader, Math.max(size - fromIndex, 0), end - start);
+        }
+
+        return size;
     }
 
     /**
@@ -76,4 +107,45 @@ public final class ClassLoaderUtils {
             classLoader = classLoader.getParent();
         }
     }
+
+    /**
+     * Returns class with provided name if it was already loaded by the provided class loader, so the class
+     * is never loaded by this method
+     *
+     * @throws IllegalStateException if JVM is somehow broken
+     */
+    @Nullable
+    @SneakyThrows
+    public static Class<?> findLoadedClass(@NotNull ClassLoader classLoader, @NotNull String name) {
+        return (Class<?>) FindLoadedClassHandle.FIND_LOADED_CLASS.invokeExact(classLoader, name);
+    }
+
+    /**
+     * Holder of the handle, so {@code ClassLoader.findLoadedClass} is resolved only one time and only when it is used
+     */
+    private static final class FindLoadedClassHandle {
+
+        private static final MethodHandle FIND_LOADED_CLASS;
+
+        static {
+            try {
+                FIND_LOADED_CLASS = ReflectionUtils.getTrustedLookup().findVirtual(ClassLoader.class,
+                        "findLoadedClass", MethodType.methodType(Class.class, String.class));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+    }
+
+    /**
+     * Holder of the accessor, so {@code ClassLoader.classes} is resolved only one time and only when it is used
+     */
+    private static final class ClassesAccessor {
+
+        @SuppressWarnings("unchecked")
+        private static final FieldAccessor.OfObject<List<Class<?>>> CLASSES =
+                (FieldAccessor.OfObject<List<Class<?>>>) FieldAccessor.of(findClassesField());
+
+    }
 }
@@ -0,0 +1,333 @@
+package ru.leonidm.enumextender.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Factory of constant-specific bodies of enumerations, that are defined as hidden subclasses of the enumeration
+ * class. Each overridden method loads its implementation from the {@code static final} field and calls it with
+ * {@link MethodHandle#invokeExact(Object...)}, so JIT compiler treats implementation as a constant and can inline
+ * it like the body of the compiled constant. Each constructor of the enumeration is mirrored, so constants with
+ * bodies can also be created by constructors.
+ *
+ * @author LeonidM
+ */
+public final class EnumBodyFactory {
+
+    private static final int CLASS_FILE_VERSION = 61;
+    private static final String METHOD_HANDLE = "java/lang/invoke/MethodHandle";
+    private static final String METHOD_HANDLES = "java/lang/invoke/MethodHandles";
+    private static final String LOOKUP = "java/lang/invoke/MethodHandles$Lookup";
+
+    private static final int ALOAD_0 = 0x2A;
+    private static final int ASTORE_0 = 0x4B;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC_W = 0x13;
+    private static final int ILOAD = 0x15;
+    private static final int LLOAD = 0x16;
+    private static final int FLOAD = 0x17;
+    private static final int DLOAD = 0x18;
+    private static final int ALOAD = 0x19;
+    private static final int AALOAD = 0x32;
+    private static final int IRETURN = 0xAC;
+    private static final int LRETURN = 0xAD;
+    private static final int FRETURN = 0xAE;
+    private static final int DRETURN = 0xAF;
+    private static final int ARETURN = 0xB0;
+    private static final int RETURN = 0xB1;
+    private static final int GETSTATIC = 0xB2;
+    private static final int PUTSTATIC = 0xB3;
+    private static final int INVOKEVIRTUAL = 0xB6;
+    private static final int INVOKESPECIAL = 0xB7;
+    private static final int INVOKESTATIC = 0xB8;
+    private static final int CHECKCAST = 0xC0;
+    private static final int WIDE = 0xC4;
+
+    private EnumBodyFactory() {
+
+    }
+
+    /**
+     * Finds method of the enumeration class, that can be overridden by the constant-specific body, and adapts
+     * provided implementation to it
+     *
+     * @param enumClass      enumeration class
+     * @param methodName     name of the method
+     * @param implementation implementation, that accepts the constant as the first argument and then all arguments
+     *                       of the method
+     * @return method and adapted implementation, whose type exactly matches it
+     * @throws IllegalArgumentException if there is no such method or implementation is not compatible with it
+     */
+    @NotNull
+    public static Map.Entry<Method, MethodHandle> resolve(@NotNull Class<? extends Enum<?>> enumClass,
+                                                          @NotNull String methodName,
+                                                          @NotNull MethodHandle implementation) {
+        int parameterCount = implementation.type().parameterCount() - 1;
+        List<Method> candidates = new ArrayList<>();
+        // Public methods are returned by getMethods() already resolved to the most specific override, so methods
+        // of Object re-declared as final by Enum are skipped. Other methods can be overridden only if they are
+        // declared in the enumeration itself, because Enum has no such methods that are not final
+        for (Method method : enumClass.getMethods()) {
+            if (isOverridable(method, methodName, parameterCount)) {
+                candidates.add(method);
+            }
+        }
+
+        for (Method method : enumClass.getDeclaredMethods()) {
+            if (!Modifier.isPublic(method.getModifiers()) && !Modifier.isPrivate(method.getModifiers())
+                && isOverridable(method, methodName, parameterCount)) {
+                candidates.add(method);
+            }
+        }
+
+        if (candidates.isEmpty()) {
+            throw new IllegalArgumentException("There is no method '%s' with %s parameters in %s that can be overridden"
+                    .formatted(methodName, parameterCount, enumClass));
+        }
+
+        Method method = candidates.get(0);
+        MethodType type = MethodType.methodType(method.getReturnType(), method.getParameterTypes())
+                .insertParameterTypes(0, enumClass);
+        for (Method candidate : candidates) {
+            MethodType candidateType = MethodType.methodType(candidate.getReturnType(), candidate.getParameterTypes())
+                    .insertParameterTypes(0, enumClass);
+            if (!candidateType.equals(type)) {
+                throw new IllegalArgumentException("Method '%s' with %s parameters in %s is overloaded"
+                        .formatted(methodName, parameterCount, enumClass));
+            }
+        }
+
+        try {
+            return Map.entry(method, implementation.asType(type));
+        } catch (WrongMethodTypeException e) {
+            throw new IllegalArgumentException("Implementation of type %s cannot implement %s"
+                    .formatted(implementation.type(), method), e);
+        }
+    }
+
+    private static boolean isOverridable(@NotNull Method method, @NotNull String methodName, int parameterCount) {
+        int modifiers = method.getModifiers();
+        return method.getName().equals(methodName) && method.getParameterCount() == parameterCount
+               && !Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers)
+               && !method.isSynthetic() && !method.isBridge();
+    }
+
+    /**
+     * Defines hidden subclass of the enumeration class, that overrides provided methods
+     *
+     * @param enumClass enumeration class, that must not be final or sealed
+     * @param overrides methods and their implementations resolved by {@link #resolve(Class, String, MethodHandle)}
+     * @return hidden subclass of the enumeration class
+     * @throws IllegalStateException if enumeration class cannot be subclassed
+     */
+    @NotNull
+    public static <E extends Enum<E>> Class<? extends E> define(@NotNull Class<E> enumClass,
+                                                              @NotNull Map<Method, MethodHandle> overrides) {
+        if (Modifier.isFinal(enumClass.getModifiers())) {
+            throw new IllegalStateException("%s has no constant-specific bodies, so it is final"
+                    .formatted(enumClass));
+        }
+
+        if (enumClass.isSealed()) {
+            throw new IllegalStateException(("%s is sealed, so it must be loaded after EnumExtenderAgent is installed "
+                                             + "and asked to unseal it to add constant-specific bodies").formatted(enumClass));
+        }
+
+        String enumName = enumClass.getName().replace('.', '/');
+        ClassFile classFile = new ClassFile(CLASS_FILE_VERSION,
+                ClassFile.ACC_FINAL | ClassFile.ACC_SUPER | ClassFile.ACC_ENUM, enumName + "$Body", enumName);
+
+        MethodHandle[] implementations = new MethodHandle[overrides.size()];
+        int index = 0;
+        for (var entry : overrides.entrySet()) {
+            Method method = entry.getKey();
+            implementations[index] = entry.getValue();
+
+            String fieldName = "implementation" + index;
+            classFile.getFields().add(new ClassFile.Member(ClassFile.ACC_PRIVATE | ClassFile.ACC_STATIC
+                                                           | ClassFile.ACC_FINAL, classFile.utf8(fieldName),
+                    classFile.utf8("L" + METHOD_HANDLE + ";")));
+
+            addMethod(classFile, enumName, method, fieldName);
+            index++;
+        }
+
+        for (Constructor<?> constructor : enumClass.getDeclaredConstructors()) {
+            addConstructor(classFile, enumName, constructor.getParameterTypes());
+        }
+
+        addStaticInitializer(classFile, implementations.length);
+
+        try {
+            MethodHandles.Lookup lookup = ReflectionUtils.getTrustedLookup().in(enumClass);
+            return (Class<? extends E>) lookup.defineHiddenClassWithClassData(classFile.toByteArray(),
+                    implementations, true, MethodHandles.Lookup.ClassOption.NESTMATE).lookupClass();
+        } catch (IllegalAccessException | LinkageError e) {
+            throw new IllegalStateException("Could not define constant-specific body of %s".formatted(enumClass), e);
+        }
+    }
+
+    /**
+     * Adds static initializer, that copies implementations from the class data to the static final fields
+     */
+    private static void addStaticInitializer(@NotNull ClassFile classFile, int count) {
+        String thisName = classFile.getName();
+        Code code = new Code();
+        code.opcode(INVOKESTATIC).index(classFile.methodref(METHOD_HANDLES, "lookup", "()L" + LOOKUP + ";"));
+        code.opcode(LDC_W).index(classFile.stringConstant("_"));
+        code.opcode(LDC_W).index(classFile.classConstant("[L" + METHOD_HANDLE + ";"));
+        code.opcode(INVOKESTATIC).index(classFile.methodref(METHOD_HANDLES, "classData",
+                "(L" + LOOKUP + ";Ljava/lang/String;Ljava/lang/Class;)Ljava/lang/Object;"));
+        code.opcode(CHECKCAST).index(classFile.classConstant("[L" + METHOD_HANDLE + ";"));
+        code.opcode(ASTORE_0);
+
+        for (int i = 0; i < count; i++) {
+            code.opcode(ALOAD_0);
+            code.opcode(SIPUSH).index(i);
+            code.opcode(AALOAD);
+            code.opcode(PUTSTATIC).index(classFile.fieldref(thisName, "implementation" + i, "L" + METHOD_HANDLE + ";"));
+        }
+
+        code.opcode(RETURN);
+
+        ClassFile.Member clinit = new ClassFile.Member(ClassFile.ACC_STATIC, classFile.utf8("<clinit>"),
+                classFile.utf8("()V"));
+        clinit.getAttributes().add(classFile.codeAttribute(3, 1, code.toByteArray()));
+        classFile.getMethods().add(clinit);
+    }
+
+    /**
+     * Adds method, that calls implementation from the provided field with this and all its arguments
+     */
+    private static void addMethod(@NotNull ClassFile classFile, @NotNull String enumName, @NotNull Method method,
+                                  @NotNull String fieldName) {
+        MethodType methodType = MethodType.methodType(method.getReturnType(), method.getParameterTypes());
+        String descriptor = methodType.toMethodDescriptorString();
+
+        Code code = new Code();
+        code.opcode(GETSTATIC).index(classFile.fieldref(classFile.getName(), fieldName, "L" + METHOD_HANDLE + ";"));
+        code.opcode(ALOAD_0);
+        int slots = loadParameters(code, method.getParameterTypes());
+
+        String invokeDescriptor = methodType.insertParameterTypes(0, Object.class).toMethodDescriptorString()
+                .replaceFirst("Ljava/lang/Object;", "L" + enumName + ";");
+        code.opcode(INVOKEVIRTUAL).index(classFile.methodref(METHOD_HANDLE, "invokeExact", invokeDescriptor));
+        code.opcode(returnOpcode(method.getReturnType()));
+
+        int modifiers = method.getModifiers() & (Modifier.PUBLIC | Modifier.PROTECTED);
+        ClassFile.Member member = new ClassFile.Member(modifiers | ClassFile.ACC_FINAL, classFile.utf8(method.getName()),
+                classFile.utf8(descriptor));
+        member.getAttributes().add(classFile.codeAttribute(2 + slots, 1 + slots, code.toByteArray()));
+        classFile.getMethods().add(member);
+    }
+
+    /**
+     * Adds constructor, that calls constructor of the enumeration with the same parameters
+     */
+    private static void addConstructor(@NotNull ClassFile classFile, @NotNull String enumName,
+                                       @NotNull Class<?>[] parameterTypes) {
+        String descriptor = MethodType.methodType(void.class, parameterTypes).toMethodDescriptorString();
+
+        Code code = new Code();
+        code.opcode(ALOAD_0);
+        int slots = loadParameters(code, parameterTypes);
+        code.opcode(INVOKESPECIAL).index(classFile.methodref(enumName, "<init>", descriptor));
+        code.opcode(RETURN);
+
+        ClassFile.Member member = new ClassFile.Member(ClassFile.ACC_PRIVATE, classFile.utf8("<init>"),
+                classFile.utf8(descriptor));
+        member.getAttributes().add(classFile.codeAttribute(1 + slots, 1 + slots, code.toByteArray()));
+        classFile.getMethods().add(member);
+    }
+
+    /**
+     * Loads all parameters of the method onto the stack
+     *
+     * @return number of local variable slots taken by the parameters
+     */
+    private static int loadParameters(@NotNull Code code, @NotNull Class<?>[] parameterTypes) {
+        int slot = 1;
+        for (Class<?> parameterType : parameterTypes) {
+            int opcode;
+            if (parameterType == long.class) {
+                opcode = LLOAD;
+            } else if (parameterType == float.class) {
+                opcode = FLOAD;
+            } else if (parameterType == double.class) {
+                opcode = DLOAD;
+            } else if (parameterType.isPrimitive()) {
+                opcode = ILOAD;
+            } else {
+                opcode = ALOAD;
+            }
+
+            code.local(opcode, slot);
+            slot += parameterType == long.class || parameterType == double.class ? 2 : 1;
+        }
+
+        return slot - 1;
+    }
+
+    private static int returnOpcode(@NotNull Class<?> returnType) {
+        if (returnType == void.class) {
+            return RETURN;
+        } else if (returnType == long.class) {
+            return LRETURN;
+        } else if (returnType == float.class) {
+            return FRETURN;
+        } else if (returnType == double.class) {
+            return DRETURN;
+        } else if (returnType.isPrimitive()) {
+            return IRETURN;
+        } else {
+            return ARETURN;
+        }
+    }
+
+    /**
+     * Bytecode without branches
+     */
+    private static final class Code {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        @NotNull
+        private Code opcode(int opcode) {
+            bytes.write(opcode);
+            return this;
+        }
+
+        @NotNull
+        private Code local(int opcode, int slot) {
+            if (slot > 0xFF) {
+                return opcode(WIDE).opcode(opcode).index(slot);
+            }
+
+            bytes.write(opcode);
+            bytes.write(slot);
+            return this;
+        }
+
+        @NotNull
+        private Code index(int index) {
+            bytes.write(index >>> 8);
+            bytes.write(index);
+            return this;
+        }
+
+        private byte @NotNull [] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+}
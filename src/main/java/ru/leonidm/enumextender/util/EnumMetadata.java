@@ -0,0 +1,430 @@
+package ru.leonidm.enumextender.util;
+
+import lombok.SneakyThrows;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.UnmodifiableView;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable metadata of the enumeration class, that contains all fields and offsets needed to create
+ * new enumeration instances, resolved only one time, so creation of instance does not use reflection at all.
+ *
+ * @param <E> enum type
+ * @author LeonidM
+ */
+public final class EnumMetadata<E extends Enum<E>> {
+
+    private static final FieldAccessor.OfObject<String> NAME;
+    private static final FieldAccessor.OfInt ORDINAL;
+    private static final FieldAccessor.OfObject<Object[]> ENUM_CONSTANTS;
+    private static final FieldAccessor.OfObject<Map> ENUM_CONSTANT_DIRECTORY;
+
+    static {
+        try {
+            NAME = FieldAccessor.ofObject(Enum.class.getDeclaredField("name"), String.class);
+            ORDINAL = FieldAccessor.ofInt(Enum.class.getDeclaredField("ordinal"));
+            ENUM_CONSTANTS = FieldAccessor.ofObject(Class.class.getDeclaredField("enumConstants"), Object[].class);
+            ENUM_CONSTANT_DIRECTORY = FieldAccessor.ofObject(Class.class.getDeclaredField("enumConstantDirectory"),
+                    Map.class);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private final Class<E> enumClass;
+    private final FieldAccessor.OfObject<E[]> values;
+    private final Object valuesBase;
+    private final Map<String, FieldAccessor> fieldAccessors;
+    private final Map<Signature, MethodHandle> constructorsBySignature = new ConcurrentHashMap<>();
+    private volatile ConstructorHandle[] constructors;
+    private volatile long stamp;
+
+    private EnumMetadata(@NotNull Class<E> enumClass) {
+        this.enumClass = enumClass;
+
+        values = FieldAccessor.ofObject(ReflectionUtils.findValuesField(enumClass),
+                (Class<E[]>) enumClass.arrayType());
+        valuesBase = values.staticBase();
+
+        Map<String, FieldAccessor> fieldAccessors = new HashMap<>();
+        for (Field field : enumClass.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                fieldAccessors.put(field.getName(), FieldAccessor.of(field));
+            }
+        }
+
+        this.fieldAccessors = Collections.unmodifiableMap(fieldAccessors);
+    }
+
+    /**
+     * Resolves metadata of the provided enumeration class and initializes it if it has not yet been
+     *
+     * @param enumClass enumeration class
+     * @param <E>       enum type
+     * @return metadata of the enumeration class
+     * @throws IllegalStateException if class is not initialized or JVM is somehow broken
+     */
+    @NotNull
+    public static <E extends Enum<E>> EnumMetadata<E> of(@NotNull Class<E> enumClass) {
+        try {
+            Class.forName(enumClass.getName(), true, enumClass.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+
+        return new EnumMetadata<>(enumClass);
+    }
+
+    @NotNull
+    public Class<E> getEnumClass() {
+        return enumClass;
+    }
+
+    @NotNull
+    public Field getValuesField() {
+        return values.getField();
+    }
+
+    /**
+     * Returns current values array of the enumeration, that is not cloned
+     */
+    @NotNull
+    public E[] getValues() {
+        return values.getObject(valuesBase);
+    }
+
+    public void setValues(@NotNull E[] values) {
+        this.values.setObject(valuesBase, values);
+    }
+
+    /**
+     * Allocates new enumeration instance with provided name and ordinal without calling any constructor
+     */
+    @NotNull
+    public E allocate(@NotNull String name, int ordinal) {
+        return allocate(enumClass, name, ordinal);
+    }
+
+    /**
+     * Allocates new instance of the provided constant-specific body with provided name and ordinal without calling
+     * any constructor
+     *
+     * @param type enumeration class or its subclass
+     */
+    @NotNull
+    public E allocate(@NotNull Class<? extends E> type, @NotNull String name, int ordinal) {
+        E e = UnsafeUtils.allocateInstance(type);
+        NAME.setObject(e, name);
+        ORDINAL.setInt(e, ordinal);
+        return e;
+    }
+
+    /**
+     * Creates new enumeration instance with provided name and ordinal by calling its constructor with provided
+     * arguments. Constructors are resolved as method handles only one time, and the first constructor whose
+     * parameters accept provided arguments is called. Found constructor is cached by the classes of arguments,
+     * so it is searched only one time for each signature
+     *
+     * @param arguments arguments of the constructor without name and ordinal
+     * @throws IllegalArgumentException if there is no constructor that accepts provided arguments
+     */
+    @NotNull
+    public E construct(@NotNull String name, int ordinal, @Nullable Object @NotNull [] arguments) {
+        Signature signature = Signature.of(arguments);
+        MethodHandle constructor = constructorsBySignature.get(signature);
+        if (constructor == null) {
+            ConstructorHandle[] constructors = this.constructors;
+            if (constructors == null) {
+                this.constructors = constructors = resolveConstructors(enumClass);
+            }
+
+            constructor = findConstructor(constructors, arguments);
+            constructorsBySignature.putIfAbsent(signature, constructor);
+        }
+
+        return construct(constructor, name, ordinal, arguments);
+    }
+
+    /**
+     * Creates new instance of the provided constant-specific body with provided name and ordinal by calling its
+     * constructor with provided arguments. Unlike {@link #construct(String, int, Object[])}, constructors are
+     * not cached, because each body is created only one time
+     *
+     * @param type      enumeration class or its subclass
+     * @param arguments arguments of the constructor without name and ordinal
+     * @throws IllegalArgumentException if there is no constructor that accepts provided arguments
+     */
+    @NotNull
+    public E construct(@NotNull Class<? extends E> type, @NotNull String name, int ordinal,
+                       @Nullable Object @NotNull [] arguments) {
+        if (type == enumClass) {
+            return construct(name, ordinal, arguments);
+        }
+
+        return construct(findConstructor(resolveConstructors(type), arguments), name, ordinal, arguments);
+    }
+
+    @NotNull
+    @SneakyThrows
+    private E construct(@NotNull MethodHandle constructor, @NotNull String name, int ordinal,
+                        @Nullable Object @NotNull [] arguments) {
+        Object e = constructor.invokeExact(name, ordinal, arguments);
+        return (E) e;
+    }
+
+    @NotNull
+    private MethodHandle findConstructor(@NotNull ConstructorHandle @NotNull [] constructors,
+                                         @Nullable Object @NotNull [] arguments) {
+        for (ConstructorHandle constructor : constructors) {
+            if (constructor.accepts(arguments)) {
+                return constructor.handle();
+            }
+        }
+
+        throw new IllegalArgumentException("There is no constructor in %s that accepts %s"
+                .formatted(enumClass, Arrays.toString(arguments)));
+    }
+
+    @NotNull
+    private ConstructorHandle[] resolveConstructors(@NotNull Class<? extends E> owner) {
+        MethodHandles.Lookup lookup = ReflectionUtils.getTrustedLookup();
+        Constructor<?>[] declaredConstructors = owner.getDeclaredConstructors();
+        ConstructorHandle[] constructors = new ConstructorHandle[declaredConstructors.length];
+        for (int i = 0; i < declaredConstructors.length; i++) {
+            Constructor<?> constructor = declaredConstructors[i];
+            MethodType type = MethodType.methodType(void.class, constructor.getParameterTypes());
+            try {
+                // Name and ordinal are the first parameters of each enumeration constructor
+                MethodHandle handle = lookup.findConstructor(owner, type);
+                handle = handle.asType(handle.type().generic()
+                                .changeParameterType(0, String.class)
+                                .changeParameterType(1, int.class))
+                        .asSpreader(2, Object[].class, type.parameterCount() - 2);
+
+                Class<?>[] parameterTypes = type.wrap().dropParameterTypes(0, 2).parameterArray();
+                constructors[i] = new ConstructorHandle(parameterTypes, type.dropParameterTypes(0, 2).parameterArray(),
+                        handle);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        return constructors;
+    }
+
+    public void setOrdinal(@NotNull E e, int ordinal) {
+        ORDINAL.setInt(e, ordinal);
+    }
+
+    /**
+     * Sets values of the instance fields declared in the enumeration class. If some field is
+     * not declared, it is ignored
+     *
+     * @throws IllegalArgumentException if type of some value is not compatible with its field
+     */
+    public void setFields(@NotNull E e, @NotNull Map<String, Object> fieldValues) {
+        for (var entry : fieldValues.entrySet()) {
+            Object value = entry.getValue();
+            if (value == null) {
+                continue;
+            }
+
+            FieldAccessor fieldAccessor = fieldAccessors.get(entry.getKey());
+            if (fieldAccessor != null) {
+                fieldAccessor.set(e, value);
+            }
+        }
+    }
+
+    public void clearEnumConstants() {
+        ENUM_CONSTANTS.setObject(enumClass, null);
+    }
+
+    @Nullable
+    public Map<String, E> getEnumConstantDirectory() {
+        return ENUM_CONSTANT_DIRECTORY.getObject(enumClass);
+    }
+
+    /**
+     * Returns version stamp of the enumeration, that is odd while new values are being published.
+     * Spins until publication is finished, but never blocks
+     *
+     * @see #validate(long)
+     */
+    public long readStamp() {
+        long stamp;
+        while (((stamp = this.stamp) & 1) != 0) {
+            Thread.onSpinWait();
+        }
+
+        return stamp;
+    }
+
+    /**
+     * Checks that nothing was published since the provided stamp was read, so everything read
+     * between {@link #readStamp()} and this method is consistent
+     */
+    public boolean validate(long stamp) {
+        VarHandle.acquireFence();
+        return this.stamp == stamp;
+    }
+
+    /**
+     * Makes stamp odd, so readers know that publication is in progress. Must be called only by
+     * one thread at a time, and must be followed by {@link #endPublication()}
+     */
+    public void beginPublication() {
+        // Only one thread publishes, so stamp is not incremented atomically
+        long stamp = this.stamp;
+        this.stamp = stamp + 1;
+        // Volatile store does not prevent plain stores of publish() from becoming visible before it
+        VarHandle.storeStoreFence();
+    }
+
+    /**
+     * Makes stamp even again, so readers that saw any store of {@link #publish(Enum[], boolean)} see a
+     * different stamp. Volatile store releases all previous stores, so no fence is needed
+     */
+    public void endPublication() {
+        long stamp = this.stamp;
+        this.stamp = stamp + 1;
+    }
+
+    /**
+     * Publishes new values array, that must be prepared completely by the caller and must contain
+     * all current values. Ordinals are rewritten first, then values array is released, then cached
+     * enum constants are cleared and then enum constant directory is replaced with a new one, so
+     * the old directory is never modified in place. Must be called between {@link #beginPublication()}
+     * and {@link #endPublication()}
+     */
+    public void publish(@NotNull E[] newValues) {
+        publish(newValues, false);
+    }
+
+    /**
+     * Publishes new values array like {@link #publish(Enum[])}. If caches are rebuilt eagerly, cached enum
+     * constants and enum constant directory are created and published by this method instead of clearing, so
+     * first {@code EnumSet}, {@code EnumMap} or {@code valueOf} call after publication does not call
+     * {@code values()} reflectively
+     *
+     * @param eagerCaches true if caches must be rebuilt right now
+     */
+    public void publish(@NotNull E[] newValues, boolean eagerCaches) {
+        Map<String, E> newDirectory = null;
+        if (eagerCaches || getEnumConstantDirectory() != null) {
+            newDirectory = new HashMap<>((int) (newValues.length / 0.75f) + 1);
+            for (E e : newValues) {
+                newDirectory.put(e.name(), e);
+            }
+        }
+
+        for (int i = 0; i < newValues.length; i++) {
+            if (newValues[i].ordinal() != i) {
+                ORDINAL.setInt(newValues[i], i);
+            }
+        }
+
+        // Enum constants are shared by the JDK and are never modified, but values() must return a copy anyway
+        Object[] newEnumConstants = eagerCaches ? newValues.clone() : null;
+
+        VarHandle.releaseFence();
+        setValues(newValues);
+        ENUM_CONSTANTS.setObject(enumClass, newEnumConstants);
+
+        if (newDirectory != null) {
+            ENUM_CONSTANT_DIRECTORY.setObject(enumClass, newDirectory);
+        }
+
+        // Some reader could build its caches from the old values and store them after they were replaced
+        VarHandle.fullFence();
+        Object[] enumConstants = ENUM_CONSTANTS.getObject(enumClass);
+        if (enumConstants != null && enumConstants != newEnumConstants && enumConstants.length != newValues.length) {
+            ENUM_CONSTANTS.setObject(enumClass, newEnumConstants);
+        }
+
+        Map<String, E> directory = getEnumConstantDirectory();
+        if (directory != null && directory != newDirectory && directory.size() != newValues.length) {
+            ENUM_CONSTANT_DIRECTORY.setObject(enumClass, eagerCaches ? newDirectory : null);
+        }
+    }
+
+    /**
+     * @param wrappedTypes   parameter types, where primitives are replaced with wrappers
+     * @param parameterTypes original parameter types
+     * @param handle         handle that accepts name, ordinal and array of other arguments
+     */
+    private record ConstructorHandle(@NotNull Class<?>[] wrappedTypes, @NotNull Class<?>[] parameterTypes,
+                                     @NotNull MethodHandle handle) {
+
+        private boolean accepts(@Nullable Object @NotNull [] arguments) {
+            if (arguments.length != wrappedTypes.length) {
+                return false;
+            }
+
+            for (int i = 0; i < arguments.length; i++) {
+                Object argument = arguments[i];
+                if (argument == null ? parameterTypes[i].isPrimitive() : !wrappedTypes[i].isInstance(argument)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * Classes of the constructor arguments, null for null arguments. Arguments with the same signature are accepted
+     * by the same constructors
+     */
+    private record Signature(@Nullable Class<?> @NotNull [] classes) {
+
+        @NotNull
+        private static Signature of(@Nullable Object @NotNull [] arguments) {
+            Class<?>[] classes = new Class[arguments.length];
+            for (int i = 0; i < arguments.length; i++) {
+                Object argument = arguments[i];
+                classes[i] = argument != null ? argument.getClass() : null;
+            }
+
+            return new Signature(classes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Signature signature && Arrays.equals(classes, signature.classes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(classes);
+        }
+
+        @Override
+        @NotNull
+        public String toString() {
+            return Arrays.toString(classes);
+        }
+    }
+
+    /**
+     * Returns accessors of the instance fields declared in the enumeration class by their names
+     */
+    @NotNull
+    @UnmodifiableView
+    public Map<String, FieldAccessor> getFieldAccessors() {
+        return fieldAccessors;
+    }
+}
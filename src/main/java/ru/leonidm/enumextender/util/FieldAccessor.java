@@ -0,0 +1,1201 @@
+package ru.leonidm.enumextender.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.UnknownNullability;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import static ru.leonidm.enumextender.util.UnsafeUtils.UNSAFE;
+
+/**
+ * Accessor of the field that is resolved only one time: type of the field, its offset and whether it is volatile
+ * are checked when the accessor is created, so each access is a single monomorphic {@link sun.misc.Unsafe} or
+ * {@link VarHandle} call without any branching and casting. Typed accessors, like {@link OfInt}, allow to access
+ * primitive fields without boxing.
+ *
+ * @author LeonidM
+ */
+public abstract class FieldAccessor {
+
+    protected final Field field;
+    protected final long offset;
+    private final Object staticBase;
+
+    private FieldAccessor(@NotNull Field field) {
+        this.field = field;
+        if (Modifier.isStatic(field.getModifiers())) {
+            offset = UNSAFE.staticFieldOffset(field);
+            staticBase = UNSAFE.staticFieldBase(field);
+        } else {
+            offset = UNSAFE.objectFieldOffset(field);
+            staticBase = null;
+        }
+    }
+
+    /**
+     * Creates accessor that uses {@link sun.misc.Unsafe} and is specialized for the type of the provided field
+     * and for its volatility. It is very useful when working with highly protected fields.
+     *
+     * @param field field to access
+     * @return specialized accessor
+     */
+    @NotNull
+    public static FieldAccessor of(@NotNull Field field) {
+        Class<?> type = field.getType();
+        boolean isVolatile = Modifier.isVolatile(field.getModifiers());
+        if (type == boolean.class) {
+            return isVolatile ? new VolatileBoolean(field) : new PlainBoolean(field);
+        } else if (type == byte.class) {
+            return isVolatile ? new VolatileByte(field) : new PlainByte(field);
+        } else if (type == short.class) {
+            return isVolatile ? new VolatileShort(field) : new PlainShort(field);
+        } else if (type == char.class) {
+            return isVolatile ? new VolatileChar(field) : new PlainChar(field);
+        } else if (type == int.class) {
+            return isVolatile ? new VolatileInt(field) : new PlainInt(field);
+        } else if (type == long.class) {
+            return isVolatile ? new VolatileLong(field) : new PlainLong(field);
+        } else if (type == float.class) {
+            return isVolatile ? new VolatileFloat(field) : new PlainFloat(field);
+        } else if (type == double.class) {
+            return isVolatile ? new VolatileDouble(field) : new PlainDouble(field);
+        } else {
+            return isVolatile ? new VolatileObject<>(field) : new PlainObject<>(field);
+        }
+    }
+
+    /**
+     * Creates accessor that uses {@link VarHandle} and is specialized for the type of the provided field
+     * and for its volatility, so each access calls one access mode of the handle without branching. Such accessors respect all access checks, so they can be used only for
+     * non-final instance fields of the classes whose packages are opened to this library.
+     *
+     * @param field field to access
+     * @return specialized accessor
+     * @throws IllegalArgumentException if field is static or final, or if access to it is denied
+     */
+    @NotNull
+    public static FieldAccessor ofVarHandle(@NotNull Field field) {
+        int modifiers = field.getModifiers();
+        if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
+            throw new IllegalArgumentException("VarHandle accessor requires non-static and non-final field, got %s"
+                    .formatted(field));
+        }
+
+        VarHandle varHandle;
+        try {
+            varHandle = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup())
+                    .unreflectVarHandle(field);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException(e);
+        }
+
+        Class<?> type = field.getType();
+        boolean isVolatile = Modifier.isVolatile(modifiers);
+        if (type == boolean.class) {
+            return isVolatile ? new VolatileVarHandleBoolean(field, varHandle)
+                    : new PlainVarHandleBoolean(field, varHandle);
+        } else if (type == byte.class) {
+            return isVolatile ? new VolatileVarHandleByte(field, varHandle)
+                    : new PlainVarHandleByte(field, varHandle);
+        } else if (type == short.class) {
+            return isVolatile ? new VolatileVarHandleShort(field, varHandle)
+                    : new PlainVarHandleShort(field, varHandle);
+        } else if (type == char.class) {
+            return isVolatile ? new VolatileVarHandleChar(field, varHandle)
+                    : new PlainVarHandleChar(field, varHandle);
+        } else if (type == int.class) {
+            return isVolatile ? new VolatileVarHandleInt(field, varHandle)
+                    : new PlainVarHandleInt(field, varHandle);
+        } else if (type == long.class) {
+            return isVolatile ? new VolatileVarHandleLong(field, varHandle)
+                    : new PlainVarHandleLong(field, varHandle);
+        } else if (type == float.class) {
+            return isVolatile ? new VolatileVarHandleFloat(field, varHandle)
+                    : new PlainVarHandleFloat(field, varHandle);
+        } else if (type == double.class) {
+            return isVolatile ? new VolatileVarHandleDouble(field, varHandle)
+                    : new PlainVarHandleDouble(field, varHandle);
+        } else {
+            return isVolatile ? new VolatileVarHandleObject<>(field, varHandle)
+                    : new PlainVarHandleObject<>(field, varHandle);
+        }
+    }
+
+    /**
+     * Creates {@link #of(Field)} accessor of the {@code boolean} field
+     *
+     * @throws IllegalArgumentException if type of the field is not {@code boolean}
+     */
+    @NotNull
+    public static OfBoolean ofBoolean(@NotNull Field field) {
+        requireType(field, boolean.class);
+        return (OfBoolean) of(field);
+    }
+
+    /**
+     * Creates {@link #of(Field)} accessor of the {@code byte} field
+     *
+     * @throws IllegalArgumentException if type of the field is not {@code byte}
+     */
+    @NotNull
+    public static OfByte ofByte(@NotNull Field field) {
+        requireType(field, byte.class);
+        return (OfByte) of(field);
+    }
+
+    /**
+     * Creates {@link #of(Field)} accessor of the {@code short} field
+     *
+     * @throws IllegalArgumentException if type of the field is not {@code short}
+     */
+    @NotNull
+    public static OfShort ofShort(@NotNull Field field) {
+        requireType(field, short.class);
+        return (OfShort) of(field);
+    }
+
+    /**
+     * Creates {@link #of(Field)} accessor of the {@code char} field
+     *
+     * @throws IllegalArgumentException if type of the field is not {@code char}
+     */
+    @NotNull
+    public static OfChar ofChar(@NotNull Field field) {
+        requireType(field, char.class);
+        return (OfChar) of(field);
+    }
+
+    /**
+     * Creates {@link #of(Field)} accessor of the {@code int} field
+     *
+     * @throws IllegalArgumentException if type of the field is not {@code int}
+     */
+    @NotNull
+    public static OfInt ofInt(@NotNull Field field) {
+        requireType(field, int.class);
+        return (OfInt) of(field);
+    }
+
+    /**
+     * Creates {@link #of(Field)} accessor of the {@code long} field
+     *
+     * @throws IllegalArgumentException if type of the field is not {@code long}
+     */
+    @NotNull
+    public static OfLong ofLong(@NotNull Field field) {
+        requireType(field, long.class);
+        return (OfLong) of(field);
+    }
+
+    /**
+     * Creates {@link #of(Field)} accessor of the {@code float} field
+     *
+     * @throws IllegalArgumentException if type of the field is not {@code float}
+     */
+    @NotNull
+    public static OfFloat ofFloat(@NotNull Field field) {
+        requireType(field, float.class);
+        return (OfFloat) of(field);
+    }
+
+    /**
+     * Creates {@link #of(Field)} accessor of the {@code double} field
+     *
+     * @throws IllegalArgumentException if type of the field is not {@code double}
+     */
+    @NotNull
+    public static OfDouble ofDouble(@NotNull Field field) {
+        requireType(field, double.class);
+        return (OfDouble) of(field);
+    }
+
+    /**
+     * Creates {@link #of(Field)} accessor of the object field
+     *
+     * @param type type of the values that will be set, it must be assignable to the type of the field
+     * @throws IllegalArgumentException if field is primitive or provided type cannot be assigned to it
+     */
+    @NotNull
+    public static <T> OfObject<T> ofObject(@NotNull Field field, @NotNull Class<T> type) {
+        if (field.getType().isPrimitive() || !field.getType().isAssignableFrom(type)) {
+            throw new IllegalArgumentException("Field %s requires %s, got %s".formatted(field, field.getType(), type));
+        }
+
+        return (OfObject<T>) of(field);
+    }
+
+    private static void requireType(@NotNull Field field, @NotNull Class<?> type) {
+        if (field.getType() != type) {
+            throw new IllegalArgumentException("Field %s requires %s, got %s".formatted(field, field.getType(), type));
+        }
+    }
+
+    @NotNull
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * Gets value of the field from the provided object, boxing it if needed
+     */
+    @UnknownNullability
+    public abstract Object get(@NotNull Object object);
+
+    /**
+     * Sets value of the field of the provided object, unboxing it if needed
+     *
+     * @throws IllegalArgumentException if type of the value is not compatible with the field
+     */
+    public abstract void set(@NotNull Object object, @Nullable Object value);
+
+    /**
+     * Returns the object that must be passed to the accessor methods to access static field
+     *
+     * @throws IllegalStateException if field is not static
+     */
+    @NotNull
+    public Object staticBase() {
+        if (staticBase == null) {
+            throw new IllegalStateException("Field %s is not static".formatted(field));
+        }
+
+        return staticBase;
+    }
+
+    @UnknownNullability
+    public Object getStatic() {
+        return get(staticBase());
+    }
+
+    public void setStatic(@Nullable Object value) {
+        set(staticBase(), value);
+    }
+
+    @NotNull
+    protected IllegalArgumentException incompatibleValue(@Nullable Object value) {
+        if (value == null) {
+            return new IllegalArgumentException("Field %s requires %s, got null".formatted(field, field.getType()));
+        }
+
+        return new IllegalArgumentException("Field %s requires %s, got %s (class = %s)"
+                .formatted(field, field.getType(), value, value.getClass()));
+    }
+
+    public abstract static class OfBoolean extends FieldAccessor {
+
+        private OfBoolean(@NotNull Field field) {
+            super(field);
+        }
+
+        public abstract boolean getBoolean(@NotNull Object object);
+
+        public abstract void setBoolean(@NotNull Object object, boolean value);
+
+        @Override
+        @NotNull
+        public final Object get(@NotNull Object object) {
+            return getBoolean(object);
+        }
+
+        @Override
+        public final void set(@NotNull Object object, @Nullable Object value) {
+            if (!(value instanceof Boolean unboxed)) {
+                throw incompatibleValue(value);
+            }
+
+            setBoolean(object, unboxed);
+        }
+    }
+
+    private static final class PlainBoolean extends OfBoolean {
+
+        private PlainBoolean(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        public boolean getBoolean(@NotNull Object object) {
+            return UNSAFE.getBoolean(object, offset);
+        }
+
+        @Override
+        public void setBoolean(@NotNull Object object, boolean value) {
+            UNSAFE.putBoolean(object, offset, value);
+        }
+    }
+
+    private static final class VolatileBoolean extends OfBoolean {
+
+        private VolatileBoolean(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        public boolean getBoolean(@NotNull Object object) {
+            return UNSAFE.getBooleanVolatile(object, offset);
+        }
+
+        @Override
+        public void setBoolean(@NotNull Object object, boolean value) {
+            UNSAFE.putBooleanVolatile(object, offset, value);
+        }
+    }
+
+    private static final class PlainVarHandleBoolean extends OfBoolean {
+
+        private final VarHandle varHandle;
+
+        private PlainVarHandleBoolean(@NotNull Field field, @NotNull VarHandle varHandle) {
+            super(field);
+            this.varHandle = varHandle;
+        }
+
+        @Override
+        public boolean getBoolean(@NotNull Object object) {
+            return (boolean) varHandle.get(object);
+        }
+
+        @Override
+        public void setBoolean(@NotNull Object object, boolean value) {
+            varHandle.set(object, value);
+        }
+    }
+
+    private static final class VolatileVarHandleBoolean extends OfBoolean {
+
+        private final VarHandle varHandle;
+
+        private VolatileVarHandleBoolean(@NotNull Field field, @NotNull VarHandle varHandle) {
+            super(field);
+            this.varHandle = varHandle;
+        }
+
+        @Override
+        public boolean getBoolean(@NotNull Object object) {
+            return (boolean) varHandle.getVolatile(object);
+        }
+
+        @Override
+        public void setBoolean(@NotNull Object object, boolean value) {
+            varHandle.setVolatile(object, value);
+        }
+    }
+
+    public abstract static class OfByte extends FieldAccessor {
+
+        private OfByte(@NotNull Field field) {
+            super(field);
+        }
+
+        public abstract byte getByte(@NotNull Object object);
+
+        public abstract void setByte(@NotNull Object object, byte value);
+
+        @Override
+        @NotNull
+        public final Object get(@NotNull Object object) {
+            return getByte(object);
+        }
+
+        @Override
+        public final void set(@NotNull Object object, @Nullable Object value) {
+            if (!(value instanceof Byte unboxed)) {
+                throw incompatibleValue(value);
+            }
+
+            setByte(object, unboxed);
+        }
+    }
+
+    private static final class PlainByte extends OfByte {
+
+        private PlainByte(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        public byte getByte(@NotNull Object object) {
+            return UNSAFE.getByte(object, offset);
+        }
+
+        @Override
+        public void setByte(@NotNull Object object, byte value) {
+            UNSAFE.putByte(object, offset, value);
+        }
+    }
+
+    private static final class VolatileByte extends OfByte {
+
+        private VolatileByte(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        public byte getByte(@NotNull Object object) {
+            return UNSAFE.getByteVolatile(object, offset);
+        }
+
+        @Override
+        public void setByte(@NotNull Object object, byte value) {
+            UNSAFE.putByteVolatile(object, offset, value);
+        }
+    }
+
+    private static final class PlainVarHandleByte extends OfByte {
+
+        private final VarHandle varHandle;
+
+        private PlainVarHandleByte(@NotNull Field field, @NotNull VarHandle varHandle) {
+            super(field);
+            this.varHandle = varHandle;
+        }
+
+        @Override
+        public byte getByte(@NotNull Object object) {
+            return (byte) varHandle.get(object);
+        }
+
+        @Override
+        public void setByte(@NotNull Object object, byte value) {
+            varHandle.set(object, value);
+        }
+    }
+
+    private static final class VolatileVarHandleByte extends OfByte {
+
+        private final VarHandle varHandle;
+
+        private VolatileVarHandleByte(@NotNull Field field, @NotNull VarHandle varHandle) {
+            super(field);
+            this.varHandle = varHandle;
+        }
+
+        @Override
+        public byte getByte(@NotNull Object object) {
+            return (byte) varHandle.getVolatile(object);
+        }
+
+        @Override
+        public void setByte(@NotNull Object object, byte value) {
+            varHandle.setVolatile(object, value);
+        }
+    }
+
+    public abstract static class OfShort extends FieldAccessor {
+
+        private OfShort(@NotNull Field field) {
+            super(field);
+        }
+
+        public abstract short getShort(@NotNull Object object);
+
+        public abstract void setShort(@NotNull Object object, short value);
+
+        @Override
+        @NotNull
+        public final Object get(@NotNull Object object) {
+            return getShort(object);
+        }
+
+        @Override
+        public final void set(@NotNull Object object, @Nullable Object value) {
+            if (!(value instanceof Short unboxed)) {
+                throw incompatibleValue(value);
+            }
+
+            setShort(object, unboxed);
+        }
+    }
+
+    private static final class PlainShort extends OfShort {
+
+        private PlainShort(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        public short getShort(@NotNull Object object) {
+            return UNSAFE.getShort(object, offset);
+        }
+
+        @Override
+        public void setShort(@NotNull Object object, short value) {
+            UNSAFE.putShort(object, offset, value);
+        }
+    }
+
+    private static final class VolatileShort extends OfShort {
+
+        private VolatileShort(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        public short getShort(@NotNull Object object) {
+            return UNSAFE.getShortVolatile(object, offset);
+        }
+
+        @Override
+        public void setShort(@NotNull Object object, short value) {
+            UNSAFE.putShortVolatile(object, offset, value);
+        }
+    }
+
+    private static final class PlainVarHandleShort extends OfShort {
+
+        private final VarHandle varHandle;
+
+        private PlainVarHandleShort(@NotNull Field field, @NotNull VarHandle varHandle) {
+            super(field);
+            this.varHandle = varHandle;
+        }
+
+        @Override
+        public short getShort(@NotNull Object object) {
+            return (short) varHandle.get(object);
+        }
+
+        @Override
+        public void setShort(@NotNull Object object, short value) {
+            varHandle.set(object, value);
+        }
+    }
+
+    private static final class VolatileVarHandleShort extends OfShort {
+
+        private final VarHandle varHandle;
+
+        private VolatileVarHandleShort(@NotNull Field field, @NotNull VarHandle varHandle) {
+            super(field);
+            this.varHandle = varHandle;
+        }
+
+        @Override
+        public short getShort(@NotNull Object object) {
+            return (short) varHandle.getVolatile(object);
+        }
+
+        @Override
+        public void setShort(@NotNull Object object, short value) {
+            varHandle.setVolatile(object, value);
+        }
+    }
+
+    public abstract static class OfChar extends FieldAccessor {
+
+        private OfChar(@NotNull Field field) {
+            super(field);
+        }
+
+        public abstract char getChar(@NotNull Object object);
+
+        public abstract void setChar(@NotNull Object object, char value);
+
+        @Override
+        @NotNull
+        public final Object get(@NotNull Object object) {
+            return getChar(object);
+        }
+
+        @Override
+        public final void set(@NotNull Object object, @Nullable Object value) {
+            if (!(value instanceof Character unboxed)) {
+                throw incompatibleValue(value);
+            }
+
+            setChar(object, unboxed);
+        }
+    }
+
+    private static final class PlainChar extends OfChar {
+
+        private PlainChar(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        public char getChar(@NotNull Object object) {
+            return UNSAFE.getChar(object, offset);
+        }
+
+        @Override
+        public void setChar(@NotNull Object object, char value) {
+            UNSAFE.putChar(object, offset, value);
+        }
+    }
+
+    private static final class VolatileChar extends OfChar {
+
+        private VolatileChar(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        public char getChar(@NotNull Object object) {
+            return UNSAFE.getCharVolatile(object, offset);
+        }
+
+        @Override
+        public void setChar(@NotNull Object object, char value) {
+            UNSAFE.putCharVolatile(object, offset, value);
+        }
+    }
+
+    private static final class PlainVarHandleChar extends OfChar {
+
+        private final VarHandle varHandle;
+
+        private PlainVarHandleChar(@NotNull Field field, @NotNull VarHandle varHandle) {
+            super(field);
+            this.varHandle = varHandle;
+        }
+
+        @Override
+        public char getChar(@NotNull Object object) {
+            return (char) varHandle.get(object);
+        }
+
+        @Override
+        public void setChar(@NotNull Object object, char value) {
+            varHandle.set(object, value);
+        }
+    }
+
+    private static final class VolatileVarHandleChar extends OfChar {
+
+        private final VarHandle varHandle;
+
+        private VolatileVarHandleChar(@NotNull Field field, @NotNull VarHandle varHandle) {
+            super(field);
+            this.varHandle = varHandle;
+        }
+
+        @Override
+        public char getChar(@NotNull Object object) {
+            return (char) varHandle.getVolatile(object);
+        }
+
+        @Override
+        public void setChar(@NotNull Object object, char value) {
+            varHandle.setVolatile(object, value);
+        }
+    }
+
+    public abstract static class OfInt extends FieldAccessor {
+
+        private OfInt(@NotNull Field field) {
+            super(field);
+        }
+
+        public abstract int getInt(@NotNull Object object);
+
+        public abstract void setInt(@NotNull Object object, int value);
+
+        @Override
+        @NotNull
+        public final Object get(@NotNull Object object) {
+            return getInt(object);
+        }
+
+        @Override
+        public final void set(@NotNull Object object, @Nullable Object value) {
+            if (!(value instanceof Integer unboxed)) {
+                throw incompatibleValue(value);
+            }
+
+            setInt(object, unboxed);
+        }
+    }
+
+    private static final class PlainInt extends OfInt {
+
+        private PlainInt(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        public int getInt(@NotNull Object object) {
+            return UNSAFE.getInt(object, offset);
+        }
+
+        @Override
+        public void setInt(@NotNull Object object, int value) {
+            UNSAFE.putInt(object, offset, value);
+        }
+    }
+
+    private static final class VolatileInt extends OfInt {
+
+        private VolatileInt(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        public int getInt(@NotNull Object object) {
+            return UNSAFE.getIntVolatile(object, offset);
+        }
+
+        @Override
+        public void setInt(@NotNull Object object, int value) {
+            UNSAFE.putIntVolatile(object, offset, value);
+        }
+    }
+
+    private static final class PlainVarHandleInt extends OfInt {
+
+        private final VarHandle varHandle;
+
+        private PlainVarHandleInt(@NotNull Field field, @NotNull VarHandle varHandle) {
+            super(field);
+            this.varHandle = varHandle;
+        }
+
+        @Override
+        public int getInt(@NotNull Object object) {
+            return (int) varHandle.get(object);
+        }
+
+        @Override
+        public void setInt(@NotNull Object object, int value) {
+            varHandle.set(object, value);
+        }
+    }
+
+    private static final class VolatileVarHandleInt extends OfInt {
+
+        private final VarHandle varHandle;
+
+        private VolatileVarHandleInt(@NotNull Field field, @NotNull VarHandle varHandle) {
+            super(field);
+            this.varHandle = varHandle;
+        }
+
+        @Override
+        public int getInt(@NotNull Object object) {
+            return (int) varHandle.getVolatile(object);
+        }
+
+        @Override
+        public void setInt(@NotNull Object object, int value) {
+            varHandle.setVolatile(object, value);
+        }
+    }
+
+    public abstract static class OfLong extends FieldAccessor {
+
+        private OfLong(@NotNull Field field) {
+            super(field);
+        }
+
+        public abstract long getLong(@NotNull Object object);
+
+        public abstract void setLong(@NotNull Object object, long value);
+
+        @Override
+        @NotNull
+        public final Object get(@NotNull Object object) {
+            return getLong(object);
+        }
+
+        @Override
+        public final void set(@NotNull Object object, @Nullable Object value) {
+            if (!(value instanceof Long unboxed)) {
+                throw incompatibleValue(value);
+            }
+
+            setLong(object, unboxed);
+        }
+    }
+
+    private static final class PlainLong extends OfLong {
+
+        private PlainLong(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        public long getLong(@NotNull Object object) {
+            return UNSAFE.getLong(object, offset);
+        }
+
+        @Override
+        public void setLong(@NotNull Object object, long value) {
+            UNSAFE.putLong(object, offset, value);
+        }
+    }
+
+    private static final class VolatileLong extends OfLong {
+
+        private VolatileLong(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        public long getLong(@NotNull Object object) {
+            return UNSAFE.getLongVolatile(object, offset);
+        }
+
+        @Override
+        public void setLong(@NotNull Object object, long value) {
+            UNSAFE.putLongVolatile(object, offset, value);
+        }
+    }
+
+    private static final class PlainVarHandleLong extends OfLong {
+
+        private final VarHandle varHandle;
+
+        private PlainVarHandleLong(@NotNull Field field, @NotNull VarHandle varHandle) {
+            super(field);
+            this.varHandle = varHandle;
+        }
+
+        @Override
+        public long getLong(@NotNull Object object) {
+            return (long) varHandle.get(object);
+        }
+
+        @Override
+        public void setLong(@NotNull Object object, long value) {
+            varHandle.set(object, value);
+        }
+    }
+
+    private static final class VolatileVarHandleLong extends OfLong {
+
+        private final VarHandle varHandle;
+
+        private VolatileVarHandleLong(@NotNull Field field, @NotNull VarHandle varHandle) {
+            super(field);
+            this.varHandle = varHandle;
+        }
+
+        @Override
+        public long getLong(@NotNull Object object) {
+            return (long) varHandle.getVolatile(object);
+        }
+
+        @Override
+        public void setLong(@NotNull Object object, long value) {
+            varHandle.setVolatile(object, value);
+        }
+    }
+
+    public abstract static class OfFloat extends FieldAccessor {
+
+        private OfFloat(@NotNull Field field) {
+            super(field);
+        }
+
+        public abstract float getFloat(@NotNull Object object);
+
+        public abstract void setFloat(@NotNull Object object, float value);
+
+        @Override
+        @NotNull
+        public final Object get(@NotNull Object object) {
+            return getFloat(object);
+        }
+
+        @Override
+        public final void set(@NotNull Object object, @Nullable Object value) {
+            if (!(value instanceof Float unboxed)) {
+                throw incompatibleValue(value);
+            }
+
+            setFloat(object, unboxed);
+        }
+    }
+
+    private static final class PlainFloat extends OfFloat {
+
+        private PlainFloat(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        public float getFloat(@NotNull Object object) {
+            return UNSAFE.getFloat(object, offset);
+        }
+
+        @Override
+        public void setFloat(@NotNull Object object, float value) {
+            UNSAFE.putFloat(object, offset, value);
+        }
+    }
+
+    private static final class VolatileFloat extends OfFloat {
+
+        private VolatileFloat(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        public float getFloat(@NotNull Object object) {
+            return UNSAFE.getFloatVolatile(object, offset);
+        }
+
+        @Override
+        public void setFloat(@NotNull Object object, float value) {
+            UNSAFE.putFloatVolatile(object, offset, value);
+        }
+    }
+
+    private static final class PlainVarHandleFloat extends OfFloat {
+
+        private final VarHandle varHandle;
+
+        private PlainVarHandleFloat(@NotNull Field field, @NotNull VarHandle varHandle) {
+            super(field);
+            this.varHandle = varHandle;
+        }
+
+        @Override
+        public float getFloat(@NotNull Object object) {
+            return (float) varHandle.get(object);
+        }
+
+        @Override
+        public void setFloat(@NotNull Object object, float value) {
+            varHandle.set(object, value);
+        }
+    }
+
+    private static final class VolatileVarHandleFloat extends OfFloat {
+
+        private final VarHandle varHandle;
+
+        private VolatileVarHandleFloat(@NotNull Field field, @NotNull VarHandle varHandle) {
+            super(field);
+            this.varHandle = varHandle;
+        }
+
+        @Override
+        public float getFloat(@NotNull Object object) {
+            return (float) varHandle.getVolatile(object);
+        }
+
+        @Override
+        public void setFloat(@NotNull Object object, float value) {
+            varHandle.setVolatile(object, value);
+        }
+    }
+
+    public abstract static class OfDouble extends FieldAccessor {
+
+        private OfDouble(@NotNull Field field) {
+            super(field);
+        }
+
+        public abstract double getDouble(@NotNull Object object);
+
+        public abstract void setDouble(@NotNull Object object, double value);
+
+        @Override
+        @NotNull
+        public final Object get(@NotNull Object object) {
+            return getDouble(object);
+        }
+
+        @Override
+        public final void set(@NotNull Object object, @Nullable Object value) {
+            if (!(value instanceof Double unboxed)) {
+                throw incompatibleValue(value);
+            }
+
+            setDouble(object, unboxed);
+        }
+    }
+
+    private static final class PlainDouble extends OfDouble {
+
+        private PlainDouble(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        public double getDouble(@NotNull Object object) {
+            return UNSAFE.getDouble(object, offset);
+        }
+
+        @Override
+        public void setDouble(@NotNull Object object, double value) {
+            UNSAFE.putDouble(object, offset, value);
+        }
+    }
+
+    private static final class VolatileDouble extends OfDouble {
+
+        private VolatileDouble(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        public double getDouble(@NotNull Object object) {
+            return UNSAFE.getDoubleVolatile(object, offset);
+        }
+
+        @Override
+        public void setDouble(@NotNull Object object, double value) {
+            UNSAFE.putDoubleVolatile(object, offset, value);
+        }
+    }
+
+    private static final class PlainVarHandleDouble extends OfDouble {
+
+        private final VarHandle varHandle;
+
+        private PlainVarHandleDouble(@NotNull Field field, @NotNull VarHandle varHandle) {
+            super(field);
+            this.varHandle = varHandle;
+        }
+
+        @Override
+        public double getDouble(@NotNull Object object) {
+            return (double) varHandle.get(object);
+        }
+
+        @Override
+        public void setDouble(@NotNull Object object, double value) {
+            varHandle.set(object, value);
+        }
+    }
+
+    private static final class VolatileVarHandleDouble extends OfDouble {
+
+        private final VarHandle varHandle;
+
+        private VolatileVarHandleDouble(@NotNull Field field, @NotNull VarHandle varHandle) {
+            super(field);
+            this.varHandle = varHandle;
+        }
+
+        @Override
+        public double getDouble(@NotNull Object object) {
+            return (double) varHandle.getVolatile(object);
+        }
+
+        @Override
+        public void setDouble(@NotNull Object object, double value) {
+            varHandle.setVolatile(object, value);
+        }
+    }
+
+    public abstract static class OfObject<T> extends FieldAccessor {
+
+        private OfObject(@NotNull Field field) {
+            super(field);
+        }
+
+        @UnknownNullability
+        public abstract T getObject(@NotNull Object object);
+
+        public abstract void setObject(@NotNull Object object, @Nullable T value);
+
+        @UnknownNullability
+        public T getStaticObject() {
+            return getObject(staticBase());
+        }
+
+        public void setStaticObject(@Nullable T value) {
+            setObject(staticBase(), value);
+        }
+
+        @Override
+        @UnknownNullability
+        public final Object get(@NotNull Object object) {
+            return getObject(object);
+        }
+
+        @Override
+        public final void set(@NotNull Object object, @Nullable Object value) {
+            if (value != null && !field.getType().isInstance(value)) {
+                throw incompatibleValue(value);
+            }
+
+            setObject(object, (T) value);
+        }
+    }
+
+    private static final class PlainObject<T> extends OfObject<T> {
+
+        private PlainObject(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        @UnknownNullability
+        public T getObject(@NotNull Object object) {
+            return (T) UNSAFE.getObject(object, offset);
+        }
+
+        @Override
+        public void setObject(@NotNull Object object, @Nullable T value) {
+            UNSAFE.putObject(object, offset, value);
+        }
+    }
+
+    private static final class VolatileObject<T> extends OfObject<T> {
+
+        private VolatileObject(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        @UnknownNullability
+        public T getObject(@NotNull Object object) {
+            return (T) UNSAFE.getObjectVolatile(object, offset);
+        }
+
+        @Override
+        public void setObject(@NotNull Object object, @Nullable T value) {
+            UNSAFE.putObjectVolatile(object, offset, value);
+        }
+    }
+
+    private static final class PlainVarHandleObject<T> extends OfObject<T> {
+
+        private final VarHandle varHandle;
+
+        private PlainVarHandleObject(@NotNull Field field, @NotNull VarHandle varHandle) {
+            super(field);
+            this.varHandle = varHandle;
+        }
+
+        @Override
+        @UnknownNullability
+        public T getObject(@NotNull Object object) {
+            return (T) varHandle.get(object);
+        }
+
+        @Override
+        public void setObject(@NotNull Object object, @Nullable T value) {
+            varHandle.set(object, value);
+        }
+    }
+
+    private static final class VolatileVarHandleObject<T> extends OfObject<T> {
+
+        private final VarHandle varHandle;
+
+        private VolatileVarHandleObject(@NotNull Field field, @NotNull VarHandle varHandle) {
+            super(field);
+            this.varHandle = varHandle;
+        }
+
+        @Override
+        @UnknownNullability
+        public T getObject(@NotNull Object object) {
+            return (T) varHandle.getVolatile(object);
+        }
+
+        @Override
+        public void setObject(@NotNull Object object, @Nullable T value) {
+            varHandle.setVolatile(object, value);
+        }
+    }
+}
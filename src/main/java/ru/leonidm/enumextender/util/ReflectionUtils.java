@@ -3,6 +3,7 @@ package ru.leonidm.enumextender.util;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
 
 /**
@@ -10,10 +11,31 @@ import java.lang.reflect.Field;
  */
 public final class ReflectionUtils {
 
+    private static MethodHandles.Lookup trustedLookup;
+
     private ReflectionUtils() {
 
     }
 
+    /**
+     * Returns lookup with full privileges to all classes, that is read from {@code MethodHandles.Lookup.IMPL_LOOKUP}
+     *
+     * @throws IllegalStateException if JVM is somehow broken
+     */
+    @NotNull
+    public static MethodHandles.Lookup getTrustedLookup() {
+        if (trustedLookup == null) {
+            try {
+                Field field = MethodHandles.Lookup.class.getDeclaredField("IMPL_LOOKUP");
+                trustedLookup = UnsafeUtils.getStaticFieldSafely(field);
+            } catch (NoSuchFieldException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        return trustedLookup;
+    }
+
     /**
      * Finds values field in the provided enumeration class, allowing for cases where the field name
      * has already been taken.
@@ -51,16 +73,28 @@ public final class ReflectionUtils {
             return null;
         }
 
-        String name = syntheticClass.getName();
-        if (!name.contains("$")) {
+        String mainName = getOriginalClassName(syntheticClass.getName());
+        if (mainName == null) {
             return null;
         }
 
         try {
-            String mainName = name.substring(0, name.lastIndexOf('$'));
-            return Class.forName(mainName);
+            return Class.forName(mainName, false, syntheticClass.getClassLoader());
         } catch (ClassNotFoundException e) {
             throw new IllegalStateException(e);
         }
     }
+
+    /**
+     * Returns name of the original class where from synthetic class with provided name was created,
+     * so it can be found without loading the synthetic class
+     *
+     * @param syntheticClassName name of the synthetic class
+     * @return name of the original class if found, otherwise null
+     */
+    @Nullable
+    public static String getOriginalClassName(@NotNull String syntheticClassName) {
+        int index = syntheticClassName.lastIndexOf('$');
+        return index >= 0 ? syntheticClassName.substring(0, index) : null;
+    }
 }
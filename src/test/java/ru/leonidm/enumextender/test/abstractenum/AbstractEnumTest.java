@@ -1,21 +1,159 @@
 package ru.leonidm.enumextender.test.abstractenum;
 
-import org.junit.jupiter.api.Disabled;
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
+import ru.leonidm.enumextender.agent.SealedEnumTransformer;
 import ru.leonidm.enumextender.api.EnumExtender;
+import ru.leonidm.enumextender.api.EnumResult;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 /**
  * @author LeonidM
  */
 public class AbstractEnumTest {
 
-    private final EnumExtender<AbstractEnum> enumExtender = EnumExtender.of(AbstractEnum.class);
+    @Test
+    public void sealedEnum() {
+        EnumExtender<AbstractEnum> enumExtender = EnumExtender.of(AbstractEnum.class);
+        assertTrue(AbstractEnum.class.isSealed());
+
+        assertInstanceOf(EnumResult.Error.class, enumExtender.addEnum("D", Map.of()));
+        assertInstanceOf(EnumResult.Error.class, enumExtender.enumBuilder("D")
+                .override("method", constant(AbstractEnum.class, "D"))
+                .create());
+        assertEquals(3, AbstractEnum.values().length);
+    }
+
+    @Test
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void abstractEnum() throws ReflectiveOperationException {
+        Class<?> enumClass = Class.forName(AbstractEnum.class.getName(), true,
+                new UnsealingClassLoader(getClass().getClassLoader()));
+        assertNotSame(AbstractEnum.class, enumClass);
+
+        EnumExtender enumExtender = EnumExtender.of((Class) enumClass);
+        Enum<?> d = (Enum<?>) enumExtender.enumBuilder("D")
+                .override("method", constant(enumClass, "D"))
+                .create()
+                .getEnum();
+
+        Method method = enumClass.getMethod("method");
+        assertEquals("D", method.invoke(d));
+        assertEquals("A", method.invoke(Enum.valueOf((Class) enumClass, "A")));
+        assertSame(enumClass, d.getDeclaringClass());
+        assertSame(d, Enum.valueOf((Class) enumClass, "D"));
+        assertEquals(3, d.ordinal());
+
+        Enum<?> e = (Enum<?>) enumExtender.addEnum("E", Map.of()).getEnum();
+        assertSame(enumClass, e.getDeclaringClass());
+        InvocationTargetException exception = assertThrows(InvocationTargetException.class, () -> method.invoke(e));
+        assertInstanceOf(AbstractMethodError.class, exception.getCause());
+
+        Enum<?> f = (Enum<?>) enumExtender.enumBuilder("F")
+                .override("method", MethodHandles.lookup().findVirtual(Enum.class, "name",
+                        MethodType.methodType(String.class)))
+                .create()
+                .getEnum();
+        assertEquals("F", method.invoke(f));
+
+        assertInstanceOf(EnumResult.Error.class, enumExtender.enumBuilder("G")
+                .override("missing", constant(enumClass, "G"))
+                .create());
+
+        // Methods of Object are re-declared as final by Enum
+        MethodHandle equals = MethodHandles.dropArguments(MethodHandles.constant(boolean.class, true), 0,
+                enumClass, Object.class);
+        assertInstanceOf(EnumResult.Error.class, enumExtender.enumBuilder("G")
+                .override("equals", equals)
+                .create());
+        assertInstanceOf(EnumResult.Error.class, enumExtender.enumBuilder("G")
+                .override("hashCode", MethodHandles.dropArguments(MethodHandles.constant(int.class, 0), 0, enumClass))
+                .create());
+
+        Enum<?> g = (Enum<?>) enumExtender.enumBuilder("G")
+                .override("method", constant(enumClass, "G"))
+                .override("toString", constant(enumClass, "g"))
+                .create()
+                .getEnum();
+        assertEquals("g", g.toString());
+        assertEquals("G", method.invoke(g));
+    }
 
     @Test
-    @Disabled
-    public void abstractEnum() {
-        AbstractEnum d = enumExtender.addEnum("D", Map.of()).getEnum();
+    public void unsealOnlyListedEnums() throws IOException {
+        byte[] bytes;
+        try (InputStream inputStream = getClass().getResourceAsStream("AbstractEnum.class")) {
+            assertNotNull(inputStream);
+            bytes = inputStream.readAllBytes();
+        }
+
+        String className = AbstractEnum.class.getName().replace('.', '/');
+        ClassLoader classLoader = getClass().getClassLoader();
+
+        SealedEnumTransformer other = new SealedEnumTransformer(List.of("com.example."));
+        assertNull(other.transform(classLoader, className, null, null, bytes));
+
+        SealedEnumTransformer listed = new SealedEnumTransformer(List.of(AbstractEnum.class.getPackageName() + "."));
+        assertNotNull(listed.transform(classLoader, className, null, null, bytes));
+    }
+
+    @NotNull
+    private static MethodHandle constant(@NotNull Class<?> enumClass, @NotNull String value) {
+        return MethodHandles.dropArguments(MethodHandles.constant(String.class, value), 0, enumClass);
+    }
+
+    private static class UnsealingClassLoader extends ClassLoader {
+
+        private UnsealingClassLoader(@NotNull ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(AbstractEnum.class.getName())) {
+                return super.loadClass(name, resolve);
+            }
+
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> clazz = findLoadedClass(name);
+                if (clazz != null) {
+                    return clazz;
+                }
+
+                try (InputStream inputStream = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                    if (inputStream == null) {
+                        throw new ClassNotFoundException(name);
+                    }
+
+                    byte[] bytes = inputStream.readAllBytes();
+                    byte[] transformed = SealedEnumTransformer.unseal(bytes);
+                    if (transformed != null) {
+                        bytes = transformed;
+                    }
+
+                    return defineClass(name, bytes, 0, bytes.length);
+                } catch (IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+        }
     }
 }
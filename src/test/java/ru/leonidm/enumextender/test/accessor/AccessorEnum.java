@@ -0,0 +1,12 @@
+package ru.leonidm.enumextender.test.accessor;
+
+/**
+ * @author LeonidM
+ */
+public enum AccessorEnum {
+    A;
+
+    public final long finalLong = 1;
+    public volatile char volatileChar = 'a';
+    public String string = "a";
+}
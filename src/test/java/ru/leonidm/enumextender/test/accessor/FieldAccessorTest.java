@@ -0,0 +1,44 @@
+package ru.leonidm.enumextender.test.accessor;
+
+import org.junit.jupiter.api.Test;
+import ru.leonidm.enumextender.util.FieldAccessor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+
+/**
+ * @author LeonidM
+ */
+public class FieldAccessorTest {
+
+    @Test
+    public void typedAccessors() throws Exception {
+        FieldAccessor.OfLong finalLong = FieldAccessor.ofLong(AccessorEnum.class.getDeclaredField("finalLong"));
+        finalLong.setLong(AccessorEnum.A, 5);
+        assertEquals(5, finalLong.getLong(AccessorEnum.A));
+
+        FieldAccessor.OfChar volatileChar = FieldAccessor.ofChar(AccessorEnum.class.getDeclaredField("volatileChar"));
+        volatileChar.setChar(AccessorEnum.A, 'b');
+        assertEquals('b', AccessorEnum.A.volatileChar);
+
+        assertThrowsExactly(IllegalArgumentException.class, () -> {
+            FieldAccessor.ofInt(AccessorEnum.class.getDeclaredField("finalLong"));
+        });
+
+        assertThrowsExactly(IllegalArgumentException.class, () -> {
+            finalLong.set(AccessorEnum.A, "string");
+        });
+    }
+
+    @Test
+    public void varHandleAccessors() throws Exception {
+        FieldAccessor string = FieldAccessor.ofVarHandle(AccessorEnum.class.getDeclaredField("string"));
+        string.set(AccessorEnum.A, "b");
+        assertEquals("b", AccessorEnum.A.string);
+        assertEquals("b", string.get(AccessorEnum.A));
+
+        assertThrowsExactly(IllegalArgumentException.class, () -> {
+            FieldAccessor.ofVarHandle(AccessorEnum.class.getDeclaredField("finalLong"));
+        });
+    }
+}
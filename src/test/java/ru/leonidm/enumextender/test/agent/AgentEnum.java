@@ -0,0 +1,10 @@
+package ru.leonidm.enumextender.test.agent;
+
+/**
+ * @author LeonidM
+ */
+public enum AgentEnum {
+    A,
+    B,
+    C
+}
@@ -0,0 +1,25 @@
+package ru.leonidm.enumextender.test.agent;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Class that must be loaded only by {@link AgentTest} after extension of {@link AgentEnum}
+ *
+ * @author LeonidM
+ */
+public class AgentSwitch {
+
+    @NotNull
+    public static String switchCase(@NotNull AgentEnum e) {
+        switch (e) {
+            case A:
+                return "A";
+            case B:
+                return "B";
+            case C:
+                return "C";
+            default:
+                return "-" + e.name();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package ru.leonidm.enumextender.test.agent;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import ru.leonidm.enumextender.agent.SwitchMapTransformer;
+import ru.leonidm.enumextender.api.EnumExtender;
+import ru.leonidm.enumextender.api.SwitchCasePatcher;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * @author LeonidM
+ */
+public class AgentTest {
+
+    private final EnumExtender<AgentEnum> enumExtender = EnumExtender.of(AgentEnum.class);
+
+    @Test
+    public void lateLoadedHolder() throws Exception {
+        AgentEnum d = enumExtender.addEnum("D", Map.of()).getEnum();
+        AgentEnum e = enumExtender.addEnum("E", Map.of()).getEnum();
+
+        enumExtender.switchCase().addPatcher(SwitchCasePatcher.mappings(originalClass -> {
+            if (originalClass.getName().equals(AgentSwitch.class.getName())) {
+                return Map.of(e, AgentEnum.A);
+            } else {
+                return Map.of();
+            }
+        }));
+
+        ClassLoader classLoader = new TransformingClassLoader(getClass().getClassLoader());
+        Method switchCase = classLoader.loadClass(AgentSwitch.class.getName())
+                .getMethod("switchCase", AgentEnum.class);
+
+        for (AgentEnum value : AgentEnum.values()) {
+            String expected = value == e ? "A" : value == d ? "-D" : value.name();
+            assertEquals(expected, switchCase.invoke(null, value));
+        }
+    }
+
+    @Test
+    public void rewriteOnlyHolders() throws IOException {
+        assertNull(SwitchMapTransformer.rewrite(readClass(AgentSwitch.class.getName())));
+        assertNotNull(SwitchMapTransformer.rewrite(readClass(AgentSwitch.class.getName() + "$1")));
+    }
+
+    @Test
+    public void transformOnlyIfHooksAreVisible() throws IOException {
+        SwitchMapTransformer transformer = new SwitchMapTransformer();
+        String holderName = AgentSwitch.class.getName() + "$1";
+        byte[] bytes = readClass(holderName);
+
+        ClassLoader child = new TransformingClassLoader(getClass().getClassLoader());
+        assertNotNull(transformer.transform(child, holderName.replace('.', '/'), null, null, bytes));
+
+        // Loader whose parent is the bootstrap loader cannot see the hooks
+        ClassLoader isolated = new ClassLoader(null) {
+        };
+        assertNull(transformer.transform(isolated, holderName.replace('.', '/'), null, null, bytes));
+    }
+
+    private static byte @NotNull [] readClass(@NotNull String name) throws IOException {
+        try (InputStream inputStream = AgentTest.class.getResourceAsStream("/" + name.replace('.', '/') + ".class")) {
+            assertNotNull(inputStream);
+            return inputStream.readAllBytes();
+        }
+    }
+
+    private static class TransformingClassLoader extends ClassLoader {
+
+        private TransformingClassLoader(@NotNull ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(AgentSwitch.class.getName())) {
+                return super.loadClass(name, resolve);
+            }
+
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> clazz = findLoadedClass(name);
+                if (clazz != null) {
+                    return clazz;
+                }
+
+                try {
+                    byte[] bytes = readClass(name);
+                    byte[] transformed = SwitchMapTransformer.rewrite(bytes);
+                    if (transformed != null) {
+                        bytes = transformed;
+                    }
+
+                    return defineClass(name, bytes, 0, bytes.length);
+                } catch (IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+        }
+    }
+}
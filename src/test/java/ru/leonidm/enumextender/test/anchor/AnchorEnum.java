@@ -0,0 +1,10 @@
+package ru.leonidm.enumextender.test.anchor;
+
+/**
+ * @author LeonidM
+ */
+public enum AnchorEnum {
+    A,
+    B,
+    C
+}
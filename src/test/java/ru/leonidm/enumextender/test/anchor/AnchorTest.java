@@ -0,0 +1,39 @@
+package ru.leonidm.enumextender.test.anchor;
+
+import org.junit.jupiter.api.Test;
+import ru.leonidm.enumextender.api.EnumBuilder;
+import ru.leonidm.enumextender.api.EnumExtender;
+import ru.leonidm.enumextender.api.EnumResult;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * @author LeonidM
+ */
+public class AnchorTest {
+
+    private final EnumExtender<AnchorEnum> enumExtender = EnumExtender.of(AnchorEnum.class);
+
+    @Test
+    public void anchorIsResolvedOnCreation() {
+        EnumBuilder<AnchorEnum> builder = enumExtender.enumBuilder("X").insertBefore(AnchorEnum.C);
+
+        // Ordinal of C is shifted after insertBefore was called
+        AnchorEnum y = enumExtender.insertEnum("Y", Map.of(), AnchorEnum.A).getEnum();
+        AnchorEnum x = builder.create().getEnum();
+
+        assertArrayEquals(new AnchorEnum[]{y, AnchorEnum.A, AnchorEnum.B, x, AnchorEnum.C}, AnchorEnum.values());
+        assertEquals(3, x.ordinal());
+
+        AnchorEnum z = enumExtender.addEnum("Z", Map.of()).getEnum();
+        EnumBuilder<AnchorEnum> removedAnchor = enumExtender.enumBuilder("W").insertBefore(z);
+        enumExtender.removeEnum(z).getEnum();
+
+        assertInstanceOf(EnumResult.Error.class, removedAnchor.create());
+        assertEquals(5, AnchorEnum.values().length);
+    }
+}
@@ -0,0 +1,10 @@
+package ru.leonidm.enumextender.test.attribute;
+
+/**
+ * @author LeonidM
+ */
+public enum AttributeEnum {
+    A,
+    B,
+    C
+}
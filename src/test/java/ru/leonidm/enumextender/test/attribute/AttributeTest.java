@@ -0,0 +1,99 @@
+package ru.leonidm.enumextender.test.attribute;
+
+import org.junit.jupiter.api.Test;
+import ru.leonidm.enumextender.api.DoubleAttribute;
+import ru.leonidm.enumextender.api.EnumAttribute;
+import ru.leonidm.enumextender.api.EnumExtender;
+import ru.leonidm.enumextender.api.IntAttribute;
+import ru.leonidm.enumextender.api.LongAttribute;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * @author LeonidM
+ */
+public class AttributeTest {
+
+    private final EnumExtender<AttributeEnum> enumExtender = EnumExtender.of(AttributeEnum.class);
+
+    @Test
+    public void attributes() {
+        EnumAttribute<AttributeEnum, String> names = EnumAttribute.create(enumExtender);
+        IntAttribute<AttributeEnum> ids = IntAttribute.create(enumExtender, -1);
+        LongAttribute<AttributeEnum> longs = LongAttribute.create(enumExtender, 0L);
+        DoubleAttribute<AttributeEnum> weights = DoubleAttribute.create(enumExtender, 1.0);
+
+        for (AttributeEnum e : AttributeEnum.values()) {
+            names.set(e, e.name().toLowerCase());
+            ids.set(e, e.ordinal());
+            longs.set(e, e.ordinal() * 10L);
+            weights.set(e, e.ordinal() / 2.0);
+        }
+
+        AttributeEnum d = enumExtender.insertEnum("D", Map.of(), AttributeEnum.B).getEnum();
+        AttributeEnum e = enumExtender.addEnum("E", Map.of()).getEnum();
+
+        assertEquals("a", names.get(AttributeEnum.A));
+        assertEquals("b", names.get(AttributeEnum.B));
+        assertEquals("c", names.get(AttributeEnum.C));
+        assertNull(names.get(d));
+        assertEquals(1, ids.get(AttributeEnum.B));
+        assertEquals(-1, ids.get(d));
+        assertEquals(-1, ids.get(e));
+        assertEquals(20L, longs.get(AttributeEnum.C));
+        assertEquals(0L, longs.get(e));
+        assertEquals(1.0, weights.get(d));
+
+        ids.set(e, 100);
+        enumExtender.removeEnums(List.of(d));
+
+        assertEquals(0, ids.get(AttributeEnum.A));
+        assertEquals(1, ids.get(AttributeEnum.B));
+        assertEquals(2, ids.get(AttributeEnum.C));
+        assertEquals(100, ids.get(e));
+        assertEquals("c", names.get(AttributeEnum.C));
+    }
+
+    @Test
+    public void concurrentInsertions() throws InterruptedException {
+        IntAttribute<AttributeEnum> ids = IntAttribute.create(enumExtender, -1);
+        ids.set(AttributeEnum.C, 2);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                int id = ids.get(AttributeEnum.C);
+                if (id != 2) {
+                    failure.set("Got " + id);
+                    return;
+                }
+            }
+        });
+
+        List<AttributeEnum> inserted = new ArrayList<>();
+        reader.start();
+        try {
+            // Each insertion shifts ordinal of C before its value is moved
+            for (int i = 0; i < 200; i++) {
+                inserted.add(enumExtender.insertEnum("INSERTED_" + i, Map.of(), AttributeEnum.A).getEnum());
+                ids.set(AttributeEnum.C, 2);
+            }
+
+            enumExtender.removeEnums(inserted);
+        } finally {
+            running.set(false);
+            reader.join();
+        }
+
+        assertNull(failure.get());
+        assertEquals(2, ids.get(AttributeEnum.C));
+    }
+}
@@ -0,0 +1,12 @@
+package ru.leonidm.enumextender.test.batch;
+
+/**
+ * @author LeonidM
+ */
+public enum BatchEnum {
+    A,
+    C,
+    E;
+
+    public boolean original = true;
+}
@@ -0,0 +1,79 @@
+package ru.leonidm.enumextender.test.batch;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import ru.leonidm.enumextender.api.EnumExtendException;
+import ru.leonidm.enumextender.api.EnumExtender;
+import ru.leonidm.enumextender.api.EnumResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+
+/**
+ * @author LeonidM
+ */
+public class BatchEnumTest {
+
+    private final EnumExtender<BatchEnum> enumExtender = EnumExtender.of(BatchEnum.class);
+
+    @Test
+    public void extendAll() {
+        List<EnumResult<BatchEnum>> results = enumExtender.extendAll(List.of(
+                enumExtender.enumBuilder("F").setField("original", false),
+                enumExtender.enumBuilder("B").setField("original", false).insertBefore(BatchEnum.C),
+                enumExtender.enumBuilder("D1").setField("original", false).insertBefore(BatchEnum.E),
+                enumExtender.enumBuilder("D2").setField("original", false).insertBefore(BatchEnum.E)
+        ));
+        enumExtender.switchCase().patch(getClass().getClassLoader(), true);
+
+        BatchEnum f = results.get(0).getEnum();
+        BatchEnum b = results.get(1).getEnum();
+        BatchEnum d1 = results.get(2).getEnum();
+        BatchEnum d2 = results.get(3).getEnum();
+
+        BatchEnum[] expected = {BatchEnum.A, b, BatchEnum.C, d1, d2, BatchEnum.E, f};
+        assertArrayEquals(expected, BatchEnum.values());
+
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(i, expected[i].ordinal());
+            assertSame(expected[i], BatchEnum.valueOf(expected[i].name()));
+
+            String expectedBranch = (expected[i].original ? "" : "-") + expected[i].name();
+            assertEquals(expectedBranch, switchCase(expected[i]));
+        }
+    }
+
+    @Test
+    public void extendAllWithDuplicates() {
+        int length = BatchEnum.values().length;
+
+        List<EnumResult<BatchEnum>> results = enumExtender.extendAll(List.of(
+                enumExtender.enumBuilder("G"),
+                enumExtender.enumBuilder("G")
+        ));
+
+        for (EnumResult<BatchEnum> result : results) {
+            assertThrowsExactly(EnumExtendException.class, result::getEnum);
+        }
+
+        assertEquals(length, BatchEnum.values().length);
+    }
+
+    @NotNull
+    private String switchCase(@NotNull BatchEnum e) {
+        switch (e) {
+            case A:
+                return "A";
+            case C:
+                return "C";
+            case E:
+                return "E";
+            default:
+                return "-" + e.name();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package ru.leonidm.enumextender.test.collection;
+
+/**
+ * @author LeonidM
+ */
+public enum CollectionEnum {
+    A,
+    B,
+    C
+}
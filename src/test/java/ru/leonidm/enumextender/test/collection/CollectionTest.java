@@ -0,0 +1,73 @@
+package ru.leonidm.enumextender.test.collection;
+
+import org.junit.jupiter.api.Test;
+import ru.leonidm.enumextender.api.EnumExtender;
+import ru.leonidm.enumextender.collection.ExtensibleEnumMap;
+import ru.leonidm.enumextender.collection.ExtensibleEnumSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author LeonidM
+ */
+public class CollectionTest {
+
+    private final EnumExtender<CollectionEnum> enumExtender = EnumExtender.of(CollectionEnum.class);
+
+    @Test
+    public void collections() {
+        ExtensibleEnumSet<CollectionEnum> set = ExtensibleEnumSet.noneOf(enumExtender);
+        set.add(CollectionEnum.B);
+        set.add(CollectionEnum.C);
+
+        ExtensibleEnumMap<CollectionEnum, String> map = ExtensibleEnumMap.create(enumExtender);
+        map.put(CollectionEnum.A, "A");
+        map.put(CollectionEnum.C, null);
+
+        List<CollectionEnum> created = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            created.add(enumExtender.insertEnum("I" + i, Map.of(), CollectionEnum.A).getEnum());
+        }
+
+        assertEquals(Set.of(CollectionEnum.B, CollectionEnum.C), set);
+        assertFalse(set.contains(CollectionEnum.A));
+        assertFalse(set.contains(created.get(0)));
+        assertEquals(2, map.size());
+        assertEquals("A", map.get(CollectionEnum.A));
+        assertTrue(map.containsKey(CollectionEnum.C));
+        assertNull(map.get(CollectionEnum.C));
+        assertFalse(map.containsKey(CollectionEnum.B));
+
+        set.add(created.get(99));
+        map.put(created.get(99), "I99");
+        assertTrue(set.contains(created.get(99)));
+        assertEquals(List.of(created.get(99), CollectionEnum.B, CollectionEnum.C), new ArrayList<>(set));
+        assertEquals(List.of(created.get(99), CollectionEnum.A, CollectionEnum.C), new ArrayList<>(map.keySet()));
+
+        ExtensibleEnumSet<CollectionEnum> all = ExtensibleEnumSet.allOf(enumExtender);
+        assertEquals(103, all.size());
+
+        enumExtender.removeEnums(created.subList(0, 99));
+        CollectionEnum last = created.get(99);
+
+        assertEquals(Set.of(last, CollectionEnum.B, CollectionEnum.C), set);
+        assertEquals(4, all.size());
+        assertEquals("I99", map.get(last));
+        assertFalse(all.contains(created.get(0)));
+        assertThrows(IllegalArgumentException.class, () -> set.add(created.get(0)));
+
+        set.removeIf(e -> e == CollectionEnum.B);
+        assertEquals(Set.of(last, CollectionEnum.C), set);
+        map.entrySet().removeIf(entry -> entry.getKey() == CollectionEnum.A);
+        assertEquals(2, map.size());
+    }
+}
@@ -0,0 +1,10 @@
+package ru.leonidm.enumextender.test.compose;
+
+/**
+ * @author LeonidM
+ */
+public enum ComposeEnum {
+    A,
+    B,
+    C
+}
@@ -0,0 +1,78 @@
+package ru.leonidm.enumextender.test.compose;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import ru.leonidm.enumextender.api.EnumExtender;
+import ru.leonidm.enumextender.api.SwitchCasePatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author LeonidM
+ */
+public class ComposeTest {
+
+    private final EnumExtender<ComposeEnum> enumExtender = EnumExtender.of(ComposeEnum.class);
+
+    @Test
+    public void composedPatchers() {
+        assertEquals("A", switchCase(ComposeEnum.A));
+
+        List<ComposeEnum> created = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ComposeEnum insertBefore = ComposeEnum.values()[(i * 7) % ComposeEnum.values().length];
+            created.add(enumExtender.insertEnum("I" + i, Map.of(), insertBefore).getEnum());
+
+            if (i % 3 == 0) {
+                enumExtender.removeEnum(created.remove(created.size() / 2)).getEnum();
+            }
+        }
+
+        ComposeEnum mapped = created.get(0);
+        enumExtender.switchCase().addPatcher(SwitchCasePatcher.mappingTable(ComposeEnum.class)
+                .forClass(getClass(), Map.of(mapped, ComposeEnum.C))
+                .build());
+        ComposeEnum last = enumExtender.insertEnum("LAST", Map.of(), ComposeEnum.A).getEnum();
+
+        enumExtender.switchCase().patch(getClass().getClassLoader(), true);
+
+        assertEquals("A", switchCase(ComposeEnum.A));
+        assertEquals("B", switchCase(ComposeEnum.B));
+        assertEquals("C", switchCase(ComposeEnum.C));
+        assertEquals("C", switchCase(mapped));
+        assertEquals("-LAST", switchCase(last));
+        for (ComposeEnum e : created) {
+            if (e != mapped) {
+                assertEquals("-" + e.name(), switchCase(e));
+            }
+        }
+    }
+
+    @Test
+    public void insertThenRemove() {
+        SwitchCasePatcher<ComposeEnum> insert = SwitchCasePatcher.insert(new int[]{0, 3}, 3);
+        SwitchCasePatcher<ComposeEnum> remove = SwitchCasePatcher.remove(new int[]{1}, 5);
+
+        int[] sequential = remove.patch(Object.class, insert.patch(Object.class, new int[]{1, 2, 3}));
+        assertArrayEquals(new int[]{0, 2, 0, 3}, sequential);
+    }
+
+    @NotNull
+    private String switchCase(@NotNull ComposeEnum e) {
+        switch (e) {
+            case A:
+                return "A";
+            case B:
+                return "B";
+            case C:
+                return "C";
+            default:
+                return "-" + e.name();
+        }
+    }
+}
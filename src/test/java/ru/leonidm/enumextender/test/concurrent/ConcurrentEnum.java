@@ -0,0 +1,10 @@
+package ru.leonidm.enumextender.test.concurrent;
+
+/**
+ * @author LeonidM
+ */
+public enum ConcurrentEnum {
+    A,
+    B,
+    C
+}
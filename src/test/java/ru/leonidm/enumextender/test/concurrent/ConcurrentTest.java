@@ -0,0 +1,110 @@
+package ru.leonidm.enumextender.test.concurrent;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import ru.leonidm.enumextender.api.EnumExtender;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * @author LeonidM
+ */
+public class ConcurrentTest {
+
+    private static final int THREADS = 8;
+    private static final int PER_THREAD = 50;
+
+    @Test
+    public void concurrentExtensions() throws Exception {
+        int initialLength = ConcurrentEnum.values().length;
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<List<ConcurrentEnum>>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int thread = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    EnumExtender<ConcurrentEnum> enumExtender = EnumExtender.of(ConcurrentEnum.class);
+
+                    List<ConcurrentEnum> created = new ArrayList<>();
+                    for (int j = 0; j < PER_THREAD; j++) {
+                        var builder = enumExtender.enumBuilder("T" + thread + "_" + j);
+                        if (j % 2 == 0) {
+                            builder.insertBefore(ConcurrentEnum.B);
+                        }
+
+                        created.add(builder.create().getEnum());
+                    }
+                    return created;
+                }));
+            }
+
+            start.countDown();
+
+            Set<ConcurrentEnum> created = new HashSet<>();
+            for (Future<List<ConcurrentEnum>> future : futures) {
+                created.addAll(future.get());
+            }
+
+            assertEquals(THREADS * PER_THREAD, created.size());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        ConcurrentEnum[] values = ConcurrentEnum.values();
+        assertEquals(initialLength + THREADS * PER_THREAD, values.length);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(i, values[i].ordinal());
+            assertSame(values[i], ConcurrentEnum.valueOf(values[i].name()));
+        }
+
+        EnumExtender.of(ConcurrentEnum.class).switchCase().patch(getClass().getClassLoader(), true);
+        for (ConcurrentEnum value : values) {
+            assertEquals(value.name(), switchCase(value));
+        }
+    }
+
+    @Test
+    public void sameExtenderFromManyThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<EnumExtender<ConcurrentEnum>>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> EnumExtender.of(ConcurrentEnum.class)));
+            }
+
+            EnumExtender<ConcurrentEnum> expected = EnumExtender.of(ConcurrentEnum.class);
+            for (Future<EnumExtender<ConcurrentEnum>> future : futures) {
+                assertSame(expected, future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @NotNull
+    private String switchCase(@NotNull ConcurrentEnum e) {
+        switch (e) {
+            case A:
+                return "A";
+            case B:
+                return "B";
+            case C:
+                return "C";
+            default:
+                return e.name();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package ru.leonidm.enumextender.test.constructor;
+
+import lombok.Getter;
+
+/**
+ * @author LeonidM
+ */
+@Getter
+public enum ConstructorEnum {
+    A("a", 1),
+    B("b", 2),
+    C;
+
+    private final String label;
+    private final int weight;
+    private final String description;
+
+    ConstructorEnum() {
+        this("default", 0);
+    }
+
+    ConstructorEnum(String label, int weight) {
+        this.label = label;
+        this.weight = weight;
+        this.description = label + ":" + weight + ":" + name() + ":" + ordinal();
+    }
+}
@@ -0,0 +1,58 @@
+package ru.leonidm.enumextender.test.constructor;
+
+import org.junit.jupiter.api.Test;
+import ru.leonidm.enumextender.api.EnumExtendException;
+import ru.leonidm.enumextender.api.EnumExtender;
+import ru.leonidm.enumextender.api.EnumResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author LeonidM
+ */
+public class ConstructorTest {
+
+    private final EnumExtender<ConstructorEnum> enumExtender = EnumExtender.of(ConstructorEnum.class);
+
+    @Test
+    public void constructor() {
+        ConstructorEnum d = enumExtender.enumBuilder("D")
+                .constructor("d", 4)
+                .create()
+                .getEnum();
+
+        assertEquals("d", d.getLabel());
+        assertEquals(4, d.getWeight());
+        assertEquals("d:4:D:3", d.getDescription());
+        assertEquals(d, ConstructorEnum.valueOf("D"));
+
+        ConstructorEnum e = enumExtender.enumBuilder("E")
+                .constructor()
+                .setField("weight", 10)
+                .insertBefore(ConstructorEnum.A)
+                .create()
+                .getEnum();
+
+        assertEquals("default", e.getLabel());
+        assertEquals(10, e.getWeight());
+        assertEquals("default:0:E:0", e.getDescription());
+        assertEquals(0, e.ordinal());
+
+        List<EnumResult<ConstructorEnum>> results = enumExtender.extendAll(List.of(
+                enumExtender.enumBuilder("F").constructor("f", 6),
+                enumExtender.enumBuilder("G").constructor("g", 7)
+        ));
+        assertEquals("f:6:F:5", results.get(0).getEnum().getDescription());
+        assertEquals("g:7:G:6", results.get(1).getEnum().getDescription());
+
+        EnumResult<ConstructorEnum> result = enumExtender.enumBuilder("H")
+                .constructor(1, "h")
+                .create();
+        assertInstanceOf(EnumResult.Error.class, result);
+        assertThrows(EnumExtendException.class, result::getEnum);
+    }
+}
@@ -0,0 +1,10 @@
+package ru.leonidm.enumextender.test.eagercaches;
+
+/**
+ * @author LeonidM
+ */
+public enum EagerCachesEnum {
+    A,
+    B,
+    C
+}
@@ -0,0 +1,49 @@
+package ru.leonidm.enumextender.test.eagercaches;
+
+import org.junit.jupiter.api.Test;
+import ru.leonidm.enumextender.api.EnumExtender;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author LeonidM
+ */
+public class EagerCachesTest {
+
+    private final EnumExtender<EagerCachesEnum> enumExtender = EnumExtender.of(EagerCachesEnum.class)
+            .setEagerCaches(true);
+
+    @Test
+    public void eagerCaches() {
+        EagerCachesEnum d = enumExtender.addEnum("D", Map.of()).getEnum();
+
+        Map<String, EagerCachesEnum> directory = enumExtender.getEnumMetadata().getEnumConstantDirectory();
+        assertNotNull(directory);
+        assertEquals(4, directory.size());
+        assertSame(d, directory.get("D"));
+
+        assertSame(d, EagerCachesEnum.valueOf("D"));
+        assertEquals(List.of(EagerCachesEnum.A, EagerCachesEnum.B, EagerCachesEnum.C, d),
+                List.of(EagerCachesEnum.class.getEnumConstants()));
+        assertTrue(EnumSet.allOf(EagerCachesEnum.class).contains(d));
+
+        EnumMap<EagerCachesEnum, String> enumMap = new EnumMap<>(EagerCachesEnum.class);
+        enumMap.put(d, "D");
+        assertEquals("D", enumMap.get(d));
+
+        enumExtender.removeEnum(d);
+
+        directory = enumExtender.getEnumMetadata().getEnumConstantDirectory();
+        assertNotNull(directory);
+        assertEquals(3, directory.size());
+        assertEquals(3, EagerCachesEnum.class.getEnumConstants().length);
+    }
+}
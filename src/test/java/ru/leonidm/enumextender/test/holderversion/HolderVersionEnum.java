@@ -0,0 +1,9 @@
+package ru.leonidm.enumextender.test.holderversion;
+
+/**
+ * @author LeonidM
+ */
+public enum HolderVersionEnum {
+    A,
+    B
+}
@@ -0,0 +1,27 @@
+package ru.leonidm.enumextender.test.holderversion;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Switch-case, whose synthetic class is initialized only when it is called first time
+ *
+ * @author LeonidM
+ */
+public final class HolderVersionSwitch {
+
+    private HolderVersionSwitch() {
+
+    }
+
+    @NotNull
+    public static String switchCase(@NotNull HolderVersionEnum e) {
+        switch (e) {
+            case A:
+                return "A";
+            case B:
+                return "B";
+            default:
+                return "-" + e.name();
+        }
+    }
+}
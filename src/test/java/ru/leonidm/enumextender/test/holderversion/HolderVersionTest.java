@@ -0,0 +1,38 @@
+package ru.leonidm.enumextender.test.holderversion;
+
+import org.junit.jupiter.api.Test;
+import ru.leonidm.enumextender.api.EnumExtender;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author LeonidM
+ */
+public class HolderVersionTest {
+
+    private final EnumExtender<HolderVersionEnum> enumExtender = EnumExtender.of(HolderVersionEnum.class);
+
+    @Test
+    public void repeatedLength() {
+        HolderVersionEnum x = enumExtender.insertEnum("X", Map.of(), HolderVersionEnum.A).getEnum();
+        enumExtender.switchCase().patch(getClass().getClassLoader(), true);
+
+        // Switch-case class is initialized at [X, A, B] after the patch and is not patched until values are [A, B, Y]
+        assertEquals("A", HolderVersionSwitch.switchCase(HolderVersionEnum.A));
+        assertEquals("-X", HolderVersionSwitch.switchCase(x));
+
+        enumExtender.removeEnum(x).getEnum();
+        HolderVersionEnum y = enumExtender.addEnum("Y", Map.of()).getEnum();
+        assertArrayEquals(new HolderVersionEnum[]{HolderVersionEnum.A, HolderVersionEnum.B, y},
+                HolderVersionEnum.values());
+
+        enumExtender.switchCase().patch(getClass().getClassLoader(), true);
+
+        assertEquals("A", HolderVersionSwitch.switchCase(HolderVersionEnum.A));
+        assertEquals("B", HolderVersionSwitch.switchCase(HolderVersionEnum.B));
+        assertEquals("-Y", HolderVersionSwitch.switchCase(y));
+    }
+}
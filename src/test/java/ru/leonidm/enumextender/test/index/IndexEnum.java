@@ -0,0 +1,10 @@
+package ru.leonidm.enumextender.test.index;
+
+/**
+ * @author LeonidM
+ */
+public enum IndexEnum {
+    A,
+    B,
+    C
+}
@@ -0,0 +1,9 @@
+package ru.leonidm.enumextender.test.index;
+
+/**
+ * @author LeonidM
+ */
+public enum IndexSkipEnum {
+    A,
+    B
+}
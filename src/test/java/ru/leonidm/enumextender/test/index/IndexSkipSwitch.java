@@ -0,0 +1,27 @@
+package ru.leonidm.enumextender.test.index;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Switch-case, whose synthetic class is loaded only when it is called first time
+ *
+ * @author LeonidM
+ */
+public final class IndexSkipSwitch {
+
+    private IndexSkipSwitch() {
+
+    }
+
+    @NotNull
+    public static String switchCase(@NotNull IndexSkipEnum e) {
+        switch (e) {
+            case A:
+                return "A";
+            case B:
+                return "B";
+            default:
+                return "-" + e.name();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ru.leonidm.enumextender.test.index;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import ru.leonidm.enumextender.api.EnumExtender;
+import ru.leonidm.enumextender.api.SwitchCasePatcher;
+import ru.leonidm.enumextender.api.SwitchMapIndex;
+import ru.leonidm.enumextender.util.ClassLoaderUtils;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * @author LeonidM
+ */
+public class IndexTest {
+
+    private final EnumExtender<IndexEnum> enumExtender = EnumExtender.of(IndexEnum.class);
+
+    @Test
+    public void index() throws Exception {
+        File classes = new File(getClass().getProtectionDomain().getCodeSource().getLocation().toURI());
+        SwitchMapIndex index = SwitchMapIndex.scan(List.of(classes));
+
+        assertEquals(List.of(getClass().getName() + "$1"), index.getHolders(IndexEnum.class));
+
+        IndexEnum d = enumExtender.insertEnum("D", Map.of(), IndexEnum.B).getEnum();
+        enumExtender.switchCase()
+                .addPatcher(SwitchCasePatcher.mappingTable(IndexEnum.class)
+                        .forClass(getClass(), Map.of(d, IndexEnum.C))
+                        .build())
+                .patch(index, getClass().getClassLoader());
+
+        assertEquals("A", switchCase(IndexEnum.A));
+        assertEquals("B", switchCase(IndexEnum.B));
+        assertEquals("C", switchCase(IndexEnum.C));
+        assertEquals("C", switchCase(d));
+    }
+
+    @Test
+    public void skipUnloaded() throws Exception {
+        File classes = new File(getClass().getProtectionDomain().getCodeSource().getLocation().toURI());
+        SwitchMapIndex index = SwitchMapIndex.scan(List.of(classes));
+
+        String holderName = IndexSkipSwitch.class.getName() + "$1";
+        assertEquals(List.of(holderName), index.getHolders(IndexSkipEnum.class));
+        assertEquals(IndexSkipSwitch.class.getName(), index.getOriginalClass(holderName));
+
+        EnumExtender<IndexSkipEnum> enumExtender = EnumExtender.of(IndexSkipEnum.class);
+        IndexSkipEnum c = enumExtender.insertEnum("C", Map.of(), IndexSkipEnum.A).getEnum();
+        ClassLoader classLoader = getClass().getClassLoader();
+        enumExtender.switchCase().patch(index, classLoader);
+
+        // No patcher applies to the class, so it is not loaded until it is used
+        assertNull(ClassLoaderUtils.findLoadedClass(classLoader, holderName));
+        assertEquals("A", IndexSkipSwitch.switchCase(IndexSkipEnum.A));
+        assertEquals("B", IndexSkipSwitch.switchCase(IndexSkipEnum.B));
+        assertEquals("-C", IndexSkipSwitch.switchCase(c));
+    }
+
+    @NotNull
+    private String switchCase(@NotNull IndexEnum e) {
+        switch (e) {
+            case A:
+                return "A";
+            case B:
+                return "B";
+            case C:
+                return "C";
+            default:
+                return "-" + e.name();
+        }
+    }
+}
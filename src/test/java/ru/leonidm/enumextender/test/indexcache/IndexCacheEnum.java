@@ -0,0 +1,10 @@
+package ru.leonidm.enumextender.test.indexcache;
+
+/**
+ * @author LeonidM
+ */
+public enum IndexCacheEnum {
+    A,
+    B,
+    C
+}
@@ -0,0 +1,131 @@
+package ru.leonidm.enumextender.test.indexcache;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.leonidm.enumextender.api.EnumExtender;
+import ru.leonidm.enumextender.api.SwitchCasePatcher;
+import ru.leonidm.enumextender.api.SwitchMapIndex;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author LeonidM
+ */
+public class IndexCacheTest {
+
+    private final EnumExtender<IndexCacheEnum> enumExtender = EnumExtender.of(IndexCacheEnum.class);
+
+    @Test
+    public void indexCache(@TempDir Path directory) throws Exception {
+        String holderName = getClass().getName() + "$1";
+        File jar = directory.resolve("holders.jar").toFile();
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar.toPath()));
+             InputStream in = getClass().getResourceAsStream(getClass().getSimpleName() + "$1.class")) {
+            out.putNextEntry(new JarEntry(holderName.replace('.', '/') + ".class"));
+            in.transferTo(out);
+            out.closeEntry();
+        }
+
+        Path cacheFile = directory.resolve("cache").resolve("switchmaps.bin");
+        SwitchMapIndex index = SwitchMapIndex.scan(List.of(jar), cacheFile);
+        assertEquals(List.of(holderName), index.getHolders(IndexCacheEnum.class));
+        assertTrue(Files.exists(cacheFile));
+
+        // Nothing was changed, so cache is not rewritten
+        long lastModified = Files.getLastModifiedTime(cacheFile).toMillis();
+        byte[] content = Files.readAllBytes(cacheFile);
+        Files.setLastModifiedTime(cacheFile, FileTime.fromMillis(lastModified - 10_000));
+        index = SwitchMapIndex.scan(List.of(jar), cacheFile);
+        assertEquals(List.of(holderName), index.getHolders(IndexCacheEnum.class));
+        assertEquals(getClass().getName(), index.getOriginalClass(holderName));
+        assertEquals(lastModified - 10_000, Files.getLastModifiedTime(cacheFile).toMillis());
+
+        // Changed jar is scanned again
+        assertTrue(jar.setLastModified(jar.lastModified() + 10_000));
+        index = SwitchMapIndex.scan(List.of(jar), cacheFile);
+        assertEquals(List.of(holderName), index.getHolders(IndexCacheEnum.class));
+        assertNotEquals(lastModified - 10_000, Files.getLastModifiedTime(cacheFile).toMillis());
+        assertEquals(content.length, Files.size(cacheFile));
+
+        // Broken cache is ignored
+        Files.write(cacheFile, new byte[]{1, 2, 3});
+        index = SwitchMapIndex.scan(List.of(jar), cacheFile);
+        assertEquals(List.of(holderName), index.getHolders(IndexCacheEnum.class));
+
+        IndexCacheEnum d = enumExtender.insertEnum("D", Map.of(), IndexCacheEnum.B).getEnum();
+        enumExtender.switchCase()
+                .addPatcher(SwitchCasePatcher.mappingTable(IndexCacheEnum.class)
+                        .forClass(getClass(), Map.of(d, IndexCacheEnum.C))
+                        .build())
+                .patch(index, getClass().getClassLoader());
+
+        assertEquals("A", switchCase(IndexCacheEnum.A));
+        assertEquals("C", switchCase(d));
+    }
+
+    @Test
+    public void directoryCache(@TempDir Path directory) throws Exception {
+        String holderName = getClass().getName() + "$1";
+        Path classes = directory.resolve("classes");
+        Path holderFile = classes.resolve(holderName.replace('.', '/') + ".class");
+        Files.createDirectories(holderFile.getParent());
+        try (InputStream in = getClass().getResourceAsStream(getClass().getSimpleName() + "$1.class")) {
+            Files.copy(in, holderFile);
+        }
+
+        Path cacheFile = directory.resolve("switchmaps.bin");
+        SwitchMapIndex index = SwitchMapIndex.scan(List.of(classes.toFile()), cacheFile);
+        assertEquals(List.of(holderName), index.getHolders(IndexCacheEnum.class));
+        assertTrue(Files.exists(cacheFile));
+
+        // Files of the directory are the same, so cache is not rewritten
+        long lastModified = Files.getLastModifiedTime(cacheFile).toMillis() - 10_000;
+        Files.setLastModifiedTime(cacheFile, FileTime.fromMillis(lastModified));
+        index = SwitchMapIndex.scan(List.of(classes.toFile()), cacheFile);
+        assertEquals(List.of(holderName), index.getHolders(IndexCacheEnum.class));
+        assertEquals(getClass().getName(), index.getOriginalClass(holderName));
+        assertEquals(lastModified, Files.getLastModifiedTime(cacheFile).toMillis());
+
+        // Directory is scanned again after its file was touched, but holders are the same
+        Files.setLastModifiedTime(holderFile, FileTime.fromMillis(Files.getLastModifiedTime(holderFile).toMillis()
+                                                                  + 10_000));
+        index = SwitchMapIndex.scan(List.of(classes.toFile()), cacheFile);
+        assertEquals(List.of(holderName), index.getHolders(IndexCacheEnum.class));
+        assertNotEquals(lastModified, Files.getLastModifiedTime(cacheFile).toMillis());
+
+        // Holders of the directory have changed, so cache is rewritten
+        lastModified = Files.getLastModifiedTime(cacheFile).toMillis() - 10_000;
+        Files.setLastModifiedTime(cacheFile, FileTime.fromMillis(lastModified));
+        Files.delete(holderFile);
+        index = SwitchMapIndex.scan(List.of(classes.toFile()), cacheFile);
+        assertEquals(List.of(), index.getHolders(IndexCacheEnum.class));
+        assertNotEquals(lastModified, Files.getLastModifiedTime(cacheFile).toMillis());
+    }
+
+    @NotNull
+    private String switchCase(@NotNull IndexCacheEnum e) {
+        switch (e) {
+            case A:
+                return "A";
+            case B:
+                return "B";
+            case C:
+                return "C";
+            default:
+                return "-" + e.name();
+        }
+    }
+}
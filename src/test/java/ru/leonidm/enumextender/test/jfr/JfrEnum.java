@@ -0,0 +1,9 @@
+package ru.leonidm.enumextender.test.jfr;
+
+/**
+ * @author LeonidM
+ */
+public enum JfrEnum {
+    A,
+    B
+}
@@ -0,0 +1,85 @@
+package ru.leonidm.enumextender.test.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import ru.leonidm.enumextender.api.EnumExtender;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author LeonidM
+ */
+public class JfrTest {
+
+    private final EnumExtender<JfrEnum> enumExtender = EnumExtender.of(JfrEnum.class);
+
+    @Test
+    public void events() throws Exception {
+        assertEquals("A", switchCase(JfrEnum.A));
+
+        Path file = Files.createTempFile("enum-extender", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("ru.leonidm.enumextender.EnumExtended").withoutThreshold();
+            recording.enable("ru.leonidm.enumextender.SwitchMapScan").withoutThreshold();
+            recording.enable("ru.leonidm.enumextender.SwitchMapPatched").withoutThreshold();
+            recording.start();
+
+            enumExtender.insertEnum("C", Map.of(), JfrEnum.B).getEnum();
+            enumExtender.switchCase().patch(getClass().getClassLoader(), true);
+
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+            RecordedEvent extended = find(events, "ru.leonidm.enumextender.EnumExtended");
+            assertEquals(JfrEnum.class.getName(), extended.getClass("enumClass").getName());
+            assertEquals("C", extended.getString("constantName"));
+            assertEquals(1, extended.getInt("ordinal"));
+            assertEquals(3, extended.getInt("valuesLength"));
+
+            RecordedEvent scan = find(events, "ru.leonidm.enumextender.SwitchMapScan");
+            assertTrue(scan.getInt("scannedClasses") > 0);
+
+            RecordedEvent patched = find(events, "ru.leonidm.enumextender.SwitchMapPatched");
+            assertEquals(JfrEnum.class.getName(), patched.getClass("enumClass").getName());
+            assertEquals(2, patched.getInt("oldLength"));
+            assertEquals(3, patched.getInt("newLength"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        assertEquals("-C", switchCase(JfrEnum.valueOf("C")));
+    }
+
+    @NotNull
+    private static RecordedEvent find(@NotNull List<RecordedEvent> events, @NotNull String name) {
+        List<RecordedEvent> found = events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .toList();
+        assertFalse(found.isEmpty(), name);
+        return found.get(0);
+    }
+
+    @NotNull
+    private String switchCase(@NotNull JfrEnum e) {
+        switch (e) {
+            case A:
+                return "A";
+            case B:
+                return "B";
+            default:
+                return "-" + e.name();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package ru.leonidm.enumextender.test.manifest;
+
+/**
+ * @author LeonidM
+ */
+public enum ManifestEnum {
+    A,
+    B,
+    C
+}
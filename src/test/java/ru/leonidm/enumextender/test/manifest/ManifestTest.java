@@ -0,0 +1,54 @@
+package ru.leonidm.enumextender.test.manifest;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import ru.leonidm.enumextender.api.EnumExtender;
+import ru.leonidm.enumextender.api.SwitchCasePatcher;
+import ru.leonidm.enumextender.api.SwitchMapIndex;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author LeonidM
+ */
+public class ManifestTest {
+
+    private final EnumExtender<ManifestEnum> enumExtender = EnumExtender.of(ManifestEnum.class);
+
+    @Test
+    public void manifest() {
+        SwitchMapIndex index = SwitchMapIndex.fromManifests(getClass().getClassLoader());
+        assertEquals(List.of(getClass().getName() + "$1"), index.getHolders(ManifestEnum.class));
+
+        assertEquals("A", switchCase(ManifestEnum.A));
+
+        ManifestEnum d = enumExtender.insertEnum("D", Map.of(), ManifestEnum.B).getEnum();
+        enumExtender.switchCase()
+                .addPatcher(SwitchCasePatcher.mappingTable(ManifestEnum.class)
+                        .forClass(getClass(), Map.of(d, ManifestEnum.C))
+                        .build())
+                .patchFromManifests(getClass().getClassLoader());
+
+        assertEquals("A", switchCase(ManifestEnum.A));
+        assertEquals("B", switchCase(ManifestEnum.B));
+        assertEquals("C", switchCase(ManifestEnum.C));
+        assertEquals("C", switchCase(d));
+    }
+
+    @NotNull
+    private String switchCase(@NotNull ManifestEnum e) {
+        switch (e) {
+            case A:
+                return "A";
+            case B:
+                return "B";
+            case C:
+                return "C";
+            default:
+                return "-" + e.name();
+        }
+    }
+}
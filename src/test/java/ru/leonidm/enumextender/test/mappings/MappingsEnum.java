@@ -0,0 +1,10 @@
+package ru.leonidm.enumextender.test.mappings;
+
+/**
+ * @author LeonidM
+ */
+public enum MappingsEnum {
+    A,
+    B,
+    C
+}
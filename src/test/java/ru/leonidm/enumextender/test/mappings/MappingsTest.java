@@ -0,0 +1,51 @@
+package ru.leonidm.enumextender.test.mappings;
+
+import org.junit.jupiter.api.Test;
+import ru.leonidm.enumextender.api.SwitchCasePatcher;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * @author LeonidM
+ */
+public class MappingsTest {
+
+    @Test
+    public void ordinalCaseIndex() {
+        SwitchCasePatcher<MappingsEnum> patcher = SwitchCasePatcher.mappings(originalClass -> Map.of(MappingsEnum.C,
+                MappingsEnum.A));
+
+        // Case index of the value is always its ordinal + 1, even if cases are declared as C, A, B
+        assertArrayEquals(new int[]{1, 2, 1}, patcher.patch(Object.class, new int[]{1, 2, 3}));
+        assertArrayEquals(new int[]{2, 3, 1}, patcher.patch(Object.class, new int[]{2, 3, 3}));
+    }
+
+    @Test
+    public void chainedMappings() {
+        Map<MappingsEnum, MappingsEnum> keyFirst = new LinkedHashMap<>();
+        keyFirst.put(MappingsEnum.C, MappingsEnum.A);
+        keyFirst.put(MappingsEnum.A, MappingsEnum.B);
+
+        Map<MappingsEnum, MappingsEnum> valueFirst = new LinkedHashMap<>();
+        valueFirst.put(MappingsEnum.A, MappingsEnum.B);
+        valueFirst.put(MappingsEnum.C, MappingsEnum.A);
+
+        // Array is not read, so order of mappings does not matter
+        int[] expected = {2, 2, 1};
+        assertArrayEquals(expected, SwitchCasePatcher.<MappingsEnum>mappings(originalClass -> keyFirst)
+                .patch(Object.class, new int[]{1, 2, 3}));
+        assertArrayEquals(expected, SwitchCasePatcher.<MappingsEnum>mappings(originalClass -> valueFirst)
+                .patch(Object.class, new int[]{1, 2, 3}));
+
+        int[] nullValue = SwitchCasePatcher.<MappingsEnum>mappings(originalClass -> {
+            Map<MappingsEnum, MappingsEnum> mappings = new LinkedHashMap<>();
+            mappings.put(MappingsEnum.B, null);
+            mappings.put(MappingsEnum.C, MappingsEnum.B);
+            return mappings;
+        }).patch(Object.class, new int[]{1, 2, 3});
+        assertArrayEquals(new int[]{1, 0, 2}, nullValue);
+    }
+}
@@ -0,0 +1,10 @@
+package ru.leonidm.enumextender.test.mappingtable;
+
+/**
+ * @author LeonidM
+ */
+public enum MappingTableEnum {
+    A,
+    B,
+    C
+}
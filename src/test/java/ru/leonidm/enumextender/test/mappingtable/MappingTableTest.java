@@ -0,0 +1,88 @@
+package ru.leonidm.enumextender.test.mappingtable;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import ru.leonidm.enumextender.api.EnumExtender;
+import ru.leonidm.enumextender.api.MappingTablePatcher;
+import ru.leonidm.enumextender.api.SwitchCasePatcher;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author LeonidM
+ */
+public class MappingTableTest {
+
+    private final EnumExtender<MappingTableEnum> enumExtender = EnumExtender.of(MappingTableEnum.class);
+
+    @Test
+    public void mappingTable() {
+        assertEquals("A", switchCase(MappingTableEnum.A));
+
+        MappingTableEnum d = enumExtender.insertEnum("D", Map.of(), MappingTableEnum.A).getEnum();
+        MappingTableEnum e = enumExtender.addEnum("E", Map.of()).getEnum();
+
+        Map<MappingTableEnum, MappingTableEnum> toDefault = new HashMap<>();
+        toDefault.put(MappingTableEnum.C, null);
+
+        enumExtender.switchCase().addPatcher(SwitchCasePatcher.mappingTable(MappingTableEnum.class)
+                .forClass(MappingTableTest.class, Map.of(d, MappingTableEnum.B))
+                .forPrefix("ru.leonidm.enumextender.test.mappingtable.", Map.of(e, MappingTableEnum.A))
+                .forClasses(clazz -> clazz.getName().startsWith(MappingTableTest.class.getName()), toDefault)
+                .build());
+        enumExtender.switchCase().patch(getClass().getClassLoader(), true);
+
+        assertEquals("A", switchCase(MappingTableEnum.A));
+        assertEquals("B", switchCase(MappingTableEnum.B));
+        assertEquals("-C", switchCase(MappingTableEnum.C));
+        assertEquals("B", switchCase(d));
+        assertEquals("A", switchCase(e));
+    }
+
+    @Test
+    public void appliesTo() {
+        MappingTablePatcher<MappingTableEnum> patcher = SwitchCasePatcher.mappingTable(MappingTableEnum.class)
+                .forClass(String.class, Map.of(MappingTableEnum.A, MappingTableEnum.B))
+                .forClass(String.class, Map.of(MappingTableEnum.C, MappingTableEnum.B))
+                .forPrefix("java.util.", Map.of(MappingTableEnum.B, MappingTableEnum.C))
+                .build();
+
+        assertTrue(patcher.appliesTo(String.class));
+        assertTrue(patcher.appliesTo(HashMap.class));
+        assertFalse(patcher.appliesTo(Integer.class));
+
+        assertArrayEquals(new int[]{2, 2, 2}, patcher.patch(String.class, new int[]{1, 2, 3}));
+        assertArrayEquals(new int[]{1, 3, 3}, patcher.patch(HashMap.class, new int[]{1, 2, 3}));
+    }
+
+    @Test
+    public void rulesDoNotDependOnEachOther() {
+        // C follows the original branch of A, even though A is remapped by the rule applied before
+        MappingTablePatcher<MappingTableEnum> patcher = SwitchCasePatcher.mappingTable(MappingTableEnum.class)
+                .forClass(String.class, Map.of(MappingTableEnum.A, MappingTableEnum.B))
+                .forPrefix("java.lang.", Map.of(MappingTableEnum.C, MappingTableEnum.A))
+                .build();
+
+        assertArrayEquals(new int[]{2, 2, 1}, patcher.patch(String.class, new int[]{1, 2, 3}));
+    }
+
+    @NotNull
+    private String switchCase(@NotNull MappingTableEnum e) {
+        switch (e) {
+            case A:
+                return "A";
+            case B:
+                return "B";
+            case C:
+                return "C";
+            default:
+                return "-" + e.name();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package ru.leonidm.enumextender.test.metrics;
+
+/**
+ * @author LeonidM
+ */
+public enum MetricsEnum {
+    A,
+    B
+}
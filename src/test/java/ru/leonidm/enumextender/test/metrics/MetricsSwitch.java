@@ -0,0 +1,21 @@
+package ru.leonidm.enumextender.test.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * @author LeonidM
+ */
+public class MetricsSwitch {
+
+    @NotNull
+    public static String switchCase(@NotNull MetricsEnum e) {
+        switch (e) {
+            case A:
+                return "A";
+            case B:
+                return "B";
+            default:
+                return "-" + e.name();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package ru.leonidm.enumextender.test.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.leonidm.enumextender.api.EnumExtender;
+import ru.leonidm.enumextender.metrics.InMemoryMetricsRecorder;
+import ru.leonidm.enumextender.metrics.Metrics;
+import ru.leonidm.enumextender.metrics.MetricsRecorder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author LeonidM
+ */
+public class MetricsTest {
+
+    @AfterEach
+    public void disable() {
+        Metrics.setRecorder(null);
+    }
+
+    @Test
+    public void disabledByDefault() {
+        assertSame(MetricsRecorder.NOOP, Metrics.getRecorder());
+        assertFalse(Metrics.getRecorder().isEnabled());
+    }
+
+    @Test
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void inMemory() throws Throwable {
+        // Own copies of the classes are loaded, so the counts do not depend on the previous tests
+        ClassLoader classLoader = new IsolatingClassLoader(getClass().getClassLoader());
+        Class<?> enumClass = Class.forName(MetricsEnum.class.getName(), true, classLoader);
+        Class<?> switchClass = Class.forName(MetricsSwitch.class.getName(), true, classLoader);
+        MethodHandle switchCase = MethodHandles.publicLookup()
+                .findStatic(switchClass, "switchCase", MethodType.methodType(String.class, enumClass));
+
+        EnumExtender enumExtender = EnumExtender.of((Class) enumClass);
+        Enum<?> a = Enum.valueOf((Class) enumClass, "A");
+        assertEquals("A", (String) switchCase.invoke(a));
+
+        InMemoryMetricsRecorder recorder = new InMemoryMetricsRecorder();
+        Metrics.setRecorder(recorder);
+
+        Enum<?> c = (Enum<?>) enumExtender.addEnum("C", Map.of()).getEnum();
+        Enum<?> d = (Enum<?>) enumExtender.insertEnum("D", Map.of(), a).getEnum();
+        enumExtender.switchCase().patch(classLoader, false);
+        enumExtender.removeEnum(c).getEnum();
+
+        assertEquals("A", (String) switchCase.invoke(a));
+        assertEquals("-D", (String) switchCase.invoke(d));
+
+        InMemoryMetricsRecorder.Snapshot snapshot = recorder.snapshot();
+        assertEquals(2, snapshot.extensions());
+        assertEquals(2, snapshot.extendedConstants());
+        assertTrue(snapshot.extensionNanos() > 0);
+        assertEquals(1, snapshot.removals());
+        assertEquals(1, snapshot.removedConstants());
+        assertEquals(1, snapshot.patches());
+        // Enumeration, class with the switch and its switch-case synthetic class
+        assertEquals(3, snapshot.inspectedClasses());
+        assertEquals(1, snapshot.matchedHolders());
+        assertEquals(1, snapshot.rewrittenArrays());
+        assertEquals(1, snapshot.classLoaderLocks());
+        assertEquals(3, snapshot.lockedClasses());
+        assertTrue(snapshot.maxClassLoaderLockNanos() <= snapshot.classLoaderLockNanos());
+
+        recorder.reset();
+        assertEquals(0, recorder.snapshot().extensions());
+        assertEquals(0, recorder.snapshot().lockedClasses());
+    }
+
+    private static class IsolatingClassLoader extends ClassLoader {
+
+        private IsolatingClassLoader(@NotNull ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(MetricsEnum.class.getName()) && !name.startsWith(MetricsSwitch.class.getName())) {
+                return super.loadClass(name, resolve);
+            }
+
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> clazz = findLoadedClass(name);
+                if (clazz != null) {
+                    return clazz;
+                }
+
+                try (InputStream inputStream = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                    if (inputStream == null) {
+                        throw new ClassNotFoundException(name);
+                    }
+
+                    byte[] bytes = inputStream.readAllBytes();
+                    return defineClass(name, bytes, 0, bytes.length);
+                } catch (IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package ru.leonidm.enumextender.test.parallel;
+
+/**
+ * @author LeonidM
+ */
+public enum ParallelEnum {
+    A,
+    B,
+    C
+}
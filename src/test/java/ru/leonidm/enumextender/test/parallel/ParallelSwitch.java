@@ -0,0 +1,25 @@
+package ru.leonidm.enumextender.test.parallel;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Second class with switch-case on {@link ParallelEnum}, so there are several switch-case synthetic classes
+ *
+ * @author LeonidM
+ */
+public class ParallelSwitch {
+
+    @NotNull
+    public static String switchCase(@NotNull ParallelEnum e) {
+        switch (e) {
+            case A:
+                return "a";
+            case B:
+                return "b";
+            case C:
+                return "c";
+            default:
+                return "+" + e.name();
+        }
+    }
+}
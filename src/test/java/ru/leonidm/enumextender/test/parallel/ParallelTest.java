@@ -0,0 +1,63 @@
+package ru.leonidm.enumextender.test.parallel;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import ru.leonidm.enumextender.agent.SwitchMapHolders;
+import ru.leonidm.enumextender.api.EnumExtender;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author LeonidM
+ */
+public class ParallelTest {
+
+    private final EnumExtender<ParallelEnum> enumExtender = EnumExtender.of(ParallelEnum.class);
+
+    @Test
+    public void parallelPatch() {
+        assertEquals("a", ParallelSwitch.switchCase(ParallelEnum.A));
+        assertEquals("A", switchCase(ParallelEnum.A));
+
+        List<ParallelEnum> created = List.of(
+                enumExtender.enumBuilder("D").insertBefore(ParallelEnum.B).create().getEnum(),
+                enumExtender.enumBuilder("E").create().getEnum()
+        );
+
+        enumExtender.switchCase()
+                .setParallelThreshold(1)
+                .patch(getClass().getClassLoader(), true);
+
+        String switchMapName = SwitchMapHolders.getSwitchMapName(ParallelEnum.class);
+        assertTrue(SwitchMapHolders.getHolders(switchMapName).size() >= 2);
+
+        for (ParallelEnum e : ParallelEnum.values()) {
+            boolean isCreated = created.contains(e);
+            assertEquals(isCreated ? "-" + e.name() : e.name(), switchCase(e));
+            assertEquals(isCreated ? "+" + e.name() : e.name().toLowerCase(), ParallelSwitch.switchCase(e));
+        }
+    }
+
+    @Test
+    public void invalidThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> enumExtender.switchCase().setParallelThreshold(0));
+    }
+
+    @NotNull
+    private String switchCase(@NotNull ParallelEnum e) {
+        switch (e) {
+            case A:
+                return "A";
+            case B:
+                return "B";
+            case C:
+                return "C";
+            default:
+                return "-" + e.name();
+        }
+    }
+}
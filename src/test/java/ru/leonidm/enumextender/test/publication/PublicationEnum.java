@@ -0,0 +1,10 @@
+package ru.leonidm.enumextender.test.publication;
+
+/**
+ * @author LeonidM
+ */
+public enum PublicationEnum {
+    A,
+    B,
+    C
+}
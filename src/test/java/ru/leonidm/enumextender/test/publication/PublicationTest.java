@@ -0,0 +1,80 @@
+package ru.leonidm.enumextender.test.publication;
+
+import org.junit.jupiter.api.Test;
+import ru.leonidm.enumextender.api.EnumExtender;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author LeonidM
+ */
+public class PublicationTest {
+
+    private final EnumExtender<PublicationEnum> enumExtender = EnumExtender.of(PublicationEnum.class);
+
+    @Test
+    public void stampChangesOnPublication() {
+        long stamp = enumExtender.readStamp();
+        assertEquals(0, stamp & 1);
+        assertTrue(enumExtender.validateStamp(stamp));
+
+        enumExtender.enumBuilder("D").create().getEnum();
+
+        assertTrue(!enumExtender.validateStamp(stamp));
+        assertNotEquals(stamp, enumExtender.readStamp());
+    }
+
+    @Test
+    public void readersSeeConsistentValues() throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                long stamp;
+                PublicationEnum[] values;
+                int[] ordinals;
+                PublicationEnum[] lookedUp;
+                do {
+                    stamp = enumExtender.readStamp();
+                    values = enumExtender.getEnumMetadata().getValues();
+                    ordinals = new int[values.length];
+                    lookedUp = new PublicationEnum[values.length];
+                    for (int i = 0; i < values.length; i++) {
+                        ordinals[i] = values[i].ordinal();
+                        lookedUp[i] = PublicationEnum.valueOf(values[i].name());
+                    }
+                } while (!enumExtender.validateStamp(stamp));
+
+                for (int i = 0; i < values.length; i++) {
+                    if (ordinals[i] != i || lookedUp[i] != values[i]) {
+                        failure.compareAndSet(null, "Inconsistent %s at %s".formatted(values[i], i));
+                    }
+                }
+            }
+        });
+        reader.start();
+
+        try {
+            for (int i = 0; i < 200; i++) {
+                var builder = enumExtender.enumBuilder("P" + i);
+                if (i % 2 == 0) {
+                    builder.insertBefore(PublicationEnum.B);
+                }
+
+                builder.create().getEnum();
+            }
+        } finally {
+            running.set(false);
+            reader.join();
+        }
+
+        assertNull(failure.get());
+    }
+}
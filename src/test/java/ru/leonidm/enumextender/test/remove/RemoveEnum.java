@@ -0,0 +1,10 @@
+package ru.leonidm.enumextender.test.remove;
+
+/**
+ * @author LeonidM
+ */
+public enum RemoveEnum {
+    A,
+    B,
+    C
+}
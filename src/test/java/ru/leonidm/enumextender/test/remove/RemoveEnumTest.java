@@ -0,0 +1,106 @@
+package ru.leonidm.enumextender.test.remove;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import ru.leonidm.enumextender.agent.SwitchMapHolders;
+import ru.leonidm.enumextender.api.EnumExtendException;
+import ru.leonidm.enumextender.api.EnumExtender;
+import ru.leonidm.enumextender.api.EnumResult;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author LeonidM
+ */
+public class RemoveEnumTest {
+
+    private final EnumExtender<RemoveEnum> enumExtender = EnumExtender.of(RemoveEnum.class);
+
+    @Test
+    public void removeEnum() throws Exception {
+        RemoveEnum x = enumExtender.enumBuilder("X").insertBefore(RemoveEnum.B).create().getEnum();
+        RemoveEnum y = enumExtender.enumBuilder("Y").create().getEnum();
+        enumExtender.switchCase().patch(getClass().getClassLoader(), true);
+
+        assertEquals("-X", switchCase(x));
+        assertEquals("B", switchCase(RemoveEnum.B));
+
+        assertSame(x, enumExtender.removeEnum(x).getEnum());
+        enumExtender.switchCase().patch(getClass().getClassLoader(), true);
+
+        assertArrayEquals(new RemoveEnum[]{RemoveEnum.A, RemoveEnum.B, RemoveEnum.C, y}, RemoveEnum.values());
+        assertThrows(IllegalArgumentException.class, () -> RemoveEnum.valueOf("X"));
+        for (RemoveEnum e : RemoveEnum.values()) {
+            assertSame(e, RemoveEnum.valueOf(e.name()));
+        }
+
+        assertEquals("A", switchCase(RemoveEnum.A));
+        assertEquals("B", switchCase(RemoveEnum.B));
+        assertEquals("C", switchCase(RemoveEnum.C));
+        assertEquals("-Y", switchCase(y));
+
+        assertThrowsExactly(EnumExtendException.class, () -> enumExtender.removeEnum(x).getEnum());
+        assertThrowsExactly(EnumExtendException.class, () -> enumExtender.removeEnum(RemoveEnum.B).getEnum());
+
+        assertSame(y, enumExtender.removeEnum(y).getEnum());
+        assertArrayEquals(new RemoveEnum[]{RemoveEnum.A, RemoveEnum.B, RemoveEnum.C}, RemoveEnum.values());
+    }
+
+    @Test
+    public void reloads() throws Exception {
+        int length = RemoveEnum.values().length;
+
+        for (int i = 0; i < 1000; i++) {
+            RemoveEnum first = enumExtender.enumBuilder("R" + i).insertBefore(RemoveEnum.A).create().getEnum();
+            RemoveEnum second = enumExtender.enumBuilder("S" + i).create().getEnum();
+            enumExtender.switchCase().patch(getClass().getClassLoader(), true);
+
+            assertEquals("-R" + i, switchCase(first));
+            assertEquals("-S" + i, switchCase(second));
+            assertEquals("A", switchCase(RemoveEnum.A));
+            assertEquals("C", switchCase(RemoveEnum.C));
+
+            for (EnumResult<RemoveEnum> result : enumExtender.removeEnums(List.of(second, first))) {
+                assertSame(result.getEnum() == first ? first : second, result.getEnum());
+            }
+        }
+
+        enumExtender.switchCase().patch(getClass().getClassLoader(), true);
+        assertEquals(length, RemoveEnum.values().length);
+        assertEquals(length, RemoveEnum.class.getEnumConstants().length);
+
+        String switchMapName = SwitchMapHolders.getSwitchMapName(RemoveEnum.class);
+        for (Class<?> holder : SwitchMapHolders.getHolders(switchMapName)) {
+            Field field = holder.getDeclaredField(switchMapName);
+            field.setAccessible(true);
+            // Arrays of final fields are reused, so they never exceed the biggest amount of values
+            assertTrue(((int[]) field.get(null)).length <= length + 2);
+        }
+
+        for (RemoveEnum e : RemoveEnum.values()) {
+            assertEquals(e.name(), switchCase(e));
+        }
+    }
+
+    @NotNull
+    private String switchCase(@NotNull RemoveEnum e) {
+        switch (e) {
+            case A:
+                return "A";
+            case B:
+                return "B";
+            case C:
+                return "C";
+            default:
+                return "-" + e.name();
+        }
+    }
+}
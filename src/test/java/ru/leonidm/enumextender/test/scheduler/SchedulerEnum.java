@@ -0,0 +1,9 @@
+package ru.leonidm.enumextender.test.scheduler;
+
+/**
+ * @author LeonidM
+ */
+public enum SchedulerEnum {
+    A,
+    B
+}
@@ -0,0 +1,119 @@
+package ru.leonidm.enumextender.test.scheduler;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.leonidm.enumextender.api.EnumExtender;
+import ru.leonidm.enumextender.api.SwitchCasePatcher;
+import ru.leonidm.enumextender.api.SwitchPatchScheduler;
+import ru.leonidm.enumextender.metrics.InMemoryMetricsRecorder;
+import ru.leonidm.enumextender.metrics.Metrics;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author LeonidM
+ */
+public class SchedulerTest {
+
+    private final EnumExtender<SchedulerEnum> enumExtender = EnumExtender.of(SchedulerEnum.class);
+
+    @AfterEach
+    public void disableMetrics() {
+        Metrics.setRecorder(null);
+    }
+
+    @Test
+    public void coalesce() throws Exception {
+        assertEquals("A", switchCase(SchedulerEnum.A));
+
+        InMemoryMetricsRecorder recorder = new InMemoryMetricsRecorder();
+        Metrics.setRecorder(recorder);
+
+        try (SwitchPatchScheduler scheduler = new SwitchPatchScheduler(Duration.ofMillis(500))) {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            List<SchedulerEnum> created = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                SchedulerEnum e = enumExtender.addEnum("S" + i, Map.of()).getEnum();
+                created.add(e);
+
+                enumExtender.switchCase().addPatcher(SwitchCasePatcher.mappings(originalClass -> Map.of(e, SchedulerEnum.B)));
+                futures.add(scheduler.schedule(enumExtender.switchCase(), getClass().getClassLoader(), i % 2 == 0));
+            }
+
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+            assertEquals(1, recorder.snapshot().patches());
+            for (SchedulerEnum e : created) {
+                assertEquals("B", switchCase(e));
+            }
+        }
+    }
+
+    @Test
+    public void debounce() throws Exception {
+        InMemoryMetricsRecorder recorder = new InMemoryMetricsRecorder();
+        Metrics.setRecorder(recorder);
+
+        try (SwitchPatchScheduler scheduler = new SwitchPatchScheduler(Duration.ofMillis(1000), Duration.ofSeconds(10))) {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                futures.add(scheduler.schedule(enumExtender.switchCase(), getClass().getClassLoader(), false));
+                Thread.sleep(300);
+            }
+
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+            assertEquals(1, recorder.snapshot().patches());
+        }
+    }
+
+    @Test
+    public void maxDelay() throws Exception {
+        InMemoryMetricsRecorder recorder = new InMemoryMetricsRecorder();
+        Metrics.setRecorder(recorder);
+
+        try (SwitchPatchScheduler scheduler = new SwitchPatchScheduler(Duration.ofMillis(500), Duration.ofMillis(1000))) {
+            CompletableFuture<Void> first = scheduler.schedule(enumExtender.switchCase(), getClass().getClassLoader(), false);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+            while (System.nanoTime() < deadline) {
+                scheduler.schedule(enumExtender.switchCase(), getClass().getClassLoader(), false);
+                Thread.sleep(100);
+            }
+
+            assertTrue(first.isDone());
+            assertTrue(recorder.snapshot().patches() >= 2);
+        }
+    }
+
+    @Test
+    public void closed() {
+        SwitchPatchScheduler scheduler = new SwitchPatchScheduler(Duration.ZERO);
+        scheduler.close();
+
+        CompletableFuture<Void> future = scheduler.schedule(enumExtender.switchCase(), getClass().getClassLoader(), true);
+        ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+        assertEquals(IllegalStateException.class, exception.getCause().getClass());
+    }
+
+    @NotNull
+    private String switchCase(@NotNull SchedulerEnum e) {
+        switch (e) {
+            case A:
+                return "A";
+            case B:
+                return "B";
+            default:
+                return "-" + e.name();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.leonidm.enumextender.test.schema;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * @author LeonidM
+ */
+@Getter
+@AllArgsConstructor
+public enum SchemaEnum {
+    A(1, 10L, 0.5, true, "a"),
+    B(2, 20L, 1.5, false, "b");
+
+    private final int integer;
+    private final long longValue;
+    private final double weight;
+    private final boolean bool;
+    private final CharSequence string;
+}
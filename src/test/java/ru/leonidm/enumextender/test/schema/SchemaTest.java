@@ -0,0 +1,75 @@
+package ru.leonidm.enumextender.test.schema;
+
+import org.junit.jupiter.api.Test;
+import ru.leonidm.enumextender.api.EnumExtender;
+import ru.leonidm.enumextender.api.EnumResult;
+import ru.leonidm.enumextender.api.EnumSchema;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author LeonidM
+ */
+public class SchemaTest {
+
+    private final EnumExtender<SchemaEnum> enumExtender = EnumExtender.of(SchemaEnum.class);
+
+    @Test
+    public void schema() {
+        EnumSchema<SchemaEnum> schema = EnumSchema.of(enumExtender);
+        EnumSchema.IntSlot<SchemaEnum> integer = schema.intSlot("integer");
+        EnumSchema.LongSlot<SchemaEnum> longValue = schema.longSlot("longValue");
+        EnumSchema.DoubleSlot<SchemaEnum> weight = schema.doubleSlot("weight");
+        EnumSchema.BooleanSlot<SchemaEnum> bool = schema.booleanSlot("bool");
+        EnumSchema.ObjectSlot<SchemaEnum, String> string = schema.objectSlot("string", String.class);
+
+        assertThrows(IllegalArgumentException.class, () -> schema.intSlot("missing"));
+        assertThrows(IllegalArgumentException.class, () -> schema.intSlot("longValue"));
+        assertThrows(IllegalArgumentException.class, () -> schema.objectSlot("string", Integer.class));
+
+        EnumSchema.Builder<SchemaEnum> builder = schema.builder();
+        for (int i = 0; i < 1000; i++) {
+            builder.set(integer, i)
+                    .set(longValue, i * 100L)
+                    .set(weight, i / 4.0)
+                    .set(bool, i % 2 == 0)
+                    .set(string, "s" + i)
+                    .add("S" + i);
+        }
+
+        List<EnumResult<SchemaEnum>> results = builder.extend();
+        assertEquals(1000, results.size());
+        for (int i = 0; i < 1000; i++) {
+            SchemaEnum e = results.get(i).getEnum();
+            assertEquals("S" + i, e.name());
+            assertEquals(i + 2, e.ordinal());
+            assertEquals(i, e.getInteger());
+            assertEquals(i * 100L, e.getLongValue());
+            assertEquals(i / 4.0, e.getWeight());
+            assertEquals(i % 2 == 0, e.isBool());
+            assertEquals("s" + i, e.getString());
+        }
+
+        // Values are cleared after each instance
+        SchemaEnum empty = builder.set(bool, true)
+                .insertBefore(SchemaEnum.A)
+                .create("EMPTY")
+                .getEnum();
+        assertEquals(0, empty.ordinal());
+        assertEquals(0, empty.getInteger());
+        assertTrue(empty.isBool());
+        assertNull(empty.getString());
+
+        SchemaEnum next = builder.create("NEXT").getEnum();
+        assertFalse(next.isBool());
+
+        EnumSchema.IntSlot<SchemaEnum> late = schema.intSlot("integer");
+        assertThrows(IllegalArgumentException.class, () -> builder.set(late, 1));
+    }
+}
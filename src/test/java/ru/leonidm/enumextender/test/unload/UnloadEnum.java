@@ -0,0 +1,11 @@
+package ru.leonidm.enumextender.test.unload;
+
+/**
+ * Enumeration that must be loaded only by throwaway class loader in {@link UnloadTest}
+ *
+ * @author LeonidM
+ */
+public enum UnloadEnum {
+    A,
+    B
+}
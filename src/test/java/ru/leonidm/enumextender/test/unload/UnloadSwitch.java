@@ -0,0 +1,23 @@
+package ru.leonidm.enumextender.test.unload;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Class that must be loaded only by throwaway class loader in {@link UnloadTest}
+ *
+ * @author LeonidM
+ */
+public class UnloadSwitch {
+
+    @NotNull
+    public static String switchCase(@NotNull UnloadEnum e) {
+        switch (e) {
+            case A:
+                return "A";
+            case B:
+                return "B";
+            default:
+                return "-" + e.name();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ru.leonidm.enumextender.test.unload;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import ru.leonidm.enumextender.api.EnumExtender;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * @author LeonidM
+ */
+public class UnloadTest {
+
+    private static final String PREFIX = UnloadTest.class.getPackageName() + ".Unload";
+
+    @Test
+    public void classLoaderIsCollected() throws Exception {
+        WeakReference<ClassLoader> reference = extendInThrowawayClassLoader();
+
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        assertNull(reference.get());
+    }
+
+    @NotNull
+    private WeakReference<ClassLoader> extendInThrowawayClassLoader() throws Exception {
+        URL location = getClass().getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader classLoader = new ChildFirstClassLoader(new URL[]{location}, getClass().getClassLoader())) {
+            Class enumClass = classLoader.loadClass(UnloadEnum.class.getName());
+            assertNotSame(UnloadEnum.class, enumClass);
+
+            EnumExtender enumExtender = EnumExtender.of(enumClass);
+            Enum<?> c = enumExtender.addEnum("C", Map.of()).getEnum();
+            Enum<?> d = enumExtender.insertEnum("D", Map.of(), Enum.valueOf(enumClass, "B")).getEnum();
+
+            Method switchCase = classLoader.loadClass(UnloadSwitch.class.getName()).getMethod("switchCase", enumClass);
+            enumExtender.switchCase().patch(classLoader, false);
+
+            for (Object value : enumClass.getEnumConstants()) {
+                String name = ((Enum<?>) value).name();
+                String expected = value == c || value == d ? "-" + name : name;
+                assertEquals(expected, switchCase.invoke(null, value));
+            }
+
+            enumExtender.removeEnum(d).getEnum();
+            return new WeakReference<>(classLoader);
+        }
+    }
+
+    private static class ChildFirstClassLoader extends URLClassLoader {
+
+        private ChildFirstClassLoader(URL @NotNull [] urls, @NotNull ClassLoader parent) {
+            super(urls, parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(PREFIX) || name.startsWith(UnloadTest.class.getName())) {
+                return super.loadClass(name, resolve);
+            }
+
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> clazz = findLoadedClass(name);
+                return clazz != null ? clazz : findClass(name);
+            }
+        }
+    }
+}
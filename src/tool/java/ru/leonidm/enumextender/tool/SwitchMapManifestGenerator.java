@@ -0,0 +1,49 @@
+package ru.leonidm.enumextender.tool;
+
+import ru.leonidm.enumextender.api.SwitchMapIndex;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Build-time tool, that scans compiled classes and writes {@link SwitchMapIndex#MANIFEST} with all found
+ * switch-case synthetic classes. Usage: {@code SwitchMapManifestGenerator <output directory> <classes>...}
+ * <p>
+ * It lives in the separate {@code tool} source set used by the build, so the runtime jar has no process-exiting code
+ *
+ * @author LeonidM
+ */
+public final class SwitchMapManifestGenerator {
+
+    private SwitchMapManifestGenerator() {
+
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: SwitchMapManifestGenerator <output directory> <classes>...");
+            System.exit(1);
+        }
+
+        List<File> classpath = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            File file = new File(args[i]);
+            if (file.exists()) {
+                classpath.add(file);
+            }
+        }
+
+        // Manifest is not written at all if there are no switch-case synthetic classes
+        Path outputDirectory = Path.of(args[0]);
+        SwitchMapIndex index = SwitchMapIndex.scan(classpath);
+        if (index.asMap().isEmpty()) {
+            Files.deleteIfExists(outputDirectory.resolve(SwitchMapIndex.MANIFEST));
+        } else {
+            index.writeManifest(outputDirectory);
+        }
+    }
+}